@@ -0,0 +1,69 @@
+#!/bin/sh
+# Precificador em massa (org.example.Main) com partida rápida por AppCDS.
+#
+#   mvn -Pcds -DskipTests package        # jar + arquivo CDS de treino
+#   ./precificar.sh pedidos.csv saida.csv --threads 8
+#   ./precificar.sh --treinar            # refaz o arquivo CDS a partir do jar atual
+#   ./precificar.sh --medir [N]          # tempo médio de N execuções pequenas, sem e com o arquivo
+#
+# O treino roda Main --treino com -XX:ArchiveClassesAtExit. Jar e arquivo ficam em
+# $PRECIFICAR_CACHE (padrão ~/.cache/problema01): a CDS ignora classes de jars cujo caminho
+# tem espaço, como o deste repositório. Se o jar em target/ for mais novo que a cópia,
+# o treino é refeito antes de rodar.
+#
+# A precificação em massa não usa a Vector API, então o módulo jdk.incubator.vector não é
+# adicionado: sem --add-modules, a JVM também reaproveita o grafo de módulos arquivado.
+# JAVA_OPTS vai junto para a JVM; em lotes pequenos, -XX:TieredStopAtLevel=1 corta mais
+# alguns milissegundos, à custa do desempenho em arquivos grandes.
+
+set -e
+DIR=$(cd "$(dirname "$0")" && pwd)
+JAR="$DIR/target/problema01-1.0-SNAPSHOT.jar"
+CACHE="${PRECIFICAR_CACHE:-${XDG_CACHE_HOME:-$HOME/.cache}/problema01}"
+CDS_JAR="$CACHE/problema01.jar"
+JSA="$CACHE/problema01.jsa"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+
+if [ ! -f "$JAR" ]; then
+    echo "jar ausente: rode 'mvn -Pcds -DskipTests package'" >&2
+    exit 2
+fi
+
+treinar() {
+    mkdir -p "$CACHE"
+    cp "$JAR" "$CDS_JAR"
+    rm -f "$JSA"
+    "$JAVA" -XX:ArchiveClassesAtExit="$JSA" -Xlog:cds=off -cp "$CDS_JAR" org.example.Main --treino >&2
+}
+
+# média em ms de $1 execuções do restante da linha de comando
+media() {
+    n=$1
+    shift
+    inicio=$(date +%s%N)
+    i=0
+    while [ $i -lt "$n" ]; do
+        "$@" >/dev/null 2>&1
+        i=$((i + 1))
+    done
+    echo $(( ($(date +%s%N) - inicio) / n / 1000000 ))
+}
+
+if [ "$1" = --treinar ]; then
+    treinar
+    exit 0
+fi
+if [ ! -f "$JSA" ] || [ "$JAR" -nt "$CDS_JAR" ]; then
+    treinar
+fi
+
+if [ "$1" = --medir ]; then
+    n=${2:-20}
+    # lote pequeno: o tempo é quase todo partida da JVM e carga de classes
+    sem=$(media "$n" "$JAVA" $JAVA_OPTS -cp "$CDS_JAR" org.example.Main --treino 20)
+    com=$(media "$n" "$JAVA" $JAVA_OPTS -XX:SharedArchiveFile="$JSA" -cp "$CDS_JAR" org.example.Main --treino 20)
+    echo "partida (média de $n, 20 pedidos): sem AppCDS ${sem} ms, com AppCDS ${com} ms"
+    exit 0
+fi
+
+exec "$JAVA" $JAVA_OPTS -XX:SharedArchiveFile="$JSA" -cp "$CDS_JAR" org.example.Main "$@"
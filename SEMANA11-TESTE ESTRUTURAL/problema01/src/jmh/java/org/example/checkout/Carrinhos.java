@@ -0,0 +1,23 @@
+package org.example.checkout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/** Carrinhos reproduzíveis para os benchmarks. */
+final class Carrinhos {
+    private Carrinhos() {}
+
+    private static final String[] CATEGORIAS = {"ELETRÔNICOS", "BOOK", "ROUPAS", "CASA", "BRINQUEDOS"};
+
+    static List<Item> gerar(int n, long semente) {
+        SplittableRandom rnd = new SplittableRandom(semente);
+        List<Item> itens = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String categoria = CATEGORIAS[rnd.nextInt(CATEGORIAS.length)];
+            double preco = rnd.nextInt(1, 50_000) / 100.0;
+            itens.add(new Item(categoria, preco, rnd.nextInt(1, 6)));
+        }
+        return itens;
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.checkout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Checkout completo por tamanho de carrinho e caminho de cupom. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CheckoutBenchmark {
+
+    @Param({"1", "10", "1000", "100000"})
+    int itens;
+
+    @Param({"", "DESC10", "DESC20", "FRETEGRATIS"})
+    String cupom;
+
+    CheckoutService service;
+    List<Item> carrinho;
+    LocalDate hoje;
+    LocalDate validade;
+
+    @Setup
+    public void setUp() {
+        service = new CheckoutService(new CouponService(), new ShippingService());
+        carrinho = Carrinhos.gerar(itens, 42L);
+        hoje = LocalDate.of(2025, 1, 1);
+        validade = LocalDate.of(2025, 1, 31);
+    }
+
+    @Benchmark
+    public CheckoutResult checkout() {
+        return service.checkout(carrinho, CustomerTier.SILVER, false, "SUL", 3.0, cupom, hoje, validade);
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.checkout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/** Codificação binária de pedido e resultado, em buffer de heap e direto. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CheckoutCodecBenchmark {
+
+    @Param({"1", "10", "100"})
+    int itens;
+
+    @Param({"heap", "direto"})
+    String buffer;
+
+    CheckoutRequest pedido;
+    CheckoutResult resultado;
+    ByteBuffer buf;
+    ByteBuffer pedidoCodificado;
+    ByteBuffer resultadoCodificado;
+    CheckoutCodec.Decoder decoder;
+
+    @Setup
+    public void setUp() {
+        LocalDate hoje = LocalDate.of(2025, 1, 15);
+        pedido = new CheckoutRequest(Carrinhos.gerar(itens, 42L), CustomerTier.GOLD, false,
+                "SUDESTE", 3.0, "DESC20", hoje, hoje.plusDays(10));
+        resultado = new CheckoutService(new CouponService(), new ShippingService()).checkout(
+                pedido.itens, pedido.tier, false, pedido.region, pedido.peso, pedido.couponCode,
+                pedido.today, pedido.couponExpiryInclusive);
+        int tamanho = CheckoutCodec.encodedSize(pedido);
+        buf = alocar(tamanho);
+        pedidoCodificado = alocar(tamanho);
+        CheckoutCodec.encode(pedido, pedidoCodificado);
+        pedidoCodificado.flip();
+        resultadoCodificado = alocar(CheckoutCodec.TAMANHO_RESULTADO);
+        CheckoutCodec.encode(resultado, resultadoCodificado);
+        resultadoCodificado.flip();
+        decoder = new CheckoutCodec.Decoder();
+    }
+
+    private ByteBuffer alocar(int n) {
+        return buffer.equals("direto") ? ByteBuffer.allocateDirect(n) : ByteBuffer.allocate(n);
+    }
+
+    @Benchmark
+    public ByteBuffer encodeRequest() {
+        buf.clear();
+        CheckoutCodec.encode(pedido, buf);
+        return buf;
+    }
+
+    @Benchmark
+    public CheckoutRequest decodeRequest() {
+        pedidoCodificado.rewind();
+        return decoder.decodeRequest(pedidoCodificado);
+    }
+
+    @Benchmark
+    public ByteBuffer encodeResult() {
+        buf.clear();
+        CheckoutCodec.encode(resultado, buf);
+        return buf;
+    }
+
+    @Benchmark
+    public CheckoutResult decodeResult() {
+        resultadoCodificado.rewind();
+        return decoder.decodeResult(resultadoCodificado);
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.checkout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/** Avaliação de cupom por caminho: sem cupom, válido, abaixo do mínimo, expirado, desconhecido, minúsculo. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CouponServiceBenchmark {
+
+    @Param({"", "DESC10", "DESC20", "DESC20_MINIMO", "DESC20_EXPIRADO", "FRETEGRATIS", "INVALIDO", "desc10"})
+    String caso;
+
+    CouponService service;
+    String codigo;
+    LocalDate hoje;
+    LocalDate validade;
+    double subtotal;
+
+    @Setup
+    public void setUp() {
+        service = new CouponService();
+        hoje = LocalDate.of(2025, 1, 15);
+        validade = LocalDate.of(2025, 1, 31);
+        subtotal = 150.0;
+        codigo = caso;
+        if (caso.equals("DESC20_MINIMO")) {
+            codigo = "DESC20";
+            subtotal = 50.0;
+        } else if (caso.equals("DESC20_EXPIRADO")) {
+            codigo = "DESC20";
+            validade = LocalDate.of(2025, 1, 1);
+        }
+    }
+
+    @Benchmark
+    public CouponResult evaluate() {
+        return service.evaluate(codigo, hoje, validade, subtotal);
+    }
+}
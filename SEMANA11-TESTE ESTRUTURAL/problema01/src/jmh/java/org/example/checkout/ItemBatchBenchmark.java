@@ -0,0 +1,93 @@
+package org.example.checkout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carrinhos grandes: List&lt;Item&gt; (soma compensada em paralelo, ver {@link ParallelItemSums})
+ * contra ItemBatch escalar e vetorial, e a soma simples da lista como referência.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class ItemBatchBenchmark {
+
+    @Param({"100000", "1000000"})
+    int itens;
+
+    CheckoutService service;
+    List<Item> lista;
+    ItemBatch lote;
+    LocalDate hoje;
+    double[] somas;
+
+    @Setup
+    public void setUp() {
+        service = new CheckoutService(new CouponService(), new ShippingService());
+        lista = Carrinhos.gerar(itens, 42L);
+        lote = new ItemBatch(itens);
+        for (Item i : lista) lote.add(i);
+        hoje = LocalDate.of(2025, 1, 1);
+        somas = new double[2];
+    }
+
+    @Benchmark
+    public CheckoutResult lista() {
+        return service.checkout(lista, CustomerTier.SILVER, false, "SUL", 3.0, null, hoje, null);
+    }
+
+    @Benchmark
+    public CheckoutResult lote() {
+        return service.checkoutBatch(lote, CustomerTier.SILVER, false, "SUL", 3.0, null, hoje, null);
+    }
+
+    @Benchmark
+    public double[] somasListaSimples() {
+        CategoryRegistry.ExemptSet isentas = CategoryRegistry.padrao().exempt();
+        double subtotal = 0.0;
+        double tributavel = 0.0;
+        for (Item i : lista) {
+            double s = i.subtotal();
+            subtotal += s;
+            if (!isentas.contains(i.getCategoriaCodigo())) tributavel += s;
+        }
+        somas[0] = subtotal;
+        somas[1] = tributavel;
+        return somas;
+    }
+
+    @Benchmark
+    public double[] somasListaParalela() {
+        ParallelItemSums.somar(lista, CategoryRegistry.padrao().exempt(), somas, ForkJoinPool.commonPool());
+        return somas;
+    }
+
+    @Benchmark
+    public double[] somasEscalar() {
+        ItemSums.somarEscalar(lote.precos(), lote.quantidades(), lote.tributaveis(), lote.size(), somas);
+        return somas;
+    }
+
+    @Benchmark
+    public double[] somasVetor() {
+        VectorItemSums.somar(lote.precos(), lote.quantidades(), lote.tributaveis(), lote.size(), somas);
+        return somas;
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.checkout;
+
+import org.example.checkout.metrics.CheckoutMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regras fixas contra as compiladas de {@code regras-preco.txt}: desconto isolado e checkout completo.
+ * {@code outroConjunto} cria antes um serviço com outras regras: cada conjunto tem a sua
+ * cadeia, então o tempo deve ser o de {@code compiladas}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PricingRulesBenchmark {
+
+    @Param({"fixas", "compiladas", "outroConjunto"})
+    String regras;
+
+    @Param({"BASIC", "GOLD"})
+    CustomerTier tier;
+
+    CheckoutService service;
+    List<Item> itens;
+    LocalDate hoje;
+    CouponResult cupom;
+
+    @Setup
+    public void setUp() {
+        PricingRules r = regras.equals("fixas") ? null : PricingRules.padrao();
+        if (regras.equals("outroConjunto")) {
+            new CheckoutService(new CouponService(), new ShippingService(), CheckoutMetrics.NOOP,
+                    PricingRules.load(new StringReader("desconto 0.01\n")));
+        }
+        service = new CheckoutService(new CouponService(), new ShippingService(), CheckoutMetrics.NOOP, r);
+        itens = Carrinhos.gerar(10, 42L);
+        hoje = LocalDate.of(2025, 1, 15);
+        cupom = new CouponService().evaluate("DESC10", hoje, null, 1000.0);
+    }
+
+    @Benchmark
+    public long discount() {
+        return service.discountCents(service.config(), 25_990L, tier, true, cupom);
+    }
+
+    @Benchmark
+    public CheckoutResult checkout() {
+        return service.checkout(itens, tier, true, "SUL", 2.0, "DESC10", hoje, null);
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.checkout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Disputa pelo saldo de um cupom limitado com 64 threads. {@code faixas=1} é o
+ * contador único, referência para o ganho das faixas. Cada operação reserva e
+ * devolve (ou confirma) uma unidade; o saldo é grande o bastante para não esgotar.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class RedemptionBudgetBenchmark {
+
+    @Param({"1", "8", "64"})
+    int faixas;
+
+    RedemptionBudget orcamento;
+
+    @Setup
+    public void setUp() {
+        orcamento = new RedemptionBudget(Long.MAX_VALUE / 2, faixas);
+    }
+
+    @Benchmark
+    public int reservarDevolver() {
+        int f = orcamento.reservar();
+        orcamento.devolver(f);
+        return f;
+    }
+
+    @Benchmark
+    public int reservarConfirmar() {
+        int f = orcamento.reservar();
+        orcamento.confirmar();
+        return f;
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.checkout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Frete por região, pela região em texto e pelo índice já resolvido. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShippingServiceBenchmark {
+
+    @Param({"SUL", "SUDESTE", "NORTE", "NORDESTE", "sul"})
+    String regiao;
+
+    @Param({"1.5", "4.0", "12.0"})
+    double peso;
+
+    ShippingService service;
+    int indice;
+
+    @Setup
+    public void setUp() {
+        service = new ShippingService();
+        indice = service.regionIndex(regiao);
+    }
+
+    @Benchmark
+    public double porNome() {
+        return service.calculate(regiao, peso, 100.0, false);
+    }
+
+    @Benchmark
+    public double porIndice() {
+        return service.calculate(indice, peso, 100.0, false);
+    }
+}
@@ -1,8 +1,151 @@
 package org.example;
 
+import org.example.bulk.BulkPricer;
+import org.example.bulk.OrderFileReader;
+import org.example.checkout.CheckoutService;
+import org.example.checkout.CouponService;
+import org.example.checkout.CustomerTier;
+import org.example.checkout.ShippingService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Precificador em massa.
+ *
+ * <pre>
+ * java org.example.Main pedidos.csv [saida.csv] [--threads N] [--lote N]
+ * java org.example.Main --treino [N]
+ * </pre>
+ *
+ * Sem arquivo de saída, escreve na saída padrão. Formato de entrada (CSV ou NDJSON) em
+ * {@link OrderFileReader}. Linhas inválidas vão para a saída de erro como
+ * {@code linha N: motivo} e ficam fora da saída; o resto do arquivo é precificado e o
+ * processo termina com status 1.
+ *
+ * {@code --treino} precifica N pedidos sintéticos (padrão 2.000, todos os tiers, cupons e
+ * regiões) e descarta a saída: é a execução de treino que grava o arquivo AppCDS
+ * ({@code -XX:ArchiveClassesAtExit}, ver {@code precificar.sh}) com as classes que uma
+ * execução real carrega.
+ */
 public class Main {
-    public static void main(String[] args) {
 
-        System.out.println("Hello world!");
+    private static final int PEDIDOS_TREINO = 2_000;
+
+    public static void main(String[] args) throws IOException {
+        Path entrada = null;
+        Path saida = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int lote = 1024;
+        int treino = 0;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads":
+                    threads = Integer.parseInt(valor(args, ++i));
+                    break;
+                case "--lote":
+                    lote = Integer.parseInt(valor(args, ++i));
+                    break;
+                case "--treino":
+                    treino = i + 1 < args.length && !args[i + 1].startsWith("--")
+                            ? Integer.parseInt(args[++i]) : PEDIDOS_TREINO;
+                    break;
+                default:
+                    if (entrada == null) entrada = Path.of(args[i]);
+                    else if (saida == null) saida = Path.of(args[i]);
+                    else uso();
+            }
+        }
+        if (treino > 0) {
+            if (entrada != null) uso();
+            treinar(treino, threads, lote);
+            return;
+        }
+        if (entrada == null) uso();
+
+        CheckoutService service = new CheckoutService(new CouponService(), new ShippingService());
+        BulkPricer pricer = new BulkPricer(service, threads, lote);
+
+        // chamado pela thread de leitura e pelas do pool
+        AtomicLong recusadas = new AtomicLong();
+        OrderFileReader.LinhaInvalida invalidas = (numero, motivo) -> {
+            recusadas.incrementAndGet();
+            synchronized (System.err) {
+                System.err.println("linha " + numero + ": " + motivo);
+            }
+        };
+
+        long inicio = System.nanoTime();
+        long total;
+        try (OrderFileReader in = new OrderFileReader(entrada, invalidas);
+             Writer out = saida == null
+                     ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16)
+                     : Files.newBufferedWriter(saida, StandardCharsets.UTF_8)) {
+            total = pricer.run(in, out);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.err.printf("%d pedidos em %.2fs (%.0f pedidos/s)%n", total, segundos, total / segundos);
+        if (recusadas.get() > 0) {
+            System.err.printf("%d linhas recusadas%n", recusadas.get());
+            System.exit(1);
+        }
+    }
+
+    // mesmo caminho de uma execução real (leitura mapeada, pipeline, escrita), só que sem saída
+    private static void treinar(int pedidos, int threads, int lote) throws IOException {
+        Path arquivo = Files.createTempFile("treino", ".csv");
+        try {
+            try (Writer w = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+                escreverPedidosTreino(pedidos, w);
+            }
+            CheckoutService service = new CheckoutService(new CouponService(), new ShippingService());
+            long total;
+            try (OrderFileReader in = new OrderFileReader(arquivo)) {
+                total = new BulkPricer(service, threads, lote).run(in, Writer.nullWriter());
+            }
+            System.err.printf("treino: %d pedidos%n", total);
+        } finally {
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    static void escreverPedidosTreino(int pedidos, Writer w) throws IOException {
+        String[] regioes = {"SUL", "SUDESTE", "NORTE", "NORDESTE", "CENTRO-OESTE", ""};
+        String[] cupons = {"", "DESC10", "DESC20", "INEXISTENTE"};
+        String[] categorias = {"ELETRÔNICOS", "BOOK", "ROUPAS", "ALIMENTOS"};
+        CustomerTier[] tiers = CustomerTier.values();
+        w.write("pedido;tier;primeiraCompra;regiao;peso;cupom;hoje;validade;itens\n");
+        for (int i = 0; i < pedidos; i++) {
+            StringBuilder l = new StringBuilder(96);
+            l.append(i).append(';').append(tiers[i % tiers.length]).append(';').append(i % 2 == 0)
+                    .append(';').append(regioes[i % regioes.length]).append(';').append(i % 13 * 0.75)
+                    .append(';').append(cupons[i % cupons.length]).append(";2025-01-15;")
+                    .append(i % 8 == 0 ? "2025-01-10" : "").append(';');
+            int itens = 1 + i % 5;
+            for (int k = 0; k < itens; k++) {
+                if (k > 0) l.append('|');
+                l.append(categorias[(i + k) % categorias.length]).append(':')
+                        .append(10 + (i * 31 + k * 17) % 300).append(".90:").append(1 + k % 3);
+            }
+            w.write(l.append('\n').toString());
+        }
+    }
+
+    private static String valor(String[] args, int i) {
+        if (i >= args.length) uso();
+        return args[i];
+    }
+
+    private static void uso() {
+        System.err.println("uso: java org.example.Main pedidos.csv [saida.csv] [--threads N] [--lote N]");
+        System.err.println("     java org.example.Main --treino [N]");
+        System.exit(2);
     }
-}
\ No newline at end of file
+}
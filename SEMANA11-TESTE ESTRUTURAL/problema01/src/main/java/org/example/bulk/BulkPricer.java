@@ -0,0 +1,173 @@
+package org.example.bulk;
+
+import org.example.checkout.CheckoutRequest;
+import org.example.checkout.CheckoutResult;
+import org.example.checkout.CheckoutService;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Precificação em massa em pipeline: uma thread lê e monta lotes de pedidos,
+ * um pool precifica os lotes e a thread chamadora escreve os resultados na
+ * ordem do arquivo. A fila entre leitura e escrita é limitada, então a memória
+ * não cresce com o tamanho do arquivo.
+ *
+ * Saída, uma linha por pedido:
+ * <pre>pedido;subtotal;desconto;imposto;frete;total</pre>
+ *
+ * Pedido que não pode ser precificado segue a regra do leitor: com
+ * {@link OrderFileReader.LinhaInvalida}, a linha é informada (das threads do pool,
+ * em paralelo com a leitura) e fica fora da saída; sem ela, {@link #run} lança
+ * com o número da linha.
+ */
+public final class BulkPricer {
+
+    public static final String CABECALHO = "pedido;subtotal;desconto;imposto;frete;total";
+
+    private final CheckoutService service;
+    private final int threads;
+    private final int tamanhoLote;
+
+    public BulkPricer(CheckoutService service, int threads, int tamanhoLote) {
+        this.service = Objects.requireNonNull(service, "service");
+        if (threads <= 0) throw new IllegalArgumentException("threads <= 0");
+        if (tamanhoLote <= 0) throw new IllegalArgumentException("tamanhoLote <= 0");
+        this.threads = threads;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /** Precifica os pedidos de {@code in} e escreve em {@code out}; devolve quantos foram precificados. */
+    public long run(OrderFileReader in, Writer out) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        // cada lote na fila já foi entregue ao pool; 2 por thread mantém o pool ocupado
+        BlockingQueue<Future<Lote>> fila = new ArrayBlockingQueue<>(threads * 2);
+        CompletableFuture<Lote> fim = new CompletableFuture<>();
+
+        Thread leitor = new Thread(() -> ler(in, pool, fila, fim), "bulk-leitor");
+        leitor.setDaemon(true);
+        leitor.start();
+
+        long total = 0;
+        StringBuilder sb = new StringBuilder(tamanhoLote * 64);
+        try {
+            out.write(CABECALHO);
+            out.write('\n');
+            while (true) {
+                Future<Lote> f = fila.take();
+                if (f == fim) break;
+                Lote lote = f.get();
+                sb.setLength(0);
+                for (int i = 0; i < lote.tamanho; i++) {
+                    if (lote.resultados[i] == null) continue;   // recusado
+                    linha(sb, lote.pedidos[i].id, lote.resultados[i]);
+                    total++;
+                }
+                out.append(sb);
+            }
+            out.flush();
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrompido", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException) throw (IOException) causa;
+            if (causa instanceof RuntimeException) throw (RuntimeException) causa;
+            throw new IOException(causa);
+        } finally {
+            leitor.interrupt();
+            pool.shutdownNow();
+        }
+    }
+
+    private void ler(OrderFileReader in, ExecutorService pool, BlockingQueue<Future<Lote>> fila, CompletableFuture<Lote> fim) {
+        try {
+            Pedido[] pedidos = new Pedido[tamanhoLote];
+            int n = 0;
+            Pedido p;
+            while ((p = in.next()) != null) {
+                pedidos[n++] = p;
+                if (n == tamanhoLote) {
+                    enviar(pool, fila, pedidos, n, in.invalidas());
+                    pedidos = new Pedido[tamanhoLote];
+                    n = 0;
+                }
+            }
+            if (n > 0) enviar(pool, fila, pedidos, n, in.invalidas());
+            fila.put(fim);
+        } catch (InterruptedException e) {
+            // escritor desistiu
+        } catch (Throwable t) {
+            try {
+                fila.put(CompletableFuture.failedFuture(t));
+                fila.put(fim);
+            } catch (InterruptedException ignored) {
+                // escritor desistiu
+            }
+        }
+    }
+
+    private void enviar(ExecutorService pool, BlockingQueue<Future<Lote>> fila, Pedido[] pedidos, int n,
+                        OrderFileReader.LinhaInvalida invalidas) throws InterruptedException {
+        fila.put(pool.submit(() -> precificar(pedidos, n, invalidas)));
+    }
+
+    // resultado null = pedido recusado e já informado
+    private Lote precificar(Pedido[] pedidos, int n, OrderFileReader.LinhaInvalida invalidas) {
+        CheckoutResult[] resultados = new CheckoutResult[n];
+        for (int i = 0; i < n; i++) {
+            CheckoutRequest r = pedidos[i].request;
+            try {
+                resultados[i] = service.checkout(r.itens, r.tier, r.primeiraCompra, r.region, r.peso,
+                        r.couponCode, r.today, r.couponExpiryInclusive);
+            } catch (RuntimeException e) {
+                if (invalidas == null) {
+                    throw new IllegalArgumentException("linha " + pedidos[i].linha + ": " + e.getMessage(), e);
+                }
+                invalidas.linha(pedidos[i].linha, e.getMessage());
+            }
+        }
+        return new Lote(pedidos, resultados, n);
+    }
+
+    static void linha(StringBuilder sb, String id, CheckoutResult r) {
+        sb.append(id).append(';');
+        centavos(sb, r.subtotalCents).append(';');
+        centavos(sb, r.discountCents).append(';');
+        centavos(sb, r.taxCents).append(';');
+        centavos(sb, r.shippingCents).append(';');
+        centavos(sb, r.totalCents).append('\n');
+    }
+
+    private static StringBuilder centavos(StringBuilder sb, long cents) {
+        if (cents < 0) {
+            sb.append('-');
+            cents = -cents;
+        }
+        long resto = cents % 100;
+        sb.append(cents / 100).append('.');
+        if (resto < 10) sb.append('0');
+        return sb.append(resto);
+    }
+
+    private static final class Lote {
+        final Pedido[] pedidos;
+        final CheckoutResult[] resultados;
+        final int tamanho;
+
+        Lote(Pedido[] pedidos, CheckoutResult[] resultados, int tamanho) {
+            this.pedidos = pedidos;
+            this.resultados = resultados;
+            this.tamanho = tamanho;
+        }
+    }
+}
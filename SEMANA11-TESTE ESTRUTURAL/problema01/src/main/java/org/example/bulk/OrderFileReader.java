@@ -0,0 +1,314 @@
+package org.example.bulk;
+
+import org.example.checkout.CheckoutRequest;
+import org.example.checkout.CustomerTier;
+import org.example.checkout.Item;
+import org.example.checkout.Simbolos;
+import org.example.server.CheckoutJson;
+import org.example.server.Json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lê um arquivo de pedidos por janelas mapeadas em memória, um carrinho por linha:
+ *
+ * <pre>
+ * pedido;tier;primeiraCompra;regiao;peso;cupom;hoje;validade;itens
+ * 1001;GOLD;false;SUL;2.5;DESC10;2025-01-15;;ELETRÔNICOS:100.00:1|BOOK:35.90:2
+ * </pre>
+ *
+ * Cupom, região e validade podem ficar vazios. Linhas vazias, iniciadas por '#'
+ * e um cabeçalho começando com "pedido" são ignorados. Números e datas são lidos
+ * direto dos bytes; textos repetidos (categoria, região, cupom) vêm de uma tabela
+ * de símbolos, sem criar String por linha.
+ *
+ * Se a primeira linha de dados começa com '{', o arquivo é NDJSON: um objeto por
+ * linha, com "pedido" (texto ou inteiro) e os campos de {@code POST /checkout}
+ * ({@link CheckoutJson}). É o caminho lento: cada linha vira String e mapa.
+ *
+ * Linha inválida: sem {@link LinhaInvalida}, {@link #next()} lança com o número da
+ * linha; com ela, a linha é informada e a leitura segue na próxima.
+ *
+ * Não é thread-safe.
+ */
+public final class OrderFileReader implements Closeable {
+
+    /** Recebe cada linha recusada, com o número (a partir de 1) e o motivo. */
+    @FunctionalInterface
+    public interface LinhaInvalida {
+        void linha(long numero, String motivo);
+    }
+
+    static final int JANELA_PADRAO = 64 << 20;
+
+    private static final byte SEP = ';';
+    private static final byte SEP_ITENS = '|';
+    private static final byte SEP_CAMPO_ITEM = ':';
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    private final FileChannel canal;
+    private final long tamanho;
+    private final int janela;
+    private final Simbolos simbolos = new Simbolos(4096);
+    private final LinhaInvalida invalidas;   // null = lançar
+
+    private final int[] campos = new int[10];   // início de cada campo + fim da linha
+
+    private MappedByteBuffer buf;
+    private long base;          // posição de buf no arquivo
+    private long linha;
+    private long recusadas;
+    private Boolean ndjson;   // decidido na primeira linha de dados
+
+    // datas se repetem muito em sequência
+    private int ultimaDataChave = -1;
+    private LocalDate ultimaData;
+
+    public OrderFileReader(Path arquivo) throws IOException {
+        this(arquivo, JANELA_PADRAO, null);
+    }
+
+    /** Linhas inválidas vão para {@code invalidas} em vez de interromper a leitura. */
+    public OrderFileReader(Path arquivo, LinhaInvalida invalidas) throws IOException {
+        this(arquivo, JANELA_PADRAO, invalidas);
+    }
+
+    OrderFileReader(Path arquivo, int janela) throws IOException {
+        this(arquivo, janela, null);
+    }
+
+    OrderFileReader(Path arquivo, int janela, LinhaInvalida invalidas) throws IOException {
+        if (janela <= 0) throw new IllegalArgumentException("janela <= 0");
+        this.invalidas = invalidas;
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+        this.tamanho = canal.size();
+        this.janela = janela;
+    }
+
+    /** Próximo pedido, ou null no fim do arquivo. */
+    public Pedido next() throws IOException {
+        while (true) {
+            if (buf == null || !buf.hasRemaining()) {
+                long pos = buf == null ? 0 : base + buf.limit();
+                if (!mapear(pos)) return null;
+            }
+            int ini = buf.position();
+            int fim = proximo(ini, buf.limit(), (byte) '\n');
+            if (fim == buf.limit() && base + buf.limit() < tamanho) {
+                // linha cortada pela janela: remapeia a partir do início dela
+                if (ini == 0) throw new IOException("linha " + (linha + 1) + " maior que a janela de mapeamento");
+                mapear(base + ini);
+                continue;
+            }
+            buf.position(Math.min(fim + 1, buf.limit()));
+            linha++;
+
+            int f = fim;
+            if (f > ini && buf.get(f - 1) == '\r') f--;
+            if (f == ini || buf.get(ini) == '#' || (linha == 1 && comeca(ini, f, "pedido"))) continue;
+            if (ndjson == null) ndjson = buf.get(ini) == '{';
+            try {
+                return ndjson ? parseJson(ini, f) : parse(ini, f);
+            } catch (RuntimeException e) {
+                if (invalidas == null) throw new IllegalArgumentException("linha " + linha + ": " + e.getMessage(), e);
+                recusadas++;
+                invalidas.linha(linha, e.getMessage());
+            }
+        }
+    }
+
+    public long getLinha() {
+        return linha;
+    }
+
+    /** Linhas informadas a {@link LinhaInvalida} até aqui. */
+    public long getRecusadas() {
+        return recusadas;
+    }
+
+    /** Para onde vão as linhas inválidas; null se a leitura lança. */
+    LinhaInvalida invalidas() {
+        return invalidas;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buf = null;
+        canal.close();
+    }
+
+    private boolean mapear(long pos) throws IOException {
+        if (pos >= tamanho) return false;
+        buf = canal.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(janela, tamanho - pos));
+        base = pos;
+        return true;
+    }
+
+    private Pedido parse(int ini, int fim) {
+        int[] c = campos;
+        int n = 0;
+        c[n++] = ini;
+        for (int i = ini; i < fim && n < 9; i++) {
+            if (buf.get(i) == SEP) c[n++] = i + 1;
+        }
+        if (n != 9) throw new IllegalArgumentException("esperados 9 campos, encontrados " + n);
+        c[9] = fim + 1;
+
+        String id = texto(c[0], c[1] - 1);
+        CustomerTier tier = tier(c[1], c[2] - 1);
+        boolean primeiraCompra = booleano(c[2], c[3] - 1);
+        String region = simboloOuNull(c[3], c[4] - 1);
+        double peso = decimal(c[4], c[5] - 1);
+        String cupom = simboloOuNull(c[5], c[6] - 1);
+        LocalDate hoje = data(c[6], c[7] - 1);
+        if (hoje == null) throw new IllegalArgumentException("data 'hoje' vazia");
+        LocalDate validade = data(c[7], c[8] - 1);
+        List<Item> itens = itens(c[8], fim);
+
+        return new Pedido(id, new CheckoutRequest(itens, tier, primeiraCompra, region, peso, cupom, hoje, validade),
+                linha);
+    }
+
+    private Pedido parseJson(int ini, int fim) {
+        Object raiz = Json.parse(texto(ini, fim));
+        if (!(raiz instanceof Map)) throw new IllegalArgumentException("esperado objeto JSON");
+        Map<?, ?> m = (Map<?, ?>) raiz;
+        Object id = m.get("pedido");
+        String texto;
+        if (id instanceof String) {
+            texto = (String) id;
+        } else if (id instanceof Double && (Double) id == Math.rint((Double) id) && Math.abs((Double) id) < 1e15) {
+            texto = Long.toString(((Double) id).longValue());
+        } else {
+            throw new IllegalArgumentException("'pedido' deve ser texto ou inteiro");
+        }
+        return new Pedido(texto, CheckoutJson.request(m), linha);
+    }
+
+    private List<Item> itens(int ini, int fim) {
+        List<Item> itens = new ArrayList<>();
+        int p = ini;
+        while (p < fim) {
+            int fimItem = proximo(p, fim, SEP_ITENS);
+            int a = proximo(p, fimItem, SEP_CAMPO_ITEM);
+            int b = proximo(a + 1, fimItem, SEP_CAMPO_ITEM);
+            if (a >= fimItem || b >= fimItem) throw new IllegalArgumentException("item deve ser categoria:preco:quantidade");
+            String categoria = simbolos.get(buf, p, a);
+            double preco = decimal(a + 1, b);
+            long qtd = inteiro(b + 1, fimItem);
+            if (qtd > Integer.MAX_VALUE) throw new IllegalArgumentException("quantidade muito grande");
+            itens.add(new Item(categoria, preco, (int) qtd));
+            p = fimItem + 1;
+        }
+        return itens;
+    }
+
+    private int proximo(int p, int fim, byte alvo) {
+        while (p < fim && buf.get(p) != alvo) p++;
+        return p;
+    }
+
+    private boolean comeca(int ini, int fim, String prefixo) {
+        if (fim - ini < prefixo.length()) return false;
+        for (int i = 0; i < prefixo.length(); i++) {
+            if (Character.toLowerCase(buf.get(ini + i)) != prefixo.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private String texto(int ini, int fim) {
+        return new String(Simbolos.copiar(buf, ini, fim), StandardCharsets.UTF_8);
+    }
+
+    private String simboloOuNull(int ini, int fim) {
+        return ini == fim ? null : simbolos.get(buf, ini, fim);
+    }
+
+    private CustomerTier tier(int ini, int fim) {
+        String s = simbolos.get(buf, ini, fim);
+        for (CustomerTier t : CustomerTier.values()) {
+            if (t.name().equalsIgnoreCase(s)) return t;
+        }
+        throw new IllegalArgumentException("tier inválido: " + s);
+    }
+
+    private boolean booleano(int ini, int fim) {
+        if (ini == fim) return false;
+        byte b = buf.get(ini);
+        return b == 't' || b == 'T' || b == '1' || b == 's' || b == 'S';
+    }
+
+    /** Decimal simples (sinal, dígitos, ponto opcional). Mesmo valor de Double.parseDouble. */
+    private double decimal(int ini, int fim) {
+        if (ini == fim) throw new IllegalArgumentException("número vazio");
+        int p = ini;
+        boolean negativo = buf.get(p) == '-';
+        if (negativo || buf.get(p) == '+') p++;
+        long mantissa = 0;
+        int digitos = 0;
+        int casas = -1;
+        for (; p < fim; p++) {
+            byte b = buf.get(p);
+            if (b == '.' && casas < 0) {
+                casas = 0;
+                continue;
+            }
+            if (b < '0' || b > '9') {
+                throw new IllegalArgumentException("número inválido: " + texto(ini, fim));
+            }
+            mantissa = mantissa * 10 + (b - '0');
+            if (casas >= 0) casas++;
+            if (++digitos > 15) {
+                // fora da faixa exata: deixa para o parser do JDK
+                return Double.parseDouble(texto(ini, fim));
+            }
+        }
+        if (digitos == 0) throw new IllegalArgumentException("número inválido: " + texto(ini, fim));
+        // mantissa e potência exatas em double: uma divisão correta, como o parseDouble
+        double v = casas > 0 ? mantissa / POW10[casas] : mantissa;
+        return negativo ? -v : v;
+    }
+
+    private long inteiro(int ini, int fim) {
+        if (ini == fim) throw new IllegalArgumentException("inteiro vazio");
+        long v = 0;
+        for (int p = ini; p < fim; p++) {
+            byte b = buf.get(p);
+            if (b < '0' || b > '9' || v > Long.MAX_VALUE / 10) {
+                throw new IllegalArgumentException("inteiro inválido: " + texto(ini, fim));
+            }
+            v = v * 10 + (b - '0');
+        }
+        return v;
+    }
+
+    /** AAAA-MM-DD; vazio dá null. */
+    private LocalDate data(int ini, int fim) {
+        if (ini == fim) return null;
+        if (fim - ini != 10 || buf.get(ini + 4) != '-' || buf.get(ini + 7) != '-') {
+            throw new IllegalArgumentException("data inválida: " + texto(ini, fim));
+        }
+        int ano = (int) inteiro(ini, ini + 4);
+        int mes = (int) inteiro(ini + 5, ini + 7);
+        int dia = (int) inteiro(ini + 8, ini + 10);
+        int chave = ano * 10000 + mes * 100 + dia;
+        if (chave != ultimaDataChave) {
+            ultimaData = LocalDate.of(ano, mes, dia);
+            ultimaDataChave = chave;
+        }
+        return ultimaData;
+    }
+}
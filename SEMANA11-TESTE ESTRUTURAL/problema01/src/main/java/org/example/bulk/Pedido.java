@@ -0,0 +1,17 @@
+package org.example.bulk;
+
+import org.example.checkout.CheckoutRequest;
+
+/** Uma linha do arquivo de pedidos: identificador e entradas do checkout. */
+public final class Pedido {
+    public final String id;
+    public final CheckoutRequest request;
+    /** Número da linha no arquivo, a partir de 1. */
+    public final long linha;
+
+    Pedido(String id, CheckoutRequest request, long linha) {
+        this.id = id;
+        this.request = request;
+        this.linha = linha;
+    }
+}
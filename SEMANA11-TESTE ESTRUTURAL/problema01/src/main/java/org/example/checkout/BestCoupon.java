@@ -0,0 +1,12 @@
+package org.example.checkout;
+
+/** Resultado de {@link CheckoutService#checkoutBestCoupon}: o cupom vencedor e o checkout com ele. */
+public final class BestCoupon {
+    public final String couponCode;    // null = nenhum cupom melhora o total
+    public final CheckoutResult result;
+
+    BestCoupon(String couponCode, CheckoutResult result) {
+        this.couponCode = couponCode;
+        this.result = result;
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.checkout;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Decorador de {@link CheckoutService} que guarda os resultados em um cache LRU
+ * limitado por tamanho e por tempo de vida, indexado pela impressão digital das entradas.
+ *
+ * O cache é dividido em segmentos, cada um com seu próprio lock, para reduzir a
+ * disputa entre threads. O cálculo em caso de falta acontece fora do lock.
+ *
+ * Cada resultado guardado só vale para a {@link PricingConfig#version()} com que saiu:
+ * depois de {@link CheckoutService#reload(PricingConfig)} (ou do {@link PricingConfigWatcher})
+ * as entradas antigas viram falta e são recalculadas, sem precisar limpar o cache.
+ * Depois de trocar o catálogo de cupons, a tabela de frete ou as isenções de categoria, chame {@link #invalidateAll()}.
+ */
+public class CachingCheckoutService {
+
+    private static final int SEGMENTOS_MAX = 16;
+
+    private final CheckoutService delegate;
+    private final long ttlNanos;
+    private final LongSupplier relogio;
+    private final Segmento[] segmentos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingCheckoutService(CheckoutService delegate, int maxEntries, Duration ttl) {
+        this(delegate, maxEntries, ttl, System::nanoTime);
+    }
+
+    CachingCheckoutService(CheckoutService delegate, int maxEntries, Duration ttl, LongSupplier relogio) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries <= 0");
+        if (ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("ttl <= 0");
+        this.ttlNanos = ttl.toNanos();
+        this.relogio = Objects.requireNonNull(relogio, "relogio");
+
+        int n = Math.min(SEGMENTOS_MAX, maxEntries);
+        this.segmentos = new Segmento[n];
+        for (int i = 0; i < n; i++) {
+            // distribui o resto para que a soma das capacidades seja exatamente maxEntries
+            segmentos[i] = new Segmento(maxEntries / n + (i < maxEntries % n ? 1 : 0));
+        }
+    }
+
+    public CheckoutResult checkout(
+            List<Item> itens,
+            CustomerTier tier,
+            boolean primeiraCompra,
+            String region,
+            double peso,
+            String couponCode,
+            LocalDate today,
+            LocalDate couponExpiryInclusive
+    ) {
+        Objects.requireNonNull(itens, "itens");
+        Objects.requireNonNull(tier, "tier");
+        Objects.requireNonNull(today, "today");
+
+        QuoteKey chave = new QuoteKey(itens, tier, primeiraCompra, region, peso, couponCode, today, couponExpiryInclusive);
+        Segmento seg = segmento(chave);
+        long agora = relogio.getAsLong();
+
+        CheckoutResult r = seg.get(chave, agora, delegate.config().version());
+        if (r != null) {
+            hits.increment();
+            return r;
+        }
+        misses.increment();
+        r = delegate.checkout(itens, tier, primeiraCompra, region, peso, couponCode, today, couponExpiryInclusive);
+        seg.put(chave, r, agora + ttlNanos);
+        return r;
+    }
+
+    public long hits() { return hits.sum(); }
+    public long misses() { return misses.sum(); }
+    public long evictions() { return evictions.sum(); }
+
+    public int size() {
+        int total = 0;
+        for (Segmento s : segmentos) total += s.size();
+        return total;
+    }
+
+    public void invalidateAll() {
+        for (Segmento s : segmentos) s.clear();
+    }
+
+    private Segmento segmento(QuoteKey chave) {
+        int h = chave.hashCode();
+        h ^= (h >>> 16);
+        return segmentos[Math.floorMod(h, segmentos.length)];
+    }
+
+    private static final class Entrada {
+        final CheckoutResult resultado;
+        final long expiraEm;
+
+        Entrada(CheckoutResult resultado, long expiraEm) {
+            this.resultado = resultado;
+            this.expiraEm = expiraEm;
+        }
+    }
+
+    private final class Segmento {
+        private final LinkedHashMap<QuoteKey, Entrada> mapa;
+
+        Segmento(int capacidade) {
+            this.mapa = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<QuoteKey, Entrada> eldest) {
+                    if (size() > capacidade) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized CheckoutResult get(QuoteKey chave, long agora, long versao) {
+            Entrada e = mapa.get(chave);
+            if (e == null) return null;
+            // versões só crescem: resultado de outra versão nunca mais serve
+            if (agora - e.expiraEm >= 0 || e.resultado.configVersion != versao) {
+                mapa.remove(chave);
+                evictions.increment();
+                return null;
+            }
+            return e.resultado;
+        }
+
+        synchronized void put(QuoteKey chave, CheckoutResult r, long expiraEm) {
+            mapa.put(chave, new Entrada(r, expiraEm));
+        }
+
+        synchronized int size() {
+            return mapa.size();
+        }
+
+        synchronized void clear() {
+            mapa.clear();
+        }
+    }
+}
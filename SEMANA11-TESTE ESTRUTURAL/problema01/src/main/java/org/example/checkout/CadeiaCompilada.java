@@ -0,0 +1,29 @@
+package org.example.checkout;
+
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+/**
+ * Molde das cadeias de {@link PricingRules}: cada conjunto de regras define uma classe
+ * oculta com os bytes desta, tendo a sua cadeia como class data. Em campo estático final
+ * a cadeia é constante para a JIT, que a embute. Esta classe em si nunca é carregada.
+ */
+final class CadeiaCompilada implements PricingRules.Cadeia {
+
+    // (long, int, boolean, double) double
+    private static final MethodHandle DESCONTO;
+
+    static {
+        try {
+            DESCONTO = MethodHandles.classData(MethodHandles.lookup(), ConstantDescs.DEFAULT_NAME, MethodHandle.class);
+        } catch (IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Override
+    public double desconto(long subtotalCents, int tier, boolean primeiraCompra, double couponPercent) throws Throwable {
+        return (double) DESCONTO.invokeExact(subtotalCents, tier, primeiraCompra, couponPercent);
+    }
+}
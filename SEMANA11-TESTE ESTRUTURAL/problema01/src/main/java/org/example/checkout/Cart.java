@@ -0,0 +1,246 @@
+package org.example.checkout;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Carrinho mutável que mantém subtotal e subtotal tributável atualizados a cada
+ * item acrescentado e memoriza cada etapa do checkout (desconto, imposto, frete).
+ * Trocar só a região ou o peso recalcula só o frete. Depois de remover ou trocar um
+ * item (ou em carrinhos grandes), o próximo {@link #quote()} soma os itens de novo:
+ * subtrair de uma soma em double não dá a soma em ordem que o checkout faz.
+ *
+ * Não é thread-safe.
+ */
+public final class Cart {
+
+    private final CheckoutService service;
+    private List<Item> itens = new ArrayList<>();
+    // itens está guardada num CheckoutResult: copiar antes de alterar
+    private boolean itensCompartilhados;
+
+    private CustomerTier tier = CustomerTier.BASIC;
+    private boolean primeiraCompra;
+    private String region;
+    private double peso;
+    private String couponCode;
+    private LocalDate today;
+    private LocalDate couponExpiryInclusive;
+
+    // somas em ordem, como ItemSums faz; só acrescentar no fim mantém isso sem percorrer a lista
+    private double subtotal;
+    private double subtotalTributavel;
+    private boolean somasValidas = true;
+    // isenções com que subtotalTributavel foi somado; refeito se o registro mudar
+    private CategoryRegistry.ExemptSet isencoes = CategoryRegistry.padrao().exempt();
+    // parâmetros com que as etapas foram calculadas; outra versão refaz todas
+    private PricingConfig config;
+
+    // etapas memorizadas
+    private boolean descontoValido;
+    private boolean impostoValido;
+    private boolean freteValido;
+    private long subtotalCents;
+    private long tributavelCents;
+    private CouponResult cupom;
+    private long discountCents;
+    private long taxCents;
+    private long shippingCents;
+    private CheckoutResult resultado;
+
+    public Cart(CheckoutService service, LocalDate today) {
+        this.service = Objects.requireNonNull(service, "service");
+        this.today = Objects.requireNonNull(today, "today");
+    }
+
+    public Cart add(Item item) {
+        Objects.requireNonNull(item, "item");
+        descompartilhar();
+        itens.add(item);
+        // a partir de MINIMO_PARALELO o checkout usa a soma compensada: refazer no quote()
+        if (somasValidas && itens.size() < ItemSums.MINIMO_PARALELO) {
+            double s = item.subtotal();
+            subtotal += s;
+            if (!isencoes.contains(item.getCategoriaCodigo())) subtotalTributavel += s;
+        } else {
+            somasValidas = false;
+        }
+        invalidarDesconto();
+        return this;
+    }
+
+    public Item remove(int linha) {
+        descompartilhar();
+        Item removido = itens.remove(linha);
+        invalidarSomas();
+        return removido;
+    }
+
+    public Item update(int linha, Item item) {
+        Objects.requireNonNull(item, "item");
+        descompartilhar();
+        Item anterior = itens.set(linha, item);
+        invalidarSomas();
+        return anterior;
+    }
+
+    public Cart clear() {
+        if (itensCompartilhados) {
+            itens = new ArrayList<>();
+            itensCompartilhados = false;
+        } else {
+            itens.clear();
+        }
+        subtotal = 0.0;
+        subtotalTributavel = 0.0;
+        somasValidas = true;
+        invalidarDesconto();
+        return this;
+    }
+
+    public Cart setTier(CustomerTier tier) {
+        Objects.requireNonNull(tier, "tier");
+        if (tier != this.tier) {
+            this.tier = tier;
+            invalidarDesconto();
+        }
+        return this;
+    }
+
+    public Cart setPrimeiraCompra(boolean primeiraCompra) {
+        if (primeiraCompra != this.primeiraCompra) {
+            this.primeiraCompra = primeiraCompra;
+            invalidarDesconto();
+        }
+        return this;
+    }
+
+    public Cart setCoupon(String couponCode, LocalDate couponExpiryInclusive) {
+        if (!Objects.equals(couponCode, this.couponCode) || !Objects.equals(couponExpiryInclusive, this.couponExpiryInclusive)) {
+            this.couponCode = couponCode;
+            this.couponExpiryInclusive = couponExpiryInclusive;
+            invalidarDesconto();
+        }
+        return this;
+    }
+
+    public Cart setToday(LocalDate today) {
+        Objects.requireNonNull(today, "today");
+        if (!today.equals(this.today)) {
+            this.today = today;
+            invalidarDesconto();
+        }
+        return this;
+    }
+
+    public Cart setRegion(String region) {
+        if (!Objects.equals(region, this.region)) {
+            this.region = region;
+            invalidarFrete();
+        }
+        return this;
+    }
+
+    public Cart setPeso(double peso) {
+        if (Double.compare(peso, this.peso) != 0) {
+            this.peso = peso;
+            invalidarFrete();
+        }
+        return this;
+    }
+
+    public List<Item> getItens() {
+        return Collections.unmodifiableList(itens);
+    }
+
+    /** Mesmo resultado de {@link CheckoutService#checkout} sobre o estado atual do carrinho. */
+    public CheckoutResult quote() {
+        CategoryRegistry.ExemptSet atual = CategoryRegistry.padrao().exempt();
+        if (atual != isencoes) {
+            isencoes = atual;
+            somasValidas = false;
+        }
+        if (!somasValidas) ressomar();
+        PricingConfig c = service.config();
+        if (c != config) {
+            config = c;
+            descontoValido = false;
+            impostoValido = false;
+            freteValido = false;
+            resultado = null;
+        }
+        if (resultado != null) return resultado;
+
+        if (!descontoValido) {
+            long novoSubtotal = Money.toCents(subtotal);
+            long novoTributavel = Money.toCents(subtotalTributavel);
+            CouponResult novoCupom = service.coupon(couponCode, today, couponExpiryInclusive, novoSubtotal);
+            long novoDesconto = service.discountCents(c, novoSubtotal, tier, primeiraCompra, novoCupom);
+
+            // as etapas seguintes só mudam se as entradas delas mudaram
+            if (novoSubtotal != subtotalCents || novoTributavel != tributavelCents || novoDesconto != discountCents) {
+                impostoValido = false;
+                freteValido = false;
+            }
+            if (novoCupom.freeShipping != (cupom != null && cupom.freeShipping)) {
+                freteValido = false;
+            }
+            subtotalCents = novoSubtotal;
+            tributavelCents = novoTributavel;
+            cupom = novoCupom;
+            discountCents = novoDesconto;
+            descontoValido = true;
+        }
+        long baseCents = subtotalCents - discountCents;
+        if (!impostoValido) {
+            taxCents = service.taxCents(c, subtotalCents, tributavelCents, baseCents);
+            impostoValido = true;
+        }
+        if (!freteValido) {
+            shippingCents = service.shippingCents(c, region, peso, baseCents, cupom);
+            freteValido = true;
+        }
+
+        // sem cópia aqui: a lista só é copiada se o carrinho mudar depois (descompartilhar)
+        itensCompartilhados = true;
+        resultado = new CheckoutResult(subtotalCents, discountCents, taxCents, shippingCents,
+                baseCents + taxCents + shippingCents, c.version(), Collections.unmodifiableList(itens), isencoes);
+        return resultado;
+    }
+
+    /** Cotações anteriores ficam com a lista atual; o carrinho segue numa cópia. */
+    private void descompartilhar() {
+        if (itensCompartilhados) {
+            itens = new ArrayList<>(itens);
+            itensCompartilhados = false;
+        }
+    }
+
+    // mesma soma do checkout (simples ou compensada, conforme o tamanho)
+    private void ressomar() {
+        double[] somas = new double[2];
+        ItemSums.somar(itens, isencoes, somas);
+        subtotal = somas[0];
+        subtotalTributavel = somas[1];
+        somasValidas = true;
+        invalidarDesconto();
+    }
+
+    private void invalidarSomas() {
+        somasValidas = false;
+        invalidarDesconto();
+    }
+
+    private void invalidarDesconto() {
+        descontoValido = false;
+        resultado = null;
+    }
+
+    private void invalidarFrete() {
+        freteValido = false;
+        resultado = null;
+    }
+}
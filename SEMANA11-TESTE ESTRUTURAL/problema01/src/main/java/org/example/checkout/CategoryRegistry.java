@@ -0,0 +1,142 @@
+package org.example.checkout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Categorias internadas como códigos inteiros densos, sem diferenciar maiúsculas.
+ * O código é atribuído quando o {@link Item} é criado; a isenção de imposto fica
+ * num bitset por código, então o laço do checkout testa um bit em vez de comparar strings.
+ *
+ * Por padrão só BOOK é isenta.
+ *
+ * Categorias vêm do cliente (servidor, arquivos em massa), então o registro é limitado:
+ * a partir de {@link #MAX_CATEGORIAS} nomes, as novas ficam todas num código comum,
+ * {@link #OUTRAS}, que nunca é isento. Grafias alternativas de um nome já registrado
+ * também só são lembradas até um limite; depois disso apenas custam uma normalização.
+ */
+public final class CategoryRegistry {
+
+    static final int MAX_CATEGORIAS = 1024;
+    /** Nome do código comum das categorias que não couberam no registro. */
+    public static final String OUTRAS = "OUTRAS";
+
+    private final int maxCategorias;
+    private final int maxGrafias;
+    private final Map<String, Integer> codigos = new ConcurrentHashMap<>();
+    private final List<String> nomes = new ArrayList<>();   // guardado por this
+    private volatile ExemptSet isentas = new ExemptSet(new long[0]);
+    private volatile boolean cheio;
+
+    CategoryRegistry() {
+        this(MAX_CATEGORIAS);
+    }
+
+    CategoryRegistry(int maxCategorias) {
+        if (maxCategorias <= 0) throw new IllegalArgumentException("maxCategorias <= 0");
+        this.maxCategorias = maxCategorias;
+        this.maxGrafias = 4 * maxCategorias;
+    }
+
+    /** Registro usado por {@link Item}. */
+    public static CategoryRegistry padrao() {
+        return Padrao.INSTANCIA;
+    }
+
+    /** Código da categoria, criando-o no primeiro uso; com o registro cheio, o de {@link #OUTRAS}. */
+    public int code(String categoria) {
+        Integer c = codigos.get(categoria);
+        if (c != null) return c;
+        if (cheio) {
+            // sem trava: o mapa não ganha mais nomes, só grafias
+            c = codigos.get(normalizar(categoria));
+            return c != null ? c : maxCategorias;
+        }
+        return registrar(categoria);
+    }
+
+    public String name(int code) {
+        if (code == maxCategorias) return OUTRAS;
+        synchronized (this) {
+            return nomes.get(code);
+        }
+    }
+
+    public boolean isExempt(String categoria) {
+        return isentas.contains(code(categoria));
+    }
+
+    /**
+     * Marca ou desmarca a categoria como isenta de imposto.
+     *
+     * @throws IllegalStateException se a categoria é nova e o registro está cheio
+     */
+    public synchronized void setExempt(String categoria, boolean isenta) {
+        int c = code(categoria);
+        if (c == maxCategorias) throw new IllegalStateException("registro de categorias cheio: " + categoria);
+        long[] bits = isentas.bits;
+        int palavra = c >>> 6;
+        long[] novo = Arrays.copyOf(bits, Math.max(bits.length, palavra + 1));
+        if (isenta) {
+            novo[palavra] |= 1L << c;
+        } else {
+            novo[palavra] &= ~(1L << c);
+        }
+        isentas = new ExemptSet(novo);
+    }
+
+    /** Retrato imutável das isenções; leia uma vez e use no laço todo. */
+    ExemptSet exempt() {
+        return isentas;
+    }
+
+    private synchronized int registrar(String categoria) {
+        String normalizada = normalizar(categoria);
+        Integer c = codigos.get(normalizada);
+        if (c == null) {
+            if (nomes.size() >= maxCategorias) {
+                cheio = true;
+                return maxCategorias;
+            }
+            c = nomes.size();
+            nomes.add(normalizada);
+            codigos.put(normalizada, c);
+        }
+        // a grafia original também aponta para o código, para a próxima busca não normalizar
+        if (codigos.size() < maxGrafias) codigos.putIfAbsent(categoria, c);
+        return c;
+    }
+
+    // só maiúsculas, como o equalsIgnoreCase original; espaços fazem parte do nome
+    private static String normalizar(String categoria) {
+        return categoria.toUpperCase(Locale.ROOT);
+    }
+
+    static final class ExemptSet {
+        private final long[] bits;
+
+        private ExemptSet(long[] bits) {
+            this.bits = bits;
+        }
+
+        boolean contains(int code) {
+            int palavra = code >>> 6;
+            return palavra < bits.length && (bits[palavra] & (1L << code)) != 0;
+        }
+    }
+
+    // criado só no primeiro uso
+    private static final class Padrao {
+        static final CategoryRegistry INSTANCIA = criar();
+
+        private static CategoryRegistry criar() {
+            CategoryRegistry r = new CategoryRegistry();
+            r.setExempt("BOOK", true);
+            return r;
+        }
+    }
+}
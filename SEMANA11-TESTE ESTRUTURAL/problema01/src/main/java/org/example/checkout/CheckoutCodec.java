@@ -0,0 +1,231 @@
+package org.example.checkout;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formato binário de {@link CheckoutRequest} e {@link CheckoutResult}, lido e escrito
+ * direto no {@link ByteBuffer} do chamador (heap ou direto), a partir da posição atual.
+ *
+ * <pre>
+ * cabeçalho  versão:u8  tipo:u8 (1 = pedido, 2 = resultado)
+ * pedido     flags:u8  tier:u8  peso:f64  hoje:i32 (epochDay)  [validade:i32]
+ *            [regiao:str]  [cupom:str]  nItens:i32  nItens × (categoria:str  preco:f64  qtd:i32)
+ * resultado  subtotal, desconto, imposto, frete, total: i64 em centavos  configVersion:i64
+ * str        tamanho:u16  bytes UTF-8
+ * </pre>
+ *
+ * Versão 1 (ainda lida) é igual, mas o resultado não tem configVersion; lido como 0.
+ *
+ * Big-endian, independente da ordem configurada no buffer (que é restaurada).
+ * Os campos opcionais só aparecem quando o bit de flags correspondente está ligado.
+ * Buffer sem espaço: {@link BufferOverflowException} antes de escrever qualquer byte.
+ */
+public final class CheckoutCodec {
+    private CheckoutCodec() {}
+
+    public static final byte VERSAO = 2;
+    static final byte VERSAO_SEM_CONFIG = 1;
+    static final byte TIPO_PEDIDO = 1;
+    static final byte TIPO_RESULTADO = 2;
+
+    private static final int PRIMEIRA_COMPRA = 1;
+    private static final int COM_VALIDADE = 1 << 1;
+    private static final int COM_REGIAO = 1 << 2;
+    private static final int COM_CUPOM = 1 << 3;
+
+    private static final int CABECALHO = 2;
+    private static final int MINIMO_ITEM = 2 + 8 + 4;
+    private static final int MAXIMO_STR = 0xFFFF;
+    private static final CustomerTier[] TIERS = CustomerTier.values();
+
+    /** Bytes de um resultado codificado. */
+    public static final int TAMANHO_RESULTADO = CABECALHO + 6 * 8;
+
+    /** Bytes de um resultado codificado na versão {@code versao} do formato. */
+    public static int resultSize(int versao) {
+        if (versao == VERSAO) return TAMANHO_RESULTADO;
+        if (versao == VERSAO_SEM_CONFIG) return TAMANHO_RESULTADO - 8;
+        throw new IllegalArgumentException("versão não suportada: " + versao);
+    }
+
+    /** Bytes que {@link #encode(CheckoutRequest, ByteBuffer)} vai escrever. */
+    public static int encodedSize(CheckoutRequest p) {
+        int n = CABECALHO + 1 + 1 + 8 + 4;
+        if (p.couponExpiryInclusive != null) n += 4;
+        if (p.region != null) n += 2 + utf8Length(p.region);
+        if (p.couponCode != null) n += 2 + utf8Length(p.couponCode);
+        n += 4;
+        for (Item i : p.itens) {
+            n += 2 + utf8Length(i.getCategoria()) + 8 + 4;
+        }
+        return n;
+    }
+
+    public static void encode(CheckoutRequest p, ByteBuffer buf) {
+        if (buf.remaining() < encodedSize(p)) throw new BufferOverflowException();
+        ByteOrder ordem = buf.order();
+        buf.order(ByteOrder.BIG_ENDIAN);
+        try {
+            int flags = (p.primeiraCompra ? PRIMEIRA_COMPRA : 0)
+                    | (p.couponExpiryInclusive != null ? COM_VALIDADE : 0)
+                    | (p.region != null ? COM_REGIAO : 0)
+                    | (p.couponCode != null ? COM_CUPOM : 0);
+            buf.put(VERSAO).put(TIPO_PEDIDO);
+            buf.put((byte) flags).put((byte) p.tier.ordinal());
+            buf.putDouble(p.peso);
+            buf.putInt(epochDay(p.today));
+            if (p.couponExpiryInclusive != null) buf.putInt(epochDay(p.couponExpiryInclusive));
+            if (p.region != null) putString(buf, p.region);
+            if (p.couponCode != null) putString(buf, p.couponCode);
+            buf.putInt(p.itens.size());
+            for (Item i : p.itens) {
+                putString(buf, i.getCategoria());
+                buf.putDouble(i.getPrecoUnitario());
+                buf.putInt(i.getQuantidade());
+            }
+        } finally {
+            buf.order(ordem);
+        }
+    }
+
+    public static void encode(CheckoutResult r, ByteBuffer buf) {
+        if (buf.remaining() < TAMANHO_RESULTADO) throw new BufferOverflowException();
+        ByteOrder ordem = buf.order();
+        buf.order(ByteOrder.BIG_ENDIAN);
+        try {
+            buf.put(VERSAO).put(TIPO_RESULTADO);
+            buf.putLong(r.subtotalCents);
+            buf.putLong(r.discountCents);
+            buf.putLong(r.taxCents);
+            buf.putLong(r.shippingCents);
+            buf.putLong(r.totalCents);
+            buf.putLong(r.configVersion);
+        } finally {
+            buf.order(ordem);
+        }
+    }
+
+    private static int epochDay(LocalDate d) {
+        return Math.toIntExact(d.toEpochDay());
+    }
+
+    /** Tamanho em UTF-8 sem codificar. */
+    static int utf8Length(String s) {
+        int n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                n += 1;
+            } else if (c < 0x800) {
+                n += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                n += 4;
+                i++;
+            } else {
+                n += 3;
+            }
+        }
+        if (n > MAXIMO_STR) throw new IllegalArgumentException("texto com mais de " + MAXIMO_STR + " bytes");
+        return n;
+    }
+
+    // ASCII, o caso comum, vai byte a byte sem alocar
+    private static void putString(ByteBuffer buf, String s) {
+        int n = s.length();
+        boolean ascii = true;
+        for (int i = 0; i < n && ascii; i++) ascii = s.charAt(i) < 0x80;
+        if (ascii) {
+            buf.putShort((short) n);
+            for (int i = 0; i < n; i++) buf.put((byte) s.charAt(i));
+        } else {
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            buf.putShort((short) b.length);
+            buf.put(b);
+        }
+    }
+
+    /**
+     * Decodificador reaproveitável: guarda as strings já vistas (categorias,
+     * regiões, cupons se repetem) e as devolve sem alocar de novo.
+     * Não é thread-safe; use um por thread.
+     */
+    public static final class Decoder {
+
+        private final Simbolos simbolos = new Simbolos(1024);
+
+        public CheckoutRequest decodeRequest(ByteBuffer buf) {
+            ByteOrder ordem = buf.order();
+            buf.order(ByteOrder.BIG_ENDIAN);
+            try {
+                cabecalho(buf, TIPO_PEDIDO);
+                int flags = buf.get();
+                int tier = buf.get();
+                if (tier < 0 || tier >= TIERS.length) throw new IllegalArgumentException("tier inválido: " + tier);
+                double peso = buf.getDouble();
+                LocalDate hoje = LocalDate.ofEpochDay(buf.getInt());
+                LocalDate validade = (flags & COM_VALIDADE) != 0 ? LocalDate.ofEpochDay(buf.getInt()) : null;
+                String regiao = (flags & COM_REGIAO) != 0 ? getString(buf) : null;
+                String cupom = (flags & COM_CUPOM) != 0 ? getString(buf) : null;
+
+                int n = buf.getInt();
+                // protege contra contagem corrompida antes de alocar a lista
+                if (n < 0 || n > buf.remaining() / MINIMO_ITEM) {
+                    throw new IllegalArgumentException("quantidade de itens inválida: " + n);
+                }
+                List<Item> itens = new ArrayList<>(n);
+                for (int k = 0; k < n; k++) {
+                    String categoria = getString(buf);
+                    double preco = buf.getDouble();
+                    int qtd = buf.getInt();
+                    itens.add(new Item(categoria, preco, qtd));
+                }
+                return new CheckoutRequest(itens, TIERS[tier], (flags & PRIMEIRA_COMPRA) != 0,
+                        regiao, peso, cupom, hoje, validade);
+            } finally {
+                buf.order(ordem);
+            }
+        }
+
+        public CheckoutResult decodeResult(ByteBuffer buf) {
+            ByteOrder ordem = buf.order();
+            buf.order(ByteOrder.BIG_ENDIAN);
+            try {
+                byte versao = cabecalho(buf, TIPO_RESULTADO);
+                long subtotal = buf.getLong();
+                long desconto = buf.getLong();
+                long imposto = buf.getLong();
+                long frete = buf.getLong();
+                long total = buf.getLong();
+                long configVersion = versao == VERSAO_SEM_CONFIG ? 0L : buf.getLong();
+                return new CheckoutResult(subtotal, desconto, imposto, frete, total, configVersion, null, null);
+            } finally {
+                buf.order(ordem);
+            }
+        }
+
+        private static byte cabecalho(ByteBuffer buf, byte tipo) {
+            byte versao = buf.get();
+            if (versao != VERSAO && versao != VERSAO_SEM_CONFIG) {
+                throw new IllegalArgumentException("versão não suportada: " + versao);
+            }
+            byte t = buf.get();
+            if (t != tipo) throw new IllegalArgumentException("tipo de registro inesperado: " + t);
+            return versao;
+        }
+
+        private String getString(ByteBuffer buf) {
+            int len = Short.toUnsignedInt(buf.getShort());
+            int ini = buf.position();
+            int fim = ini + len;
+            if (fim > buf.limit()) throw new IllegalArgumentException("texto além do fim do buffer");
+            buf.position(fim);
+            return simbolos.get(buf, ini, fim);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.checkout;
+
+/**
+ * Avisado pelo {@link CheckoutService} a cada pedido precificado, na thread do checkout.
+ * Implementações devem ser thread-safe, não bloquear e não lançar.
+ */
+public interface CheckoutListener {
+
+    /** Não faz nada. */
+    CheckoutListener NOOP = (tier, region, couponCode, result) -> { };
+
+    /**
+     * @param region     como veio no pedido; pode ser null
+     * @param couponCode o cupom aplicado, ou null se nenhum valeu
+     */
+    void onCheckout(CustomerTier tier, String region, String couponCode, CheckoutResult result);
+}
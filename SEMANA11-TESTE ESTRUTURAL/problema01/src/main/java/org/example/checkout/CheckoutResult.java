@@ -1,5 +1,11 @@
 package org.example.checkout;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 public final class CheckoutResult {
     public final double subtotal;
     public final double discountValue;
@@ -7,11 +13,153 @@ public final class CheckoutResult {
     public final double shipping;
     public final double total;
 
+    // mesmos valores em centavos
+    public final long subtotalCents;
+    public final long discountCents;
+    public final long taxCents;
+    public final long shippingCents;
+    public final long totalCents;
+
+    /** {@link PricingConfig#version()} com que foi precificado; 0 = padrão ou desconhecida (decodificado). */
+    public final long configVersion;
+
+    // referência (sem cópia) guardada no checkout só para lines(); null quando não veio de uma lista
+    private final List<Item> itens;
+    private final int quantidadeItens;
+    private final CategoryRegistry.ExemptSet isentas;
+    private List<LineAllocation> linhas;   // calculado no primeiro lines()
+
     CheckoutResult(double subtotal, double discountValue, double tax, double shipping, double total) {
-        this.subtotal = subtotal;
-        this.discountValue = discountValue;
-        this.tax = tax;
-        this.shipping = shipping;
-        this.total = total;
+        this(Money.toCents(subtotal), Money.toCents(discountValue), Money.toCents(tax),
+                Money.toCents(shipping), Money.toCents(total));
+    }
+
+    CheckoutResult(long subtotalCents, long discountCents, long taxCents, long shippingCents, long totalCents) {
+        this(subtotalCents, discountCents, taxCents, shippingCents, totalCents, 0L, null, null);
+    }
+
+    /** {@code itens} não é copiada: quem chama não deve alterá-la depois (ver {@link #lines()}). */
+    CheckoutResult(long subtotalCents, long discountCents, long taxCents, long shippingCents, long totalCents,
+                   long configVersion, List<Item> itens, CategoryRegistry.ExemptSet isentas) {
+        this.subtotalCents = subtotalCents;
+        this.discountCents = discountCents;
+        this.taxCents = taxCents;
+        this.shippingCents = shippingCents;
+        this.totalCents = totalCents;
+        this.subtotal = Money.fromCents(subtotalCents);
+        this.discountValue = Money.fromCents(discountCents);
+        this.tax = Money.fromCents(taxCents);
+        this.shipping = Money.fromCents(shippingCents);
+        this.total = Money.fromCents(totalCents);
+        this.configVersion = configVersion;
+        this.itens = itens;
+        this.quantidadeItens = itens == null ? 0 : itens.size();
+        this.isentas = isentas;
+    }
+
+    /** Há itens guardados para {@link #lines()}? */
+    public boolean hasLines() {
+        return itens != null;
+    }
+
+    /**
+     * Parte de cada item no subtotal, no desconto e no imposto, na ordem dos itens.
+     * Subtotal e desconto são repartidos pelo subtotal de cada linha; o imposto, só
+     * entre as linhas tributáveis. Centavos que sobram do arredondamento vão para as
+     * linhas com maior resto (maiores restos), então cada coluna soma exatamente o total.
+     * O frete fica fora, é do pedido.
+     *
+     * Calculado no primeiro acesso a partir da lista passada ao checkout, que não é
+     * copiada: quem só cota não paga nada. Por isso quem chamou o checkout não deve
+     * alterar a lista até aqui; quantidade de itens e subtotal são conferidos. Um
+     * {@link Cart} pode mudar à vontade: a cotação fica com a lista anterior.
+     *
+     * @throws IllegalStateException se o resultado não guarda itens (lote em colunas,
+     *         resultado decodificado) ou se a lista mudou depois do checkout
+     */
+    public List<LineAllocation> lines() {
+        List<LineAllocation> l = linhas;
+        if (l == null) {
+            if (itens == null) throw new IllegalStateException("resultado sem itens para repartir");
+            // corrida benigna: duas threads calculam a mesma lista imutável
+            linhas = l = repartir();
+        }
+        return l;
+    }
+
+    private List<LineAllocation> repartir() {
+        int n = itens.size();
+        long[] pesos = new long[n];
+        long[] pesosTributaveis = new long[n];
+        Item[] linhasItens = new Item[n];
+        for (int i = 0; i < n; i++) {
+            Item item = itens.get(i);
+            linhasItens[i] = item;
+            pesos[i] = Money.toCents(item.subtotal());
+            if (!isentas.contains(item.getCategoriaCodigo())) pesosTributaveis[i] = pesos[i];
+        }
+        // mesma soma que o checkout fez (simples ou compensada, conforme o tamanho)
+        double[] somas = new double[2];
+        ItemSums.somar(itens, isentas, somas);
+        if (n != quantidadeItens || Money.toCents(somas[0]) != subtotalCents) {
+            throw new IllegalStateException("itens alterados depois do checkout");
+        }
+        long[] sub = maioresRestos(subtotalCents, pesos);
+        long[] desc = maioresRestos(discountCents, pesos);
+        long[] imp = maioresRestos(taxCents, pesosTributaveis);
+
+        List<LineAllocation> r = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            r.add(new LineAllocation(linhasItens[i], sub[i], desc[i], imp[i]));
+        }
+        return Collections.unmodifiableList(r);
+    }
+
+    /**
+     * Reparte {@code total} proporcionalmente aos pesos: parte inteira de cada cota e,
+     * depois, um centavo para cada uma das linhas de maior resto (empate: a primeira).
+     * Sem peso nenhum, o total inteiro fica na primeira linha.
+     */
+    static long[] maioresRestos(long total, long[] pesos) {
+        int n = pesos.length;
+        long[] cotas = new long[n];
+        if (n == 0) return cotas;
+        long somaPesos = 0;
+        for (long p : pesos) somaPesos += p;
+        if (somaPesos == 0) {
+            cotas[0] = total;
+            return cotas;
+        }
+
+        long[] restos = new long[n];
+        long distribuido = 0;
+        for (int i = 0; i < n; i++) {
+            long produto;
+            try {
+                produto = Math.multiplyExact(total, pesos[i]);
+                cotas[i] = Math.floorDiv(produto, somaPesos);
+                restos[i] = Math.floorMod(produto, somaPesos);
+            } catch (ArithmeticException estouro) {
+                BigInteger[] qr = BigInteger.valueOf(total).multiply(BigInteger.valueOf(pesos[i]))
+                        .divideAndRemainder(BigInteger.valueOf(somaPesos));
+                if (qr[1].signum() < 0) {
+                    qr[0] = qr[0].subtract(BigInteger.ONE);
+                    qr[1] = qr[1].add(BigInteger.valueOf(somaPesos));
+                }
+                cotas[i] = qr[0].longValueExact();
+                restos[i] = qr[1].longValueExact();
+            }
+            distribuido += cotas[i];
+        }
+
+        // sobra < n centavos: um para cada linha de maior resto
+        long sobra = total - distribuido;
+        if (sobra > 0) {
+            Integer[] ordem = new Integer[n];
+            for (int i = 0; i < n; i++) ordem[i] = i;
+            Arrays.sort(ordem, (a, b) -> Long.compare(restos[b], restos[a]));   // estável
+            for (int k = 0; k < sobra; k++) cotas[ordem[k]]++;
+        }
+        return cotas;
     }
 }
@@ -1,25 +1,104 @@
 package org.example.checkout;
 
+import org.example.checkout.metrics.CheckoutMetrics;
+import org.example.checkout.metrics.CheckoutStage;
+
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class CheckoutService {
 
+    // abaixo disso o lote é precificado na thread atual, sem dividir
+    private static final int LOTE_MINIMO = 16;
+
     private final CouponService couponService;
     private final ShippingService shippingService;
+    private final CheckoutMetrics metrics;
+    private final PricingRules rules;   // null = regras fixas de discountCents/taxCents
+    // trocada inteira em reload(); cada checkout lê uma única vez e passa adiante
+    private final AtomicReference<PricingConfig> config;
+    private final CheckoutListener listener;
 
     public CheckoutService(CouponService couponService, ShippingService shippingService) {
+        this(couponService, shippingService, CheckoutMetrics.NOOP);
+    }
+
+    /** Com medição de latência por etapa; {@link CheckoutMetrics#NOOP} desliga. */
+    public CheckoutService(CouponService couponService, ShippingService shippingService, CheckoutMetrics metrics) {
+        this(couponService, shippingService, metrics, null);
+    }
+
+    /** Desconto e imposto vindos de regras editáveis em vez das fixas (ver {@link PricingRules}). */
+    public CheckoutService(CouponService couponService, ShippingService shippingService, CheckoutMetrics metrics,
+                           PricingRules rules) {
+        this(couponService, shippingService, metrics, rules, PricingConfig.padrao());
+    }
+
+    /** Com parâmetros iniciais próprios (ver {@link PricingConfig}); {@code rules} pode ser null. */
+    public CheckoutService(CouponService couponService, ShippingService shippingService, CheckoutMetrics metrics,
+                           PricingRules rules, PricingConfig config) {
+        this(couponService, shippingService, metrics, rules, config, CheckoutListener.NOOP);
+    }
+
+    /** Avisando {@code listener} de cada pedido precificado (ex.: {@link RevenueAggregator}). */
+    public CheckoutService(CouponService couponService, ShippingService shippingService, CheckoutMetrics metrics,
+                           PricingRules rules, PricingConfig config, CheckoutListener listener) {
         this.couponService = Objects.requireNonNull(couponService);
         this.shippingService = Objects.requireNonNull(shippingService);
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
+        this.rules = rules;
+        this.config = new AtomicReference<>(Objects.requireNonNull(config, "config"));
+        this.listener = Objects.requireNonNull(listener, "listener");
+    }
+
+    /** Parâmetros vigentes. */
+    public PricingConfig config() {
+        return config.get();
+    }
+
+    /**
+     * Publica novos parâmetros; checkouts em andamento terminam com os anteriores.
+     * A versão publicada é sempre maior que a vigente: sem versão no arquivo, vira a
+     * vigente + 1; uma versão explícita que não seja maior é recusada.
+     *
+     * @return a configuração publicada, já com a versão final
+     * @throws IllegalArgumentException se {@code novo} traz versão menor ou igual à vigente
+     */
+    public PricingConfig reload(PricingConfig novo) {
+        Objects.requireNonNull(novo, "config");
+        while (true) {
+            PricingConfig atual = config.get();
+            PricingConfig publicar;
+            if (novo.version() == 0) {
+                publicar = novo.withVersion(atual.version() + 1);
+            } else if (novo.version() > atual.version()) {
+                publicar = novo;
+            } else {
+                throw new IllegalArgumentException("versão " + novo.version() + " não é maior que a vigente " + atual.version());
+            }
+            if (config.compareAndSet(atual, publicar)) return publicar;
+        }
     }
 
     /**
      * Calcula o total:
      * 1) subtotal dos itens
      * 2) percentuais de desconto (tier + primeiraCompra + cupom%), com teto de 30%
-     * 3) imposto 12% somente sobre itens NÃO BOOK, após desconto percentual
+     * 3) imposto 12% somente sobre itens de categorias não isentas (BOOK), após desconto percentual
      * 4) frete conforme regras
+     * Percentuais e limites acima são os padrão; os vigentes vêm de {@link #config()}.
+     *
+     * É uma cotação: cupom com limite de resgates vale enquanto houver saldo, mas não
+     * consome resgate, e vários checkouts podem levar o último. Pedido efetivado com
+     * cupom limitado passa por {@link #checkoutReserving}, o único que aplica o limite.
+     *
+     * {@code itens} fica no resultado, sem cópia, para {@link CheckoutResult#lines()}:
+     * não altere a lista depois, ou {@code lines()} lança.
      */
     public CheckoutResult checkout(
             List<Item> itens,
@@ -35,42 +114,332 @@ public class CheckoutService {
         Objects.requireNonNull(tier, "tier");
         Objects.requireNonNull(today, "today");
 
-        double subtotal = 0.0;
-        double subtotalTributavel = 0.0;
-        for (Item i : itens) {
-            double s = i.subtotal();
-            subtotal += s;
-            if (!"BOOK".equalsIgnoreCase(i.getCategoria())) {
-                subtotalTributavel += s;
+        boolean medir = metrics.enabled();
+        long inicio = medir ? System.nanoTime() : 0L;
+
+        // lista e isenções ficam no resultado, sem cópia, para lines()
+        CategoryRegistry.ExemptSet isentas = CategoryRegistry.padrao().exempt();
+        double[] somas = new double[2];
+        ItemSums.somar(itens, isentas, somas);
+        if (medir) marcar(CheckoutStage.ITENS, inicio);
+
+        // daqui em diante tudo em centavos: somas e subtrações exatas, sem alocar
+        CheckoutResult r = price(config.get(), Money.toCents(somas[0]), Money.toCents(somas[1]),
+                tier, primeiraCompra, region, peso, couponCode, today, couponExpiryInclusive, itens, isentas);
+        if (medir) marcar(CheckoutStage.TOTAL, inicio);
+        return r;
+    }
+
+    /**
+     * Mesmo cálculo de {@link #checkout(List, CustomerTier, boolean, String, double, String, LocalDate, LocalDate)}
+     * para itens em colunas; as somas da etapa 1 usam SIMD quando disponível (ver {@link ItemSums}).
+     * Nome próprio, e não sobrecarga, para que checkout(null, ...) continue sem ambiguidade.
+     */
+    public CheckoutResult checkoutBatch(
+            ItemBatch itens,
+            CustomerTier tier,
+            boolean primeiraCompra,
+            String region,
+            double peso,
+            String couponCode,
+            LocalDate today,
+            LocalDate couponExpiryInclusive
+    ) {
+        Objects.requireNonNull(itens, "itens");
+        Objects.requireNonNull(tier, "tier");
+        Objects.requireNonNull(today, "today");
+
+        boolean medir = metrics.enabled();
+        long inicio = medir ? System.nanoTime() : 0L;
+
+        double[] somas = new double[2];
+        ItemSums.somar(itens, somas);
+        if (medir) marcar(CheckoutStage.ITENS, inicio);
+
+        CheckoutResult r = price(config.get(), Money.toCents(somas[0]), Money.toCents(somas[1]),
+                tier, primeiraCompra, region, peso, couponCode, today, couponExpiryInclusive, null, null);
+        if (medir) marcar(CheckoutStage.TOTAL, inicio);
+        return r;
+    }
+
+    /**
+     * Escolhe, entre os cupons informados, o que dá o menor total, somando os itens
+     * uma única vez. Cada código passa por {@link CouponService} e pelo teto de 30%;
+     * códigos que levam ao mesmo desconto e frete não são recalculados.
+     * Se nenhum código for estritamente melhor que comprar sem cupom, o código
+     * devolvido é null e o resultado é o checkout sem cupom.
+     */
+    public BestCoupon checkoutBestCoupon(
+            List<Item> itens,
+            CustomerTier tier,
+            boolean primeiraCompra,
+            String region,
+            double peso,
+            Collection<String> couponCodes,
+            LocalDate today,
+            LocalDate couponExpiryInclusive
+    ) {
+        Objects.requireNonNull(itens, "itens");
+        Objects.requireNonNull(tier, "tier");
+        Objects.requireNonNull(couponCodes, "couponCodes");
+        Objects.requireNonNull(today, "today");
+
+        CategoryRegistry.ExemptSet isentas = CategoryRegistry.padrao().exempt();
+        double[] somas = new double[2];
+        ItemSums.somar(itens, isentas, somas);
+        long subtotalCents = Money.toCents(somas[0]);
+        long tributavelCents = Money.toCents(somas[1]);
+        PricingConfig c = config.get();
+
+        // referência: sem cupom
+        String melhorCodigo = null;
+        long melhorDesconto = discountCents(c, subtotalCents, tier, primeiraCompra, CouponResult.NONE);
+        long melhorImposto = taxCents(c, subtotalCents, tributavelCents, subtotalCents - melhorDesconto);
+        long melhorFrete = shippingCents(c, region, peso, subtotalCents - melhorDesconto, CouponResult.NONE);
+        long melhorTotal = subtotalCents - melhorDesconto + melhorImposto + melhorFrete;
+
+        // último par (desconto, frete grátis) calculado; cupons costumam repetir o mesmo efeito
+        long descontoVisto = melhorDesconto;
+        boolean freteGratisVisto = false;
+        for (String codigo : couponCodes) {
+            CouponResult cr = coupon(codigo, today, couponExpiryInclusive, subtotalCents);
+            long desconto = discountCents(c, subtotalCents, tier, primeiraCompra, cr);
+            if (desconto == descontoVisto && cr.freeShipping == freteGratisVisto) continue;
+            descontoVisto = desconto;
+            freteGratisVisto = cr.freeShipping;
+
+            long base = subtotalCents - desconto;
+            long imposto = taxCents(c, subtotalCents, tributavelCents, base);
+            long frete = shippingCents(c, region, peso, base, cr);
+            long total = base + imposto + frete;
+            if (total < melhorTotal) {
+                melhorTotal = total;
+                melhorCodigo = codigo;
+                melhorDesconto = desconto;
+                melhorImposto = imposto;
+                melhorFrete = frete;
+            }
+        }
+
+        CheckoutResult r = new CheckoutResult(subtotalCents, melhorDesconto, melhorImposto, melhorFrete, melhorTotal,
+                c.version(), itens, isentas);
+        listener.onCheckout(tier, region, melhorCodigo, r);
+        return new BestCoupon(melhorCodigo, r);
+    }
+
+    /**
+     * Como {@link #checkout(List, CustomerTier, boolean, String, double, String, LocalDate, LocalDate)},
+     * mas, se o cupom tiver limite de resgates, reserva uma unidade antes de precificar.
+     * Sem saldo, o pedido sai sem o cupom. O chamador encerra a reserva com
+     * {@link ReservedCheckout#commit()} ou {@link ReservedCheckout#release()}.
+     */
+    public ReservedCheckout checkoutReserving(
+            List<Item> itens,
+            CustomerTier tier,
+            boolean primeiraCompra,
+            String region,
+            double peso,
+            String couponCode,
+            LocalDate today,
+            LocalDate couponExpiryInclusive
+    ) {
+        Objects.requireNonNull(itens, "itens");
+        Objects.requireNonNull(tier, "tier");
+        Objects.requireNonNull(today, "today");
+
+        CategoryRegistry.ExemptSet isentas = CategoryRegistry.padrao().exempt();
+        double[] somas = new double[2];
+        ItemSums.somar(itens, isentas, somas);
+        long subtotalCents = Money.toCents(somas[0]);
+        long tributavelCents = Money.toCents(somas[1]);
+
+        CouponResult cr = coupon(couponCode, today, couponExpiryInclusive, subtotalCents);
+        RedemptionBudget orcamento = null;
+        int faixa = -1;
+        if (cr != CouponResult.NONE) {
+            orcamento = couponService.budget(couponCode);
+            if (orcamento != null) {
+                faixa = orcamento.reservar();
+                if (faixa < 0) {
+                    // esgotou entre a avaliação e a reserva
+                    orcamento = null;
+                    cr = CouponResult.NONE;
+                }
             }
         }
-        subtotal = Money.round2(subtotal);
-        subtotalTributavel = Money.round2(subtotalTributavel);
 
-        // descontos percentuais
-        double tierPct = (tier == CustomerTier.SILVER ? 0.05 : (tier == CustomerTier.GOLD ? 0.10 : 0.0));
-        double firstPct = (primeiraCompra && subtotal >= 50.0) ? 0.05 : 0.0;
+        CheckoutResult r = price(config.get(), subtotalCents, tributavelCents, tier, primeiraCompra, region, peso,
+                couponCode, cr, false, 0L, itens, isentas);
+        String aplicado = cr == CouponResult.NONE ? null : CouponCatalog.normalize(couponCode);
+        return new ReservedCheckout(r, aplicado, orcamento, faixa);
+    }
 
-        CouponResult cr = couponService.evaluate(couponCode, today, couponExpiryInclusive, subtotal);
+    /**
+     * Etapas 2 a 4 a partir dos subtotais já somados e arredondados. {@code itens} e
+     * {@code isentas} só são guardados no resultado, para {@link CheckoutResult#lines()};
+     * null quando não há lista de itens.
+     */
+    CheckoutResult price(
+            PricingConfig c,
+            long subtotalCents,
+            long tributavelCents,
+            CustomerTier tier,
+            boolean primeiraCompra,
+            String region,
+            double peso,
+            String couponCode,
+            LocalDate today,
+            LocalDate couponExpiryInclusive,
+            List<Item> itens,
+            CategoryRegistry.ExemptSet isentas
+    ) {
+        boolean medir = metrics.enabled();
+        long t = medir ? System.nanoTime() : 0L;
+
+        CouponResult cr = coupon(couponCode, today, couponExpiryInclusive, subtotalCents);
+        return price(c, subtotalCents, tributavelCents, tier, primeiraCompra, region, peso, couponCode, cr, medir, t,
+                itens, isentas);
+    }
+
+    /** Etapas 2 a 4 com o cupom já avaliado; {@code t} é o início da etapa CUPOM. */
+    private CheckoutResult price(
+            PricingConfig c,
+            long subtotalCents,
+            long tributavelCents,
+            CustomerTier tier,
+            boolean primeiraCompra,
+            String region,
+            double peso,
+            String couponCode,
+            CouponResult cr,
+            boolean medir,
+            long t,
+            List<Item> itens,
+            CategoryRegistry.ExemptSet isentas
+    ) {
+        long discountCents = discountCents(c, subtotalCents, tier, primeiraCompra, cr);
+        long baseCents = subtotalCents - discountCents;
+        if (medir) t = marcar(CheckoutStage.CUPOM, t);
+
+        long taxCents = taxCents(c, subtotalCents, tributavelCents, baseCents);
+        if (medir) t = marcar(CheckoutStage.IMPOSTO, t);
+
+        long shippingCents = shippingCents(c, region, peso, baseCents, cr);
+        if (medir) marcar(CheckoutStage.FRETE, t);
+
+        long totalCents = baseCents + taxCents + shippingCents;
+
+        CheckoutResult r = new CheckoutResult(subtotalCents, discountCents, taxCents, shippingCents, totalCents,
+                c.version(), itens, isentas);
+        listener.onCheckout(tier, region, cr == CouponResult.NONE ? null : couponCode, r);
+        return r;
+    }
+
+    /** Grava o tempo desde {@code inicio} e devolve o instante atual, início da próxima etapa. */
+    private long marcar(CheckoutStage etapa, long inicio) {
+        long agora = System.nanoTime();
+        metrics.record(etapa, agora - inicio);
+        return agora;
+    }
+
+    CouponResult coupon(String couponCode, LocalDate today, LocalDate couponExpiryInclusive, long subtotalCents) {
+        return couponService.evaluate(couponCode, today, couponExpiryInclusive, Money.fromCents(subtotalCents));
+    }
+
+    /** Descontos percentuais (tier + primeira compra + cupom), limitados ao teto; ou os das regras, se houver. */
+    long discountCents(PricingConfig c, long subtotalCents, CustomerTier tier, boolean primeiraCompra, CouponResult cr) {
+        double subtotal = Money.fromCents(subtotalCents);
+        if (rules != null) {
+            return Money.toCents(subtotal * rules.discountPercent(subtotalCents, tier, primeiraCompra, cr.percent));
+        }
+        double tierPct = c.tierPercent(tier);
+        double firstPct = (primeiraCompra && subtotal >= c.firstPurchaseMinimum()) ? c.firstPurchasePercent() : 0.0;
         double couponPct = cr.percent;
 
         double totalPct = tierPct + firstPct + couponPct;
-        if (totalPct > 0.30) totalPct = 0.30;
+        if (totalPct > c.discountCap()) totalPct = c.discountCap();
+
+        return Money.toCents(subtotal * totalPct);
+    }
+
+    /** Imposto apenas sobre a parte tributável, após desconto. */
+    long taxCents(PricingConfig c, long subtotalCents, long tributavelCents, long baseCents) {
+        double subtotal = Money.fromCents(subtotalCents);
+        double proporcaoTributavel = (subtotalCents == 0) ? 0.0 : (Money.fromCents(tributavelCents) / subtotal);
+        long baseTributavelCents = Money.toCents(Money.fromCents(baseCents) * proporcaoTributavel);
+        double aliquota = rules != null ? rules.taxRate() : c.taxRate();
+        return Money.toCents(Money.fromCents(baseTributavelCents) * aliquota);
+    }
 
-        double discountValue = Money.round2(subtotal * totalPct);
-        double baseAposDesconto = Money.round2(subtotal - discountValue);
+    long shippingCents(PricingConfig c, String region, double peso, long baseCents, CouponResult cr) {
+        boolean freeByCouponWeight = cr.freeShipping && peso <= c.couponFreeShippingMaxWeight();
+        return Money.toCents(shippingService.calculate(region, peso, Money.fromCents(baseCents), freeByCouponWeight,
+                c.freeShippingThreshold()));
+    }
+
+    /**
+     * Precifica vários carrinhos em paralelo no {@link ForkJoinPool#commonPool()}.
+     * O resultado i corresponde ao pedido i.
+     */
+    public List<CheckoutResult> checkoutAll(List<CheckoutRequest> pedidos) {
+        return checkoutAll(pedidos, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Precifica vários carrinhos em paralelo no pool informado, dividindo o lote
+     * ao meio até um tamanho mínimo por tarefa. O resultado i corresponde ao pedido i.
+     */
+    public List<CheckoutResult> checkoutAll(List<CheckoutRequest> pedidos, ForkJoinPool pool) {
+        Objects.requireNonNull(pedidos, "pedidos");
+        Objects.requireNonNull(pool, "pool");
 
-        // imposto 12% apenas sobre parte tributável, após desconto
-        double proporcaoTributavel = (subtotal == 0.0) ? 0.0 : (subtotalTributavel / subtotal);
-        double baseTributavelAposDesc = Money.round2(baseAposDesconto * proporcaoTributavel);
-        double tax = Money.round2(baseTributavelAposDesc * 0.12);
+        CheckoutRequest[] entrada = pedidos.toArray(new CheckoutRequest[0]);
+        CheckoutResult[] saida = new CheckoutResult[entrada.length];
+        if (entrada.length == 0) return List.of();
 
-        // frete
-        boolean freeByCouponWeight = cr.freeShipping && peso <= 5.0;
-        double shipping = shippingService.calculate(region, peso, baseAposDesconto, freeByCouponWeight);
+        // ~8 tarefas por worker para equilibrar carrinhos de tamanhos diferentes
+        int limite = Math.max(LOTE_MINIMO, entrada.length / (pool.getParallelism() * 8));
+        LoteTask raiz = new LoteTask(entrada, saida, 0, entrada.length, limite);
+        if (entrada.length <= limite) {
+            raiz.compute();
+        } else {
+            pool.invoke(raiz);
+        }
+        return List.of(saida);
+    }
+
+    private CheckoutResult checkout(CheckoutRequest p) {
+        Objects.requireNonNull(p, "pedido");
+        return checkout(p.itens, p.tier, p.primeiraCompra, p.region, p.peso,
+                p.couponCode, p.today, p.couponExpiryInclusive);
+    }
 
-        double total = Money.round2(baseAposDesconto + tax + shipping);
+    private final class LoteTask extends RecursiveAction {
+        private final CheckoutRequest[] entrada;
+        private final CheckoutResult[] saida;
+        private final int inicio;
+        private final int fim;
+        private final int limite;
 
-        return new CheckoutResult(subtotal, discountValue, tax, shipping, total);
+        LoteTask(CheckoutRequest[] entrada, CheckoutResult[] saida, int inicio, int fim, int limite) {
+            this.entrada = entrada;
+            this.saida = saida;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.limite = limite;
+        }
+
+        @Override
+        protected void compute() {
+            if (fim - inicio <= limite) {
+                for (int i = inicio; i < fim; i++) {
+                    saida[i] = checkout(entrada[i]);
+                }
+                return;
+            }
+            int meio = (inicio + fim) >>> 1;
+            invokeAll(new LoteTask(entrada, saida, inicio, meio, limite),
+                    new LoteTask(entrada, saida, meio, fim, limite));
+        }
     }
 }
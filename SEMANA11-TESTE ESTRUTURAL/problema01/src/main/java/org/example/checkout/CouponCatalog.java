@@ -0,0 +1,148 @@
+package org.example.checkout;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Catálogo imutável de cupons, com códigos já normalizados (trim + maiúsculas).
+ * Formato do arquivo: ver {@code cupons.properties}.
+ */
+public final class CouponCatalog {
+
+    private static final String PREFIXO = "cupom.";
+    private static final String RECURSO_PADRAO = "/cupons.properties";
+
+    private final Map<String, CouponRule> regras;
+
+    CouponCatalog(Map<String, CouponRule> regras) {
+        this.regras = Collections.unmodifiableMap(new HashMap<>(regras));
+    }
+
+    /** Catálogo padrão, lido de {@code cupons.properties} no classpath. */
+    public static CouponCatalog padrao() {
+        return Padrao.INSTANCIA;
+    }
+
+    public static CouponCatalog load(Path arquivo) {
+        try (Reader r = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            return load(r);
+        } catch (IOException e) {
+            throw new UncheckedIOException("falha ao ler " + arquivo, e);
+        }
+    }
+
+    public static CouponCatalog load(Reader reader) {
+        Properties p = new Properties();
+        try {
+            p.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Set<String> codigos = new TreeSet<>();
+        for (String chave : p.stringPropertyNames()) {
+            int fim = chave.lastIndexOf('.');
+            if (!chave.startsWith(PREFIXO) || fim <= PREFIXO.length()) {
+                throw new IllegalArgumentException("chave inválida: " + chave);
+            }
+            codigos.add(chave.substring(PREFIXO.length(), fim));
+        }
+
+        Map<String, CouponRule> regras = new HashMap<>();
+        for (String codigo : codigos) {
+            String base = PREFIXO + codigo + ".";
+            String normalizado = normalize(codigo);
+            CouponRule regra = new CouponRule(
+                    normalizado,
+                    parseDouble(p, base + "percentual", 0.0),
+                    Boolean.parseBoolean(p.getProperty(base + "freteGratis", "false").trim()),
+                    parseDouble(p, base + "minimo", 0.0),
+                    Boolean.parseBoolean(p.getProperty(base + "expira", "false").trim()),
+                    parseDate(p, base + "validade"),
+                    parseLimit(p, base + "limite"));
+            if (regras.put(normalizado, regra) != null) {
+                throw new IllegalArgumentException("cupom duplicado: " + normalizado);
+            }
+        }
+        return new CouponCatalog(regras);
+    }
+
+    /** Busca sem alocar quando o código já vem normalizado, o caso comum. */
+    CouponRule find(String code) {
+        CouponRule r = regras.get(code);
+        if (r == null) {
+            r = regras.get(normalize(code));
+        }
+        return r;
+    }
+
+    public Set<String> codes() {
+        return regras.keySet();
+    }
+
+    static String normalize(String code) {
+        return code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static double parseDouble(Properties p, String chave, double padrao) {
+        String v = p.getProperty(chave);
+        if (v == null) return padrao;
+        try {
+            return Double.parseDouble(v.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("valor inválido em " + chave + ": " + v, e);
+        }
+    }
+
+    private static long parseLimit(Properties p, String chave) {
+        String v = p.getProperty(chave);
+        if (v == null || v.isBlank()) return CouponRule.SEM_LIMITE;
+        long limite;
+        try {
+            limite = Long.parseLong(v.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("valor inválido em " + chave + ": " + v, e);
+        }
+        if (limite < 0) throw new IllegalArgumentException("limite < 0 em " + chave + ": " + v);
+        return limite;
+    }
+
+    private static LocalDate parseDate(Properties p, String chave) {
+        String v = p.getProperty(chave);
+        if (v == null || v.isBlank()) return null;
+        try {
+            return LocalDate.parse(v.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("data inválida em " + chave + ": " + v, e);
+        }
+    }
+
+    // carregado só no primeiro uso
+    private static final class Padrao {
+        static final CouponCatalog INSTANCIA = carregar();
+
+        private static CouponCatalog carregar() {
+            try (InputStream in = CouponCatalog.class.getResourceAsStream(RECURSO_PADRAO)) {
+                if (in == null) throw new IllegalStateException("recurso ausente: " + RECURSO_PADRAO);
+                return load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
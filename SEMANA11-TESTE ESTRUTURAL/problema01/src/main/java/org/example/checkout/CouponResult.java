@@ -1,6 +1,9 @@
 package org.example.checkout;
 
 final class CouponResult {
+    // sem desconto e sem frete grátis; compartilhado
+    static final CouponResult NONE = new CouponResult(0.0, false);
+
     final double percent;      // 0.10 = 10%  |  0.0 se sem desconto %
     final boolean freeShipping;
 
@@ -8,4 +11,4 @@ final class CouponResult {
         this.percent = percent;
         this.freeShipping = freeShipping;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,47 @@
+package org.example.checkout;
+
+import java.time.LocalDate;
+
+/** Regra de um cupom do catálogo; o resultado é pré-construído e compartilhado. */
+final class CouponRule {
+    final String code;
+    final CouponResult result;
+    final double minSubtotal;
+    final boolean usesCheckoutExpiry;
+    final LocalDate expiryInclusive;   // null = sem validade fixa
+    final long limit;                  // resgates permitidos; SEM_LIMITE = ilimitado
+
+    static final long SEM_LIMITE = -1;
+
+    CouponRule(String code, double percent, boolean freeShipping, double minSubtotal,
+               boolean usesCheckoutExpiry, LocalDate expiryInclusive) {
+        this(code, percent, freeShipping, minSubtotal, usesCheckoutExpiry, expiryInclusive, SEM_LIMITE);
+    }
+
+    CouponRule(String code, double percent, boolean freeShipping, double minSubtotal,
+               boolean usesCheckoutExpiry, LocalDate expiryInclusive, long limit) {
+        if (percent < 0 || percent > 1) throw new IllegalArgumentException("percentual fora de [0, 1]: " + code);
+        if (minSubtotal < 0) throw new IllegalArgumentException("minimo < 0: " + code);
+        if (limit < SEM_LIMITE) throw new IllegalArgumentException("limite < 0: " + code);
+        this.code = code;
+        this.result = new CouponResult(percent, freeShipping);
+        this.minSubtotal = minSubtotal;
+        this.usesCheckoutExpiry = usesCheckoutExpiry;
+        this.expiryInclusive = expiryInclusive;
+        this.limit = limit;
+    }
+
+    boolean limited() {
+        return limit != SEM_LIMITE;
+    }
+
+    /** Devolve o resultado do cupom, ou {@link CouponResult#NONE} se não se aplica. */
+    CouponResult evaluate(LocalDate today, LocalDate checkoutExpiryInclusive, double subtotal) {
+        if (subtotal < minSubtotal) return CouponResult.NONE;
+        if (expiryInclusive != null && today.isAfter(expiryInclusive)) return CouponResult.NONE;
+        if (usesCheckoutExpiry && checkoutExpiryInclusive != null && today.isAfter(checkoutExpiryInclusive)) {
+            return CouponResult.NONE;
+        }
+        return result;
+    }
+}
@@ -1,33 +1,91 @@
 package org.example.checkout;
 
 import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class CouponService {
 
+    // trocado inteiro em reload(); cada evaluate lê uma única vez
+    private volatile CouponCatalog catalog;
+
+    // saldo dos cupons com limite, por código; sobrevive a reload()
+    private final ConcurrentHashMap<String, RedemptionBudget> orcamentos = new ConcurrentHashMap<>();
+
+    public CouponService() {
+        this(CouponCatalog.padrao());
+    }
+
+    public CouponService(CouponCatalog catalog) {
+        this.catalog = Objects.requireNonNull(catalog, "catalog");
+        sincronizarOrcamentos(catalog);
+    }
+
     /**
-     * Regra:
+     * Regra (catálogo padrão):
      * - DESC10: 10%, sempre válido
      * - DESC20: 20%, exige subtotal >= 100 e não estar expirado (expiryInclusive)
      * - FRETEGRATIS: percent = 0, freeShipping = true, apenas ativa se peso <= 5 (checado fora)
      * - null, "", desconhecido, expirado, mínimo não atendido => ignorar (0%, false)
+     * - cupom com limite já esgotado => ignorar; aqui só se consulta o saldo, quem
+     *   consome um resgate é {@link CheckoutService#checkoutReserving}
      */
     public CouponResult evaluate(String code, LocalDate today, LocalDate expiryInclusive, double subtotal) {
         if (code == null || code.isBlank()) {
-            return new CouponResult(0.0, false);
+            return CouponResult.NONE;
         }
-        switch (code.trim().toUpperCase()) {
-            case "DESC10":
-                return new CouponResult(0.10, false);
-            case "DESC20":
-                boolean notExpired = expiryInclusive == null || !today.isAfter(expiryInclusive);
-                if (subtotal >= 100.0 && notExpired) {
-                    return new CouponResult(0.20, false);
-                }
-                return new CouponResult(0.0, false);
-            case "FRETEGRATIS":
-                return new CouponResult(0.0, true);
-            default:
-                return new CouponResult(0.0, false);
+        CouponRule rule = catalog.find(code);
+        if (rule == null) {
+            return CouponResult.NONE;
+        }
+        if (rule.limited() && !orcamentos.get(rule.code).disponivel()) {
+            return CouponResult.NONE;
+        }
+        return rule.evaluate(today, expiryInclusive, subtotal);
+    }
+
+    /**
+     * Troca o catálogo atomicamente; checkouts em andamento terminam com o anterior.
+     * Resgates já feitos contam contra o novo limite do mesmo código.
+     */
+    public void reload(CouponCatalog novo) {
+        Objects.requireNonNull(novo, "catalog");
+        sincronizarOrcamentos(novo);
+        this.catalog = novo;
+    }
+
+    /** Saldo livre de resgates do cupom, ou -1 se ele não tem limite. */
+    public long remaining(String code) {
+        RedemptionBudget b = budget(code);
+        return b == null ? CouponRule.SEM_LIMITE : b.restante();
+    }
+
+    /** Resgates confirmados do cupom (0 se ele não tem limite). */
+    public long redeemed(String code) {
+        RedemptionBudget b = budget(code);
+        return b == null ? 0 : b.confirmados();
+    }
+
+    /** Saldo do cupom no catálogo atual, ou null se não houver limite. */
+    RedemptionBudget budget(String code) {
+        if (code == null || code.isBlank()) return null;
+        CouponRule rule = catalog.find(code);
+        return (rule == null || !rule.limited()) ? null : orcamentos.get(rule.code);
+    }
+
+    private void sincronizarOrcamentos(CouponCatalog c) {
+        for (String codigo : c.codes()) {
+            CouponRule rule = c.find(codigo);
+            if (!rule.limited()) continue;
+            orcamentos.compute(codigo, (k, atual) -> {
+                if (atual == null) return new RedemptionBudget(rule.limit);
+                atual.ajustarLimite(rule.limit);
+                return atual;
+            });
         }
     }
-}
\ No newline at end of file
+
+    public CouponCatalog getCatalog() {
+        return catalog;
+    }
+}
@@ -0,0 +1,193 @@
+package org.example.checkout;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Checkout com chave de idempotência: repetições da mesma chave esperam o cálculo
+ * em andamento ou recebem o resultado já guardado, sem reprecificar (nem gravar de novo,
+ * se o cálculo grava). A chave vale por {@code ttl} a partir do fim do cálculo.
+ *
+ * A memória é limitada a {@code maxEntries} chaves. Cheio, primeiro remove as vencidas
+ * (no máximo uma varredura por quarto de ttl); se ainda não houver espaço, calcula sem
+ * guardar, ou seja, degrada para o checkout comum em vez de crescer.
+ *
+ * Mesma chave com outro pedido é conflito com o que já foi processado:
+ * {@link IllegalStateException}, distinto do {@link IllegalArgumentException} de pedido inválido.
+ * Cálculo que falha não é guardado; quem esperava recebe a mesma exceção e a próxima
+ * tentativa recalcula.
+ */
+public class IdempotentCheckoutService {
+
+    private final Function<CheckoutRequest, CheckoutResult> calculo;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier relogio;
+
+    private final ConcurrentHashMap<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final AtomicInteger tamanho = new AtomicInteger();
+    private final AtomicLong proximaVarredura;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public IdempotentCheckoutService(CheckoutService delegate, int maxEntries, Duration ttl) {
+        this(calculo(delegate), maxEntries, ttl, System::nanoTime);
+    }
+
+    /** {@code calculo} roda uma vez por chave; ex.: precificar e gravar no diário. */
+    public IdempotentCheckoutService(Function<CheckoutRequest, CheckoutResult> calculo, int maxEntries, Duration ttl) {
+        this(calculo, maxEntries, ttl, System::nanoTime);
+    }
+
+    IdempotentCheckoutService(Function<CheckoutRequest, CheckoutResult> calculo, int maxEntries, Duration ttl,
+                              LongSupplier relogio) {
+        this.calculo = Objects.requireNonNull(calculo, "calculo");
+        if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries <= 0");
+        if (ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("ttl <= 0");
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.relogio = Objects.requireNonNull(relogio, "relogio");
+        this.proximaVarredura = new AtomicLong(relogio.getAsLong());
+    }
+
+    private static Function<CheckoutRequest, CheckoutResult> calculo(CheckoutService service) {
+        Objects.requireNonNull(service, "delegate");
+        return p -> service.checkout(p.itens, p.tier, p.primeiraCompra, p.region, p.peso,
+                p.couponCode, p.today, p.couponExpiryInclusive);
+    }
+
+    /** Sem chave (null), é o checkout comum. */
+    public CheckoutResult checkout(String idempotencyKey, CheckoutRequest pedido) {
+        Objects.requireNonNull(pedido, "pedido");
+        if (idempotencyKey == null) return calculo.apply(pedido);
+
+        QuoteKey digital = digital(pedido);
+        long agora = relogio.getAsLong();
+        while (true) {
+            Entrada e = entradas.get(idempotencyKey);
+            if (e != null) {
+                if (e.vencida(agora)) {
+                    remover(idempotencyKey, e);
+                    continue;
+                }
+                // equals compara o hash antes dos campos
+                if (!e.digital.equals(digital)) {
+                    throw new IllegalStateException("chave de idempotência já usada com outro pedido: " + idempotencyKey);
+                }
+                hits.increment();
+                return esperar(e.futuro);
+            }
+
+            if (!reservarVaga(agora)) {
+                bypasses.increment();
+                return calculo.apply(pedido);
+            }
+            Entrada nova = new Entrada(digital);
+            Entrada atual = entradas.putIfAbsent(idempotencyKey, nova);
+            if (atual != null) {
+                // outra thread chegou antes com a mesma chave: usa a dela
+                tamanho.decrementAndGet();
+                continue;
+            }
+            misses.increment();
+            return calcular(idempotencyKey, nova, pedido);
+        }
+    }
+
+    private CheckoutResult calcular(String chave, Entrada e, CheckoutRequest pedido) {
+        CheckoutResult r;
+        try {
+            r = calculo.apply(pedido);
+        } catch (RuntimeException | Error falha) {
+            remover(chave, e);
+            e.futuro.completeExceptionally(falha);
+            throw falha;
+        }
+        e.expiraEm = relogio.getAsLong() + ttlNanos;
+        e.futuro.complete(r);
+        return r;
+    }
+
+    private static CheckoutResult esperar(CompletableFuture<CheckoutResult> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException ce) {
+            Throwable causa = ce.getCause();
+            if (causa instanceof RuntimeException) throw (RuntimeException) causa;
+            if (causa instanceof Error) throw (Error) causa;
+            throw ce;
+        }
+    }
+
+    // conta a vaga antes de inserir, para que o limite valha mesmo com inserções simultâneas
+    private boolean reservarVaga(long agora) {
+        if (tamanho.incrementAndGet() <= maxEntries) return true;
+        tamanho.decrementAndGet();
+        varrer(agora);
+        if (tamanho.incrementAndGet() <= maxEntries) return true;
+        tamanho.decrementAndGet();
+        return false;
+    }
+
+    /** Remove as vencidas; no máximo uma varredura por quarto de ttl, para não varrer a cada pedido num ataque de repetições. */
+    private void varrer(long agora) {
+        long proxima = proximaVarredura.get();
+        if (agora - proxima < 0 || !proximaVarredura.compareAndSet(proxima, agora + ttlNanos / 4)) return;
+        for (Map.Entry<String, Entrada> me : entradas.entrySet()) {
+            if (me.getValue().vencida(agora)) remover(me.getKey(), me.getValue());
+        }
+    }
+
+    private void remover(String chave, Entrada e) {
+        if (entradas.remove(chave, e)) {
+            tamanho.decrementAndGet();
+            evictions.increment();
+        }
+    }
+
+    private static QuoteKey digital(CheckoutRequest p) {
+        return new QuoteKey(p.itens, p.tier, p.primeiraCompra, p.region, p.peso,
+                p.couponCode, p.today, p.couponExpiryInclusive);
+    }
+
+    /** Repetições atendidas sem recalcular. */
+    public long hits() { return hits.sum(); }
+    /** Chaves novas calculadas e guardadas. */
+    public long misses() { return misses.sum(); }
+    /** Calculados sem guardar porque não havia vaga. */
+    public long bypasses() { return bypasses.sum(); }
+    public long evictions() { return evictions.sum(); }
+
+    public int size() {
+        return tamanho.get();
+    }
+
+    private static final class Entrada {
+        // o pedido inteiro, não só o hash: colisão não pode devolver o resultado de outro pedido
+        final QuoteKey digital;
+        final CompletableFuture<CheckoutResult> futuro = new CompletableFuture<>();
+        // em andamento não vence; definido ao terminar o cálculo
+        volatile long expiraEm = Long.MAX_VALUE;
+
+        Entrada(QuoteKey digital) {
+            this.digital = digital;
+        }
+
+        boolean vencida(long agora) {
+            long exp = expiraEm;
+            return exp != Long.MAX_VALUE && agora - exp >= 0;
+        }
+    }
+}
@@ -6,18 +6,23 @@ public class Item {
     private final String categoria;
     private final double precoUnitario;
     private final int quantidade;
+    private final int categoriaCodigo;
 
     public Item(String categoria, double precoUnitario, int quantidade) {
         if (precoUnitario < 0) throw new IllegalArgumentException("precoUnitario < 0");
+        if (!Double.isFinite(precoUnitario)) throw new IllegalArgumentException("precoUnitario inválido: " + precoUnitario);
         if (quantidade <= 0) throw new IllegalArgumentException("quantidade <= 0");
         this.categoria = Objects.requireNonNull(categoria, "categoria");
         this.precoUnitario = precoUnitario;
         this.quantidade = quantidade;
+        this.categoriaCodigo = CategoryRegistry.padrao().code(categoria);
     }
 
     public String getCategoria() { return categoria; }
     public double getPrecoUnitario() { return precoUnitario; }
     public int getQuantidade() { return quantidade; }
+    /** Código da categoria em {@link CategoryRegistry#padrao()}. */
+    public int getCategoriaCodigo() { return categoriaCodigo; }
 
     public double subtotal() {
         return precoUnitario * quantidade;
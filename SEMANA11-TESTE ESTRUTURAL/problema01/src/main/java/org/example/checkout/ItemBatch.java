@@ -0,0 +1,89 @@
+package org.example.checkout;
+
+import java.util.Arrays;
+
+/**
+ * Itens em colunas (preço, quantidade, código de categoria) em vez de um objeto
+ * por linha. Para carrinhos muito grandes: as somas do checkout percorrem arrays
+ * primitivos contíguos e podem usar SIMD.
+ *
+ * Não é thread-safe durante a montagem.
+ */
+public final class ItemBatch {
+
+    private double[] precos;
+    private int[] quantidades;
+    private int[] categorias;
+    private boolean[] tributaveis;
+    private int tamanho;
+
+    // isenções com que tributaveis foi montado; refeito se o registro mudar
+    private CategoryRegistry.ExemptSet isencoes = CategoryRegistry.padrao().exempt();
+
+    public ItemBatch() {
+        this(16);
+    }
+
+    public ItemBatch(int capacidade) {
+        if (capacidade < 0) throw new IllegalArgumentException("capacidade < 0");
+        precos = new double[capacidade];
+        quantidades = new int[capacidade];
+        categorias = new int[capacidade];
+        tributaveis = new boolean[capacidade];
+    }
+
+    public ItemBatch add(Item item) {
+        return add(item.getCategoria(), item.getPrecoUnitario(), item.getQuantidade());
+    }
+
+    /** Mesmas validações de {@link Item}. */
+    public ItemBatch add(String categoria, double precoUnitario, int quantidade) {
+        if (precoUnitario < 0) throw new IllegalArgumentException("precoUnitario < 0");
+        if (!Double.isFinite(precoUnitario)) throw new IllegalArgumentException("precoUnitario inválido: " + precoUnitario);
+        if (quantidade <= 0) throw new IllegalArgumentException("quantidade <= 0");
+        if (categoria == null) throw new NullPointerException("categoria");
+
+        if (tamanho == precos.length) crescer();
+        int codigo = CategoryRegistry.padrao().code(categoria);
+        precos[tamanho] = precoUnitario;
+        quantidades[tamanho] = quantidade;
+        categorias[tamanho] = codigo;
+        tributaveis[tamanho] = !isencoes.contains(codigo);
+        tamanho++;
+        return this;
+    }
+
+    public int size() { return tamanho; }
+
+    /** Nome normalizado (maiúsculas) da categoria, como em {@link CategoryRegistry}. */
+    public String getCategoria(int i) { return CategoryRegistry.padrao().name(categorias[checar(i)]); }
+    public int getCategoriaCodigo(int i) { return categorias[checar(i)]; }
+    public double getPrecoUnitario(int i) { return precos[checar(i)]; }
+    public int getQuantidade(int i) { return quantidades[checar(i)]; }
+
+    // acesso direto às colunas; válidas até size()
+    double[] precos() { return precos; }
+    int[] quantidades() { return quantidades; }
+
+    boolean[] tributaveis() {
+        CategoryRegistry.ExemptSet atual = CategoryRegistry.padrao().exempt();
+        if (atual != isencoes) {
+            for (int i = 0; i < tamanho; i++) tributaveis[i] = !atual.contains(categorias[i]);
+            isencoes = atual;
+        }
+        return tributaveis;
+    }
+
+    private int checar(int i) {
+        if (i < 0 || i >= tamanho) throw new IndexOutOfBoundsException(i);
+        return i;
+    }
+
+    private void crescer() {
+        int nova = Math.max(16, precos.length * 2);
+        precos = Arrays.copyOf(precos, nova);
+        quantidades = Arrays.copyOf(quantidades, nova);
+        categorias = Arrays.copyOf(categorias, nova);
+        tributaveis = Arrays.copyOf(tributaveis, nova);
+    }
+}
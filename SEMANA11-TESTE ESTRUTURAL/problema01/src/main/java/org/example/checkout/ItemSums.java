@@ -0,0 +1,86 @@
+package org.example.checkout;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Subtotal e subtotal tributável dos itens. Para {@link ItemBatch}, usa a Vector API quando
+ * o módulo {@code jdk.incubator.vector} está carregado ({@code --add-modules
+ * jdk.incubator.vector}) e o lote é grande o bastante; senão, o laço escalar.
+ * {@code -Dcheckout.vector=false} força o laço escalar.
+ *
+ * A soma vetorial agrupa as parcelas em outra ordem, então o double pode diferir
+ * do escalar nos últimos bits; o arredondamento para centavos absorve isso.
+ *
+ * Listas a partir de {@link #MINIMO_PARALELO} itens vão para {@link ParallelItemSums}:
+ * soma compensada, em blocos no {@link ForkJoinPool#commonPool()}. O arredondamento
+ * para centavos continua o mesmo; só o double que chega nele é mais exato.
+ */
+final class ItemSums {
+    private ItemSums() {}
+
+    // abaixo disso o custo de montar os vetores não compensa
+    static final int MINIMO_VETOR = 64;
+
+    // abaixo disso a soma simples ainda é exata até o centavo e dividir não compensa
+    static final int MINIMO_PARALELO = 4 * ParallelItemSums.BLOCO;
+
+    /** out[0] = subtotal, out[1] = subtotal tributável, na ordem da lista. */
+    static void somar(List<Item> itens, CategoryRegistry.ExemptSet isentas, double[] out) {
+        if (itens.size() >= MINIMO_PARALELO) {
+            ParallelItemSums.somar(itens, isentas, out, ForkJoinPool.commonPool());
+            return;
+        }
+        double subtotal = 0.0;
+        double tributavel = 0.0;
+        for (Item i : itens) {
+            double s = i.subtotal();
+            subtotal += s;
+            if (!isentas.contains(i.getCategoriaCodigo())) {
+                tributavel += s;
+            }
+        }
+        out[0] = subtotal;
+        out[1] = tributavel;
+    }
+
+    /** out[0] = subtotal, out[1] = subtotal tributável. */
+    static void somar(ItemBatch lote, double[] out) {
+        if (lote.size() >= MINIMO_VETOR && Vetor.DISPONIVEL) {
+            VectorItemSums.somar(lote.precos(), lote.quantidades(), lote.tributaveis(), lote.size(), out);
+        } else {
+            somarEscalar(lote.precos(), lote.quantidades(), lote.tributaveis(), lote.size(), out);
+        }
+    }
+
+    static void somarEscalar(double[] precos, int[] quantidades, boolean[] tributaveis, int n, double[] out) {
+        double subtotal = 0.0;
+        double tributavel = 0.0;
+        for (int i = 0; i < n; i++) {
+            double s = precos[i] * quantidades[i];
+            subtotal += s;
+            if (tributaveis[i]) tributavel += s;
+        }
+        out[0] = subtotal;
+        out[1] = tributavel;
+    }
+
+    // testado no primeiro lote grande, não ao carregar ItemSums: a sondagem carrega dezenas
+    // de classes da Vector API, que o checkout de listas e os lotes pequenos nunca usam
+    static final class Vetor {
+        private Vetor() {}
+
+        static final boolean DISPONIVEL = disponivel();
+
+        private static boolean disponivel() {
+            if (!Boolean.parseBoolean(System.getProperty("checkout.vector", "true"))) return false;
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return false;
+            try {
+                // carrega a classe só aqui; sem o módulo ela nem seria resolvida
+                return VectorItemSums.funciona();
+            } catch (LinkageError e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.checkout;
+
+/** Parte de um item nos valores do pedido; ver {@link CheckoutResult#lines()}. */
+public final class LineAllocation {
+    public final Item item;
+
+    public final long subtotalCents;
+    public final long discountCents;
+    public final long taxCents;
+    public final long totalCents;   // subtotal - desconto + imposto, sem frete
+
+    LineAllocation(Item item, long subtotalCents, long discountCents, long taxCents) {
+        this.item = item;
+        this.subtotalCents = subtotalCents;
+        this.discountCents = discountCents;
+        this.taxCents = taxCents;
+        this.totalCents = subtotalCents - discountCents + taxCents;
+    }
+
+    public double subtotal() { return Money.fromCents(subtotalCents); }
+    public double discountValue() { return Money.fromCents(discountCents); }
+    public double tax() { return Money.fromCents(taxCents); }
+    public double total() { return Money.fromCents(totalCents); }
+}
@@ -3,10 +3,56 @@ package org.example.checkout;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 
+/**
+ * Arredondamento monetário em 2 casas, meio-para-cima, sobre o valor decimal
+ * de {@link BigDecimal#valueOf(double)}.
+ *
+ * Os valores também podem ser representados em centavos ({@code long}), o que
+ * permite somar e subtrair sem erro e sem alocar. Valor que não cabe em centavos
+ * (a partir de ~9,2e16, NaN ou infinito) lança {@link IllegalArgumentException},
+ * como qualquer outro pedido inválido.
+ */
 final class Money {
     private Money() {}
 
+    // acima disso v * 100 deixa de ter precisão suficiente para o caminho rápido
+    private static final double LIMITE_RAPIDO = 1e7;
+    // perto de x.5 centavo o double pode cair do lado errado; decide pelo BigDecimal
+    private static final double MARGEM_EMPATE = 1e-4;
+
     static double round2(double v) {
-        return BigDecimal.valueOf(v).setScale(2, RoundingMode.HALF_UP).doubleValue();
+        if (!(Math.abs(v) < LIMITE_RAPIDO)) {
+            return BigDecimal.valueOf(v).setScale(2, RoundingMode.HALF_UP).doubleValue();
+        }
+        return fromCents(toCents(v));
+    }
+
+    /** Arredonda v para centavos, com o mesmo resultado de {@link #round2}. */
+    static long toCents(double v) {
+        double abs = Math.abs(v);
+        if (!(abs < LIMITE_RAPIDO)) {
+            return toCentsExato(v);
+        }
+        double escalado = abs * 100.0;
+        double piso = Math.floor(escalado);
+        double fracao = escalado - piso;
+        if (Math.abs(fracao - 0.5) < MARGEM_EMPATE) {
+            return toCentsExato(v);
+        }
+        long c = (long) piso + (fracao > 0.5 ? 1 : 0);
+        return v < 0 ? -c : c;
+    }
+
+    static double fromCents(long cents) {
+        return cents / 100.0;
+    }
+
+    private static long toCentsExato(double v) {
+        if (!Double.isFinite(v)) throw new IllegalArgumentException("valor inválido: " + v);
+        try {
+            return BigDecimal.valueOf(v).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("valor fora do limite em centavos: " + v, e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+package org.example.checkout;
+
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Caminho de {@link ItemSums} para carrinhos grandes: a lista é dividida ao meio até
+ * blocos de {@link #BLOCO} itens, cada bloco soma com compensação de Neumaier e as
+ * metades são juntadas também compensadas. O erro deixa de crescer com o número de
+ * linhas, como cresce na soma simples.
+ *
+ * A árvore de divisão só depende do tamanho da lista, nunca do pool nem de quantas
+ * threads rodaram, então o mesmo carrinho dá sempre o mesmo double; sem paralelismo
+ * disponível a mesma árvore é percorrida na thread atual.
+ */
+final class ParallelItemSums {
+    private ParallelItemSums() {}
+
+    // itens por folha; fixo para que o resultado não dependa da máquina
+    static final int BLOCO = 4_096;
+
+    /** out[0] = subtotal, out[1] = subtotal tributável. */
+    static void somar(List<Item> itens, CategoryRegistry.ExemptSet isentas, double[] out, ForkJoinPool pool) {
+        // sem acesso aleatório, get(i) por bloco seria quadrático
+        List<Item> lista = itens instanceof RandomAccess ? itens : List.of(itens.toArray(new Item[0]));
+        Parte raiz = new Parte(lista, isentas, 0, lista.size());
+        double[] r = pool.getParallelism() > 1 && !ForkJoinTask.inForkJoinPool() ? pool.invoke(raiz)
+                : raiz.compute();
+        out[0] = r[0] + r[1];
+        out[1] = r[2] + r[3];
+    }
+
+    /** Soma compensada de [inicio, fim): {soma, compensação} do subtotal e do tributável. */
+    private static final class Parte extends RecursiveTask<double[]> {
+        private final List<Item> itens;
+        private final CategoryRegistry.ExemptSet isentas;
+        private final int inicio;
+        private final int fim;
+
+        Parte(List<Item> itens, CategoryRegistry.ExemptSet isentas, int inicio, int fim) {
+            this.itens = itens;
+            this.isentas = isentas;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (fim - inicio <= BLOCO) return folha();
+            int meio = (inicio + fim) >>> 1;
+            Parte esquerda = new Parte(itens, isentas, inicio, meio);
+            Parte direita = new Parte(itens, isentas, meio, fim);
+            double[] e;
+            double[] d;
+            if (inForkJoinPool()) {
+                esquerda.fork();
+                d = direita.compute();
+                e = esquerda.join();
+            } else {
+                e = esquerda.compute();
+                d = direita.compute();
+            }
+            // sempre esquerda + direita, na mesma ordem, em qualquer thread
+            juntar(e, 0, d[0], d[1]);
+            juntar(e, 2, d[2], d[3]);
+            return e;
+        }
+
+        private double[] folha() {
+            double st = 0.0, cst = 0.0;
+            double tr = 0.0, ctr = 0.0;
+            for (int i = inicio; i < fim; i++) {
+                Item item = itens.get(i);
+                double s = item.subtotal();
+                double t = st + s;
+                cst += Math.abs(st) >= Math.abs(s) ? (st - t) + s : (s - t) + st;
+                st = t;
+                if (!isentas.contains(item.getCategoriaCodigo())) {
+                    t = tr + s;
+                    ctr += Math.abs(tr) >= Math.abs(s) ? (tr - t) + s : (s - t) + tr;
+                    tr = t;
+                }
+            }
+            return new double[] {st, cst, tr, ctr};
+        }
+    }
+
+    // acumula (soma, comp) de outra parte em a[i], a[i + 1]
+    private static void juntar(double[] a, int i, double soma, double comp) {
+        double s = a[i];
+        double t = s + soma;
+        a[i + 1] += comp + (Math.abs(s) >= Math.abs(soma) ? (s - t) + soma : (soma - t) + s);
+        a[i] = t;
+    }
+}
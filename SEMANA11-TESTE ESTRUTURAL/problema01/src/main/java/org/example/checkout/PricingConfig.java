@@ -0,0 +1,212 @@
+package org.example.checkout;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Parâmetros numéricos do checkout, imutáveis. {@link CheckoutService} publica a versão
+ * vigente numa única referência atômica e lê uma vez por checkout; trocar de versão
+ * ({@link CheckoutService#reload(PricingConfig)}, {@link PricingConfigWatcher}) não
+ * bloqueia quem está precificando, e cada {@link CheckoutResult} diz com qual versão saiu.
+ *
+ * Arquivo (properties; chave ausente = valor padrão, entre parênteses):
+ *
+ * <pre>
+ * versao=7                         opcional; sem ela, a publicação usa a anterior + 1
+ * imposto=0.12                     (0.12) sobre a parte tributável, após desconto
+ * teto=0.30                        (0.30) limite da soma dos descontos, já com o cupom
+ * tier.SILVER=0.05                 (BASIC 0, SILVER 0.05, GOLD 0.10)
+ * primeiraCompra.percentual=0.05   (0.05)
+ * primeiraCompra.minimo=50         (50) subtotal mínimo para o desconto de primeira compra
+ * frete.gratisAPartirDe=300        (300) subtotal com desconto a partir do qual o frete é grátis
+ * frete.cupomPesoMaximo=5          (5) peso máximo para o frete grátis de cupom
+ * </pre>
+ *
+ * Com {@link PricingRules}, desconto, teto e imposto vêm das regras; daqui só o frete.
+ */
+public final class PricingConfig {
+
+    private static final CustomerTier[] TIERS = CustomerTier.values();
+    private static final PricingConfig PADRAO = new PricingConfig(0, 0.12, 0.30,
+            percentuaisPadrao(), 0.05, 50.0, 300.0, 5.0);
+
+    private final long versao;
+    private final double imposto;
+    private final double teto;
+    private final double[] tiers;   // por ordinal
+    private final double primeiraCompraPercentual;
+    private final double primeiraCompraMinimo;
+    private final double freteGratisAPartirDe;
+    private final double cupomPesoMaximo;
+
+    private PricingConfig(long versao, double imposto, double teto, double[] tiers,
+                          double primeiraCompraPercentual, double primeiraCompraMinimo,
+                          double freteGratisAPartirDe, double cupomPesoMaximo) {
+        this.versao = versao;
+        this.imposto = imposto;
+        this.teto = teto;
+        this.tiers = tiers;
+        this.primeiraCompraPercentual = primeiraCompraPercentual;
+        this.primeiraCompraMinimo = primeiraCompraMinimo;
+        this.freteGratisAPartirDe = freteGratisAPartirDe;
+        this.cupomPesoMaximo = cupomPesoMaximo;
+    }
+
+    /** Os valores fixos de sempre, versão 0. */
+    public static PricingConfig padrao() {
+        return PADRAO;
+    }
+
+    public static PricingConfig load(Path arquivo) {
+        try (Reader r = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            return load(r);
+        } catch (IOException e) {
+            throw new UncheckedIOException("falha ao ler " + arquivo, e);
+        }
+    }
+
+    public static PricingConfig load(Reader reader) {
+        Properties p = new Properties();
+        try {
+            p.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        double[] tiers = PADRAO.tiers.clone();
+        long versao = 0;
+        for (String chave : p.stringPropertyNames()) {
+            switch (chave) {
+                case "versao":
+                    versao = parseVersao(p.getProperty(chave));
+                    break;
+                case "imposto", "teto", "primeiraCompra.percentual", "primeiraCompra.minimo",
+                     "frete.gratisAPartirDe", "frete.cupomPesoMaximo":
+                    break;
+                default:
+                    if (!chave.startsWith("tier.")) throw new IllegalArgumentException("chave inválida: " + chave);
+                    CustomerTier tier;
+                    try {
+                        tier = CustomerTier.valueOf(chave.substring(5).trim().toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("tier inválido: " + chave);
+                    }
+                    tiers[tier.ordinal()] = percentual(p, chave, 0.0);
+            }
+        }
+        return new PricingConfig(versao,
+                percentual(p, "imposto", PADRAO.imposto),
+                percentual(p, "teto", PADRAO.teto),
+                tiers,
+                percentual(p, "primeiraCompra.percentual", PADRAO.primeiraCompraPercentual),
+                naoNegativo(p, "primeiraCompra.minimo", PADRAO.primeiraCompraMinimo),
+                naoNegativo(p, "frete.gratisAPartirDe", PADRAO.freteGratisAPartirDe),
+                naoNegativo(p, "frete.cupomPesoMaximo", PADRAO.cupomPesoMaximo));
+    }
+
+    /** 0 = não definida no arquivo. */
+    public long version() {
+        return versao;
+    }
+
+    public double taxRate() {
+        return imposto;
+    }
+
+    public double discountCap() {
+        return teto;
+    }
+
+    public double tierPercent(CustomerTier tier) {
+        return tiers[tier.ordinal()];
+    }
+
+    public double firstPurchasePercent() {
+        return primeiraCompraPercentual;
+    }
+
+    public double firstPurchaseMinimum() {
+        return primeiraCompraMinimo;
+    }
+
+    public double freeShippingThreshold() {
+        return freteGratisAPartirDe;
+    }
+
+    public double couponFreeShippingMaxWeight() {
+        return cupomPesoMaximo;
+    }
+
+    /** Mesma configuração com outra versão. */
+    PricingConfig withVersion(long novaVersao) {
+        return new PricingConfig(novaVersao, imposto, teto, tiers, primeiraCompraPercentual,
+                primeiraCompraMinimo, freteGratisAPartirDe, cupomPesoMaximo);
+    }
+
+    /** Mesmos valores, ignorando a versão. */
+    boolean sameValues(PricingConfig o) {
+        return imposto == o.imposto && teto == o.teto && Arrays.equals(tiers, o.tiers)
+                && primeiraCompraPercentual == o.primeiraCompraPercentual
+                && primeiraCompraMinimo == o.primeiraCompraMinimo
+                && freteGratisAPartirDe == o.freteGratisAPartirDe
+                && cupomPesoMaximo == o.cupomPesoMaximo;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("PricingConfig{versao=").append(versao)
+                .append(", imposto=").append(imposto).append(", teto=").append(teto);
+        for (CustomerTier t : TIERS) sb.append(", ").append(t).append('=').append(tiers[t.ordinal()]);
+        return sb.append(", primeiraCompra=").append(primeiraCompraPercentual)
+                .append(" a partir de ").append(primeiraCompraMinimo)
+                .append(", freteGratis a partir de ").append(freteGratisAPartirDe)
+                .append(", cupomPesoMaximo=").append(cupomPesoMaximo).append('}').toString();
+    }
+
+    private static double[] percentuaisPadrao() {
+        double[] p = new double[TIERS.length];
+        p[CustomerTier.SILVER.ordinal()] = 0.05;
+        p[CustomerTier.GOLD.ordinal()] = 0.10;
+        return p;
+    }
+
+    private static long parseVersao(String v) {
+        long versao;
+        try {
+            versao = Long.parseLong(v.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("valor inválido em versao: " + v, e);
+        }
+        if (versao <= 0) throw new IllegalArgumentException("versao <= 0: " + v);
+        return versao;
+    }
+
+    private static double percentual(Properties p, String chave, double padrao) {
+        double v = parseDouble(p, chave, padrao);
+        if (!(v >= 0 && v <= 1)) throw new IllegalArgumentException("percentual fora de [0, 1] em " + chave + ": " + v);
+        return v;
+    }
+
+    private static double naoNegativo(Properties p, String chave, double padrao) {
+        double v = parseDouble(p, chave, padrao);
+        if (!(v >= 0)) throw new IllegalArgumentException(chave + " < 0: " + v);
+        return v;
+    }
+
+    private static double parseDouble(Properties p, String chave, double padrao) {
+        String v = p.getProperty(chave);
+        if (v == null) return padrao;
+        try {
+            return Double.parseDouble(v.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("valor inválido em " + chave + ": " + v, e);
+        }
+    }
+}
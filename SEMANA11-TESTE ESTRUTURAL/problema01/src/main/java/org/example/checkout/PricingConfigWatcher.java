@@ -0,0 +1,131 @@
+package org.example.checkout;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Observa um arquivo de {@link PricingConfig} e publica cada versão nova no
+ * {@link CheckoutService}. A leitura e a validação acontecem numa thread própria;
+ * o checkout só vê a troca da referência, sem pausa.
+ *
+ * Arquivo inválido não é publicado: a versão vigente continua e o erro fica em
+ * {@link #lastError()}. Arquivo salvo sem mudar nenhum valor não gera versão nova.
+ * Como chave ausente volta ao valor padrão, prefira gravar num temporário e renomear
+ * por cima: quem edita no lugar pode ter um meio-arquivo lido (a escrita seguinte corrige).
+ */
+public final class PricingConfigWatcher implements AutoCloseable {
+
+    // editores costumam gerar vários eventos seguidos para uma única gravação
+    private static final long ESPERA_MS = 50;
+
+    private final Path arquivo;
+    private final CheckoutService service;
+    private final WatchService watch;
+    private final Thread thread;
+
+    private final AtomicLong publicadas = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private volatile RuntimeException ultimoErro;
+
+    /**
+     * Lê e publica o arquivo já na criação (erro aqui é lançado) e passa a observá-lo.
+     *
+     * @throws IllegalArgumentException se o arquivo inicial for inválido
+     */
+    public PricingConfigWatcher(Path arquivo, CheckoutService service) throws IOException {
+        this.arquivo = arquivo.toAbsolutePath();
+        this.service = Objects.requireNonNull(service, "service");
+        publicar(PricingConfig.load(this.arquivo));
+
+        this.watch = FileSystems.getDefault().newWatchService();
+        this.arquivo.getParent().register(watch, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::observar, "pricing-config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void observar() {
+        Path nome = arquivo.getFileName();
+        try {
+            while (true) {
+                WatchKey key = watch.take();
+                boolean mudou = eventoDoArquivo(key, nome);
+                if (mudou) {
+                    // junta os eventos da mesma gravação numa leitura só
+                    WatchKey mais;
+                    while ((mais = watch.poll(ESPERA_MS, TimeUnit.MILLISECONDS)) != null) {
+                        eventoDoArquivo(mais, nome);
+                    }
+                    recarregar();
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // close()
+        }
+    }
+
+    private static boolean eventoDoArquivo(WatchKey key, Path nome) {
+        boolean achou = false;
+        for (WatchEvent<?> e : key.pollEvents()) {
+            if (nome.equals(e.context()) || e.kind() == StandardWatchEventKinds.OVERFLOW) achou = true;
+        }
+        key.reset();
+        return achou;
+    }
+
+    /** Relê o arquivo agora; devolve true se uma versão nova foi publicada. */
+    boolean recarregar() {
+        try {
+            return publicar(PricingConfig.load(arquivo));
+        } catch (RuntimeException e) {
+            falhas.incrementAndGet();
+            ultimoErro = e;
+            System.err.println("configuração de preços ignorada (" + arquivo + "): " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean publicar(PricingConfig novo) {
+        PricingConfig atual = service.config();
+        if (publicadas.get() > 0 && novo.sameValues(atual) && novo.version() <= atual.version()) return false;
+        service.reload(novo);
+        publicadas.incrementAndGet();
+        return true;
+    }
+
+    /** Versões publicadas, contando a inicial. */
+    public long reloads() {
+        return publicadas.get();
+    }
+
+    /** Leituras recusadas (arquivo inválido ou versão não crescente). */
+    public long failures() {
+        return falhas.get();
+    }
+
+    /** Último erro de leitura, ou null. */
+    public RuntimeException lastError() {
+        return ultimoErro;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watch.close();
+        thread.interrupt();
+        try {
+            thread.join(1_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package org.example.checkout;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Regras de desconto e imposto editáveis, uma por linha ({@code #} comenta):
+ *
+ * <pre>
+ * desconto 0.05 se tier = SILVER
+ * desconto 0.05 se primeiraCompra e subtotal &gt;= 50
+ * desconto 0.02                      (sem condição: sempre)
+ * teto 0.30                          (limite da soma, já com o cupom)
+ * imposto 0.12
+ * </pre>
+ *
+ * Condições: {@code tier = X}, {@code primeiraCompra}, {@code subtotal OP valor}
+ * ({@code >= > <= < =}, em reais, comparado em centavos), unidas por {@code e}.
+ * Os percentuais que valem são somados na ordem do arquivo e depois o do cupom.
+ *
+ * Na carga, cada regra vira um {@link MethodHandle} (guardWithTest sobre a condição) e
+ * a soma vira uma única cadeia {@code (long subtotalCents, int tier, boolean primeira,
+ * double cupom) -> double}, que a JIT compila sem interpretar a lista de regras.
+ *
+ * A JIT só embute a cadeia se a alcança por uma constante, e campo final de instância
+ * não é tratado como constante. Por isso cada conjunto define a sua classe oculta
+ * ({@link CadeiaCompilada}) com a cadeia num campo estático final: conjuntos diferentes
+ * não dividem estado e cada um é chamado com a sua cadeia embutida. Se os bytes do
+ * molde não estiverem disponíveis, a cadeia é chamada pelo campo, sem embutir.
+ */
+public final class PricingRules {
+
+    private static final String RECURSO_PADRAO = "/regras-preco.txt";
+    private static final MethodType TIPO_CONDICAO =
+            MethodType.methodType(boolean.class, long.class, int.class, boolean.class);
+    private static final MethodType TIPO_PERCENTUAL =
+            MethodType.methodType(double.class, long.class, int.class, boolean.class);
+
+    /** Cadeia compilada de um conjunto de regras; implementada por {@link CadeiaCompilada}. */
+    interface Cadeia {
+        double desconto(long subtotalCents, int tier, boolean primeiraCompra, double couponPercent) throws Throwable;
+    }
+
+    private final Cadeia cadeia;
+    private final double teto;
+    private final double imposto;
+
+    private PricingRules(MethodHandle desconto, double teto, double imposto) {
+        this.cadeia = compilar(desconto);
+        this.teto = teto;
+        this.imposto = imposto;
+    }
+
+    // desconto: (long, int, boolean, double) double
+    private static Cadeia compilar(MethodHandle desconto) {
+        byte[] molde = Molde.BYTES;
+        if (molde == null) {
+            return (s, t, p, c) -> (double) desconto.invokeExact(s, t, p, c);
+        }
+        try {
+            // sem STRONG: a classe é descarregada junto com as regras
+            MethodHandles.Lookup oculta = MethodHandles.lookup().defineHiddenClassWithClassData(molde, desconto, true);
+            return (Cadeia) oculta.findConstructor(oculta.lookupClass(), MethodType.methodType(void.class)).invoke();
+        } catch (Throwable t) {
+            throw new IllegalStateException("falha ao compilar regras", t);
+        }
+    }
+
+    /** Classe da cadeia deste conjunto; oculta e própria dele quando compilada do molde. */
+    Class<?> classeCadeia() {
+        return cadeia.getClass();
+    }
+
+    /** Regras equivalentes às fixas de {@link CheckoutService}, lidas de {@code regras-preco.txt}. */
+    public static PricingRules padrao() {
+        return Padrao.INSTANCIA;
+    }
+
+    public static PricingRules load(Path arquivo) {
+        try (Reader r = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            return load(r);
+        } catch (IOException e) {
+            throw new UncheckedIOException("falha ao ler " + arquivo, e);
+        }
+    }
+
+    public static PricingRules load(Reader reader) {
+        MethodHandle soma = MethodHandles.dropArguments(
+                MethodHandles.constant(double.class, 0.0), 0, long.class, int.class, boolean.class);
+        double teto = 1.0;
+        double imposto = 0.0;
+        BufferedReader in = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        try {
+            String linha;
+            int n = 0;
+            while ((linha = in.readLine()) != null) {
+                n++;
+                int comentario = linha.indexOf('#');
+                if (comentario >= 0) linha = linha.substring(0, comentario);
+                String[] t = linha.trim().split("\\s+");
+                if (t.length == 1 && t[0].isEmpty()) continue;
+                try {
+                    switch (t[0]) {
+                        case "desconto":
+                            soma = somar(soma, regra(t));
+                            break;
+                        case "teto":
+                            exigir(t.length == 2, "esperado: teto <valor>");
+                            teto = percentual(t[1]);
+                            break;
+                        case "imposto":
+                            exigir(t.length == 2, "esperado: imposto <valor>");
+                            imposto = percentual(t[1]);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("regra desconhecida: " + t[0]);
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("linha " + n + ": " + e.getMessage(), e);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // soma das regras + cupom, e o teto por cima
+        MethodHandle comCupom = MethodHandles.foldArguments(
+                MethodHandles.dropArguments(SOMA, 1, long.class, int.class, boolean.class), soma);
+        MethodHandle limitado = MethodHandles.filterReturnValue(comCupom, MethodHandles.insertArguments(MINIMO, 1, teto));
+        return new PricingRules(limitado, teto, imposto);
+    }
+
+    /** Percentual total de desconto (regras + cupom), já limitado pelo teto. */
+    double discountPercent(long subtotalCents, CustomerTier tier, boolean primeiraCompra, double couponPercent) {
+        try {
+            return cadeia.desconto(subtotalCents, tier.ordinal(), primeiraCompra, couponPercent);
+        } catch (Throwable t) {
+            // só há métodos estáticos sem exceção na cadeia
+            throw new IllegalStateException(t);
+        }
+    }
+
+    double taxRate() {
+        return imposto;
+    }
+
+    public double cap() {
+        return teto;
+    }
+
+    // "desconto V [se COND (e COND)*]"
+    private static MethodHandle regra(String[] t) {
+        exigir(t.length >= 2, "esperado: desconto <valor> [se <condição>]");
+        MethodHandle valor = MethodHandles.dropArguments(
+                MethodHandles.constant(double.class, percentual(t[1])), 0, long.class, int.class, boolean.class);
+        if (t.length == 2) return valor;
+        exigir(t[2].equals("se") && t.length > 3, "esperado 'se' seguido de condição");
+
+        MethodHandle condicao = null;
+        int i = 3;
+        while (true) {
+            MethodHandle c;
+            if (t[i].equals("primeiraCompra")) {
+                c = MethodHandles.dropArguments(MethodHandles.identity(boolean.class), 0, long.class, int.class);
+                i += 1;
+            } else {
+                exigir(i + 2 < t.length, "condição incompleta perto de '" + t[i] + "'");
+                c = comparacao(t[i], t[i + 1], t[i + 2]);
+                i += 3;
+            }
+            condicao = condicao == null ? c : MethodHandles.guardWithTest(condicao, c, FALSO);
+            if (i == t.length) break;
+            exigir(t[i].equals("e") && i + 1 < t.length, "esperado 'e' entre condições");
+            i++;
+        }
+        return MethodHandles.guardWithTest(condicao, valor, ZERO);
+    }
+
+    private static MethodHandle comparacao(String campo, String op, String valor) {
+        switch (campo) {
+            case "tier": {
+                exigir(op.equals("="), "tier só aceita '='");
+                int ordinal;
+                try {
+                    ordinal = CustomerTier.valueOf(valor.toUpperCase(Locale.ROOT)).ordinal();
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("tier inválido: " + valor);
+                }
+                MethodHandle igual = MethodHandles.insertArguments(INT_IGUAL, 1, ordinal);
+                return MethodHandles.permuteArguments(
+                        MethodHandles.dropArguments(igual, 1, long.class, boolean.class),
+                        TIPO_CONDICAO, 1, 0, 2);
+            }
+            case "subtotal": {
+                long centavos;
+                try {
+                    centavos = Money.toCents(Double.parseDouble(valor));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("valor inválido: " + valor);
+                }
+                MethodHandle cmp;
+                switch (op) {
+                    case ">=": cmp = MAIOR_OU_IGUAL; break;
+                    case ">": cmp = MAIOR; break;
+                    case "<=": cmp = MENOR_OU_IGUAL; break;
+                    case "<": cmp = MENOR; break;
+                    case "=": cmp = LONG_IGUAL; break;
+                    default: throw new IllegalArgumentException("operador inválido: " + op);
+                }
+                return MethodHandles.dropArguments(MethodHandles.insertArguments(cmp, 1, centavos),
+                        1, int.class, boolean.class);
+            }
+            default:
+                throw new IllegalArgumentException("campo desconhecido: " + campo);
+        }
+    }
+
+    // s(a) + r(a)
+    private static MethodHandle somar(MethodHandle s, MethodHandle r) {
+        MethodHandle maisR = MethodHandles.collectArguments(SOMA, 1, r);   // (double, long, int, boolean)
+        return MethodHandles.foldArguments(maisR, s);
+    }
+
+    private static double percentual(String v) {
+        double p;
+        try {
+            p = Double.parseDouble(v);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("valor inválido: " + v);
+        }
+        if (!(p >= 0 && p <= 1)) throw new IllegalArgumentException("percentual fora de [0, 1]: " + v);
+        return p;
+    }
+
+    private static void exigir(boolean ok, String mensagem) {
+        if (!ok) throw new IllegalArgumentException(mensagem);
+    }
+
+    // blocos das cadeias
+    private static double soma(double a, double b) { return a + b; }
+    private static boolean intIgual(int a, int b) { return a == b; }
+    private static boolean longIgual(long a, long b) { return a == b; }
+    private static boolean maiorOuIgual(long a, long b) { return a >= b; }
+    private static boolean maior(long a, long b) { return a > b; }
+    private static boolean menorOuIgual(long a, long b) { return a <= b; }
+    private static boolean menor(long a, long b) { return a < b; }
+
+    private static final MethodHandle SOMA;
+    private static final MethodHandle MINIMO;
+    private static final MethodHandle INT_IGUAL;
+    private static final MethodHandle LONG_IGUAL;
+    private static final MethodHandle MAIOR_OU_IGUAL;
+    private static final MethodHandle MAIOR;
+    private static final MethodHandle MENOR_OU_IGUAL;
+    private static final MethodHandle MENOR;
+    private static final MethodHandle FALSO;
+    private static final MethodHandle ZERO;
+
+    static {
+        try {
+            MethodHandles.Lookup l = MethodHandles.lookup();
+            MethodType dd = MethodType.methodType(double.class, double.class, double.class);
+            MethodType ii = MethodType.methodType(boolean.class, int.class, int.class);
+            MethodType ll = MethodType.methodType(boolean.class, long.class, long.class);
+            SOMA = l.findStatic(PricingRules.class, "soma", dd);
+            MINIMO = l.findStatic(Math.class, "min", dd);
+            INT_IGUAL = l.findStatic(PricingRules.class, "intIgual", ii);
+            LONG_IGUAL = l.findStatic(PricingRules.class, "longIgual", ll);
+            MAIOR_OU_IGUAL = l.findStatic(PricingRules.class, "maiorOuIgual", ll);
+            MAIOR = l.findStatic(PricingRules.class, "maior", ll);
+            MENOR_OU_IGUAL = l.findStatic(PricingRules.class, "menorOuIgual", ll);
+            MENOR = l.findStatic(PricingRules.class, "menor", ll);
+            FALSO = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, false), 0, TIPO_CONDICAO.parameterList());
+            ZERO = MethodHandles.dropArguments(MethodHandles.constant(double.class, 0.0), 0, TIPO_PERCENTUAL.parameterList());
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // bytes de CadeiaCompilada, lidos uma vez; null se o class path não os expõe
+    private static final class Molde {
+        static final byte[] BYTES = ler();
+
+        private static byte[] ler() {
+            try (InputStream in = PricingRules.class.getResourceAsStream("CadeiaCompilada.class")) {
+                return in == null ? null : in.readAllBytes();
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
+
+    // carregado só no primeiro uso
+    private static final class Padrao {
+        static final PricingRules INSTANCIA = carregar();
+
+        private static PricingRules carregar() {
+            try (InputStream in = PricingRules.class.getResourceAsStream(RECURSO_PADRAO)) {
+                if (in == null) throw new IllegalStateException("recurso ausente: " + RECURSO_PADRAO);
+                return load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.checkout;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Impressão digital das entradas de um checkout. Os itens entram na ordem dada:
+ * {@link CheckoutResult#lines()} segue essa ordem e a soma em double depende dela,
+ * então as mesmas linhas em outra ordem dão outra chave.
+ */
+final class QuoteKey {
+
+    private final String[] categorias;
+    private final long[] precos;        // bits do double
+    private final int[] quantidades;
+    private final CustomerTier tier;
+    private final boolean primeiraCompra;
+    private final String region;
+    private final long peso;            // bits do double
+    private final String couponCode;
+    private final LocalDate today;
+    private final LocalDate couponExpiryInclusive;
+    private final int hash;
+
+    QuoteKey(List<Item> itens, CustomerTier tier, boolean primeiraCompra, String region, double peso,
+             String couponCode, LocalDate today, LocalDate couponExpiryInclusive) {
+        int n = itens.size();
+        this.categorias = new String[n];
+        this.precos = new long[n];
+        this.quantidades = new int[n];
+        for (int i = 0; i < n; i++) {
+            Item item = itens.get(i);
+            categorias[i] = item.getCategoria();
+            precos[i] = Double.doubleToLongBits(item.getPrecoUnitario());
+            quantidades[i] = item.getQuantidade();
+        }
+        this.tier = tier;
+        this.primeiraCompra = primeiraCompra;
+        this.region = region;
+        this.peso = Double.doubleToLongBits(peso);
+        this.couponCode = couponCode;
+        this.today = today;
+        this.couponExpiryInclusive = couponExpiryInclusive;
+
+        int h = Arrays.hashCode(categorias);
+        h = 31 * h + Arrays.hashCode(precos);
+        h = 31 * h + Arrays.hashCode(quantidades);
+        h = 31 * h + Objects.hash(tier, primeiraCompra, region, peso, couponCode, today, couponExpiryInclusive);
+        this.hash = h;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof QuoteKey)) return false;
+        QuoteKey k = (QuoteKey) o;
+        return hash == k.hash
+                && primeiraCompra == k.primeiraCompra
+                && peso == k.peso
+                && tier == k.tier
+                && Objects.equals(region, k.region)
+                && Objects.equals(couponCode, k.couponCode)
+                && today.equals(k.today)
+                && Objects.equals(couponExpiryInclusive, k.couponExpiryInclusive)
+                && Arrays.equals(precos, k.precos)
+                && Arrays.equals(quantidades, k.quantidades)
+                && Arrays.equals(categorias, k.categorias);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,170 @@
+package org.example.checkout;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Saldo de resgates de um cupom limitado, dividido em faixas para que threads
+ * diferentes decrementem contadores diferentes. Cada faixa só desce enquanto
+ * positiva (CAS), e a soma das faixas nunca passa do limite: não há venda além
+ * do limite mesmo sem trava global. Faixa vazia? A thread tenta as vizinhas.
+ *
+ * Protocolo: {@link #reservar()} tira uma unidade; depois {@link #confirmar()}
+ * (resgate efetivado) ou {@link #devolver(int)} (checkout abortado).
+ *
+ * Invariante: saldo + reservas abertas + confirmados = limite + dívida. A dívida é a
+ * parte de uma redução de limite que não coube no saldo livre (já estava reservada);
+ * devoluções e aumentos de limite pagam a dívida antes de voltar ao saldo.
+ */
+final class RedemptionBudget {
+
+    // 16 longs = 128 bytes entre faixas, evita falso compartilhamento de linha de cache
+    private static final int PASSO = 16;
+    private static final int MAXIMO_FAIXAS = 64;
+
+    private final int mascara;
+    private final AtomicLongArray saldo;
+    private final LongAdder confirmados = new LongAdder();
+    private final AtomicLong divida = new AtomicLong();
+    private volatile long limite;
+
+    RedemptionBudget(long limite) {
+        this(limite, faixasPadrao());
+    }
+
+    RedemptionBudget(long limite, int faixas) {
+        if (limite < 0) throw new IllegalArgumentException("limite < 0: " + limite);
+        if (faixas <= 0 || Integer.bitCount(faixas) != 1) {
+            throw new IllegalArgumentException("faixas deve ser potência de 2: " + faixas);
+        }
+        this.mascara = faixas - 1;
+        this.saldo = new AtomicLongArray(faixas * PASSO);
+        this.limite = limite;
+        long porFaixa = limite / faixas;
+        long resto = limite % faixas;
+        for (int f = 0; f < faixas; f++) {
+            saldo.set(f * PASSO, porFaixa + (f < resto ? 1 : 0));
+        }
+    }
+
+    private static int faixasPadrao() {
+        int n = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        return Math.min(n, MAXIMO_FAIXAS);
+    }
+
+    /** Tira uma unidade; devolve a faixa usada, ou -1 se o cupom esgotou. */
+    int reservar() {
+        int inicio = faixaDaThread();
+        for (int k = 0; k <= mascara; k++) {
+            int f = (inicio + k) & mascara;
+            if (decrementar(f * PASSO)) return f;
+        }
+        return -1;
+    }
+
+    private boolean decrementar(int i) {
+        long v;
+        while ((v = saldo.get(i)) > 0) {
+            if (saldo.compareAndSet(i, v, v - 1)) return true;
+        }
+        return false;
+    }
+
+    void confirmar() {
+        confirmados.increment();
+    }
+
+    /** Devolve a unidade reservada à faixa de onde saiu, ou abate a dívida se houver. */
+    void devolver(int faixa) {
+        if (pagar(1) == 1) return;
+        saldo.getAndIncrement(faixa * PASSO);
+        // redução de limite concorrente: a dívida pode ter surgido depois de pagar()
+        if (divida.get() > 0) quitar();
+    }
+
+    /** Há saldo em alguma faixa? Começa pela faixa da thread, que costuma responder sozinha. */
+    boolean disponivel() {
+        int inicio = faixaDaThread();
+        for (int k = 0; k <= mascara; k++) {
+            if (saldo.get(((inicio + k) & mascara) * PASSO) > 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Muda o limite (recarga do catálogo). Aumento paga a dívida e o resto entra na
+     * faixa 0; redução tira do saldo livre, sem tocar em reservas já feitas. O que não
+     * couber no saldo vira dívida, paga pelas próximas devoluções: um resgate devolvido
+     * não volta a ficar disponível enquanto as reservas passarem do novo limite.
+     */
+    synchronized void ajustarLimite(long novo) {
+        if (novo < 0) throw new IllegalArgumentException("limite < 0: " + novo);
+        long delta = novo - limite;
+        limite = novo;
+        if (delta > 0) {
+            long resto = delta - pagar(delta);
+            if (resto > 0) saldo.getAndAdd(0, resto);
+            return;
+        }
+        if (delta < 0) {
+            divida.addAndGet(-delta);
+            quitar();
+        }
+    }
+
+    /** Abate até {@code n} da dívida; devolve quanto abateu. */
+    private long pagar(long n) {
+        long d;
+        while ((d = divida.get()) > 0) {
+            long p = Math.min(d, n);
+            if (divida.compareAndSet(d, d - p)) return p;
+        }
+        return 0;
+    }
+
+    /** Paga a dívida com o saldo livre das faixas, enquanto houver dos dois. */
+    private synchronized void quitar() {
+        for (int f = 0; f <= mascara; f++) {
+            int i = f * PASSO;
+            long v;
+            while ((v = saldo.get(i)) > 0) {
+                long d = divida.get();
+                if (d <= 0) return;
+                long tirar = Math.min(v, d);
+                if (!saldo.compareAndSet(i, v, v - tirar)) continue;
+                // devoluções concorrentes podem ter abatido parte da dívida nesse meio-tempo
+                long sobra = tirar - pagar(tirar);
+                if (sobra > 0) {
+                    saldo.getAndAdd(i, sobra);
+                    return;
+                }
+            }
+        }
+    }
+
+    long limite() {
+        return limite;
+    }
+
+    /** Saldo livre (aproximado sob concorrência). */
+    long restante() {
+        long soma = 0;
+        for (int f = 0; f <= mascara; f++) soma += saldo.get(f * PASSO);
+        return soma;
+    }
+
+    long confirmados() {
+        return confirmados.sum();
+    }
+
+    /** Redução de limite ainda não paga por devoluções. */
+    long divida() {
+        return divida.get();
+    }
+
+    private int faixaDaThread() {
+        long id = Thread.currentThread().threadId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 40) & mascara;
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.checkout;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Checkout com uma unidade do cupom limitado já reservada. O chamador confirma
+ * com {@link #commit()} quando o pedido é efetivado; {@link #release()} ou
+ * {@link #close()} sem commit devolvem a unidade. Cupom ilimitado, ausente ou
+ * esgotado não reserva nada e as duas operações viram no-op.
+ */
+public final class ReservedCheckout implements AutoCloseable {
+    public final CheckoutResult result;
+    public final String couponCode;    // cupom aplicado; null se nenhum (ou esgotado)
+
+    private final RedemptionBudget orcamento;   // null = nada reservado
+    private final int faixa;
+    private final AtomicBoolean aberta = new AtomicBoolean(true);
+
+    ReservedCheckout(CheckoutResult result, String couponCode, RedemptionBudget orcamento, int faixa) {
+        this.result = result;
+        this.couponCode = couponCode;
+        this.orcamento = orcamento;
+        this.faixa = faixa;
+    }
+
+    public void commit() {
+        if (!aberta.compareAndSet(true, false)) throw new IllegalStateException("reserva já encerrada");
+        if (orcamento != null) orcamento.confirmar();
+    }
+
+    public void release() {
+        if (aberta.compareAndSet(true, false) && orcamento != null) {
+            orcamento.devolver(faixa);
+        }
+    }
+
+    @Override
+    public void close() {
+        release();
+    }
+}
@@ -0,0 +1,289 @@
+package org.example.checkout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Totais em centavos (subtotal, desconto, imposto, frete, total) por região, tier e cupom,
+ * consultáveis na última hora, nos últimos 5 minutos ou no último minuto. Ligado ao
+ * {@link CheckoutService} como {@link CheckoutListener}: conta cada pedido precificado pelo
+ * serviço, não as cotações de {@link Cart} nem as respostas já guardadas por
+ * {@link CachingCheckoutService} e {@link IdempotentCheckoutService}.
+ *
+ * O tempo é dividido em fatias de 5 s num anel que cobre uma hora; cada fatia guarda uma
+ * célula de {@link LongAdder}s por combinação, então gravar é achar a célula (sem alocar,
+ * depois da primeira vez) e somar, sem trava e sem disputa entre threads. Uma consulta
+ * soma as fatias da janela: as janelas andam de 5 em 5 s e a fatia atual entra parcial,
+ * ou seja, "último minuto" cobre entre 55 e 60 s.
+ *
+ * Região vem do cliente: a partir de {@link #MAX_REGIOES} regiões distintas numa fatia,
+ * as novas são somadas em {@link #OUTRAS}.
+ */
+public final class RevenueAggregator implements CheckoutListener {
+
+    public static final Duration JANELA_MAXIMA = Duration.ofHours(1);
+    public static final String OUTRAS = "OUTRAS";
+    static final int MAX_REGIOES = 1_000;
+    static final long FATIA_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final int FATIAS = (int) (JANELA_MAXIMA.toNanos() / FATIA_NANOS);
+    private static final CustomerTier[] TIERS = CustomerTier.values();
+    // ConcurrentHashMap não aceita null: sem região / sem cupom
+    private static final String NENHUM = "";
+
+    private final LongSupplier relogio;
+    private final long origem;
+    private final AtomicReferenceArray<Fatia> anel = new AtomicReferenceArray<>(FATIAS);
+
+    public RevenueAggregator() {
+        this(System::nanoTime);
+    }
+
+    RevenueAggregator(LongSupplier relogio) {
+        this.relogio = Objects.requireNonNull(relogio, "relogio");
+        this.origem = relogio.getAsLong();
+    }
+
+    @Override
+    public void onCheckout(CustomerTier tier, String region, String couponCode, CheckoutResult r) {
+        fatia(numero(relogio.getAsLong())).celula(region, tier, couponCode).somar(r);
+    }
+
+    private long numero(long agora) {
+        return Math.floorDiv(agora - origem, FATIA_NANOS);
+    }
+
+    private Fatia fatia(long numero) {
+        int i = Math.floorMod(numero, FATIAS);
+        while (true) {
+            Fatia f = anel.get(i);
+            // f mais nova que numero: esta thread leu o relógio há mais de uma hora; soma na atual
+            if (f != null && f.numero >= numero) return f;
+            Fatia nova = new Fatia(numero);
+            if (anel.compareAndSet(i, f, nova)) return nova;
+        }
+    }
+
+    public Snapshot lastMinute() {
+        return snapshot(Duration.ofMinutes(1));
+    }
+
+    public Snapshot last5Minutes() {
+        return snapshot(Duration.ofMinutes(5));
+    }
+
+    public Snapshot lastHour() {
+        return snapshot(JANELA_MAXIMA);
+    }
+
+    /**
+     * Totais das fatias que cabem em {@code janela}, arredondada para cima em fatias de 5 s.
+     * Gravações em andamento podem entrar em parte.
+     *
+     * @throws IllegalArgumentException se a janela não estiver em (0, {@link #JANELA_MAXIMA}]
+     */
+    public Snapshot snapshot(Duration janela) {
+        if (janela.isNegative() || janela.isZero() || janela.compareTo(JANELA_MAXIMA) > 0) {
+            throw new IllegalArgumentException("janela fora de (0, 1h]: " + janela);
+        }
+        long fatias = (janela.toNanos() + FATIA_NANOS - 1) / FATIA_NANOS;
+        long atual = numero(relogio.getAsLong());
+
+        // (região, tier, cupom) -> somas na ordem de Totals
+        Map<List<Object>, long[]> somas = new HashMap<>();
+        for (int i = 0; i < FATIAS; i++) {
+            Fatia f = anel.get(i);
+            if (f == null || f.numero > atual || f.numero <= atual - fatias) continue;
+            for (Map.Entry<String, PorRegiao> r : f.regioes.entrySet()) {
+                for (int t = 0; t < TIERS.length; t++) {
+                    for (Map.Entry<String, Celula> c : r.getValue().porTier.get(t).entrySet()) {
+                        List<Object> chave = Arrays.asList(nulo(r.getKey()), TIERS[t], nulo(c.getKey()));
+                        c.getValue().acumular(somas.computeIfAbsent(chave, k -> new long[Totals.CAMPOS]));
+                    }
+                }
+            }
+        }
+        List<Row> linhas = new ArrayList<>(somas.size());
+        for (Map.Entry<List<Object>, long[]> e : somas.entrySet()) {
+            List<Object> k = e.getKey();
+            linhas.add(new Row((String) k.get(0), (CustomerTier) k.get(1), (String) k.get(2), new Totals(e.getValue())));
+        }
+        return new Snapshot(Duration.ofNanos(fatias * FATIA_NANOS), linhas);
+    }
+
+    private static String nulo(String chave) {
+        return chave.equals(NENHUM) ? null : chave;
+    }
+
+    private static String normalizar(String codigo) {
+        return codigo == null || codigo.isBlank() ? NENHUM : codigo.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /** Contadores de uma janela de 5 s. */
+    private static final class Fatia {
+        final long numero;
+        final ConcurrentHashMap<String, PorRegiao> regioes = new ConcurrentHashMap<>();
+
+        Fatia(long numero) {
+            this.numero = numero;
+        }
+
+        Celula celula(String region, CustomerTier tier, String couponCode) {
+            // busca direta primeiro: no caso comum a região já vem normalizada
+            PorRegiao p = region == null ? null : regioes.get(region);
+            if (p == null) {
+                String chave = normalizar(region);
+                p = regioes.get(chave);
+                if (p == null) {
+                    if (regioes.size() >= MAX_REGIOES) chave = OUTRAS;
+                    p = regioes.computeIfAbsent(chave, k -> new PorRegiao());
+                }
+            }
+            ConcurrentHashMap<String, Celula> cupons = p.porTier.get(tier.ordinal());
+            Celula c = couponCode == null ? null : cupons.get(couponCode);
+            if (c == null) c = cupons.computeIfAbsent(normalizar(couponCode), k -> new Celula());
+            return c;
+        }
+    }
+
+    /** Células por tier (ordinal) e, dentro dele, por cupom. */
+    private static final class PorRegiao {
+        final List<ConcurrentHashMap<String, Celula>> porTier = new ArrayList<>(TIERS.length);
+
+        PorRegiao() {
+            for (int i = 0; i < TIERS.length; i++) porTier.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    private static final class Celula {
+        final LongAdder pedidos = new LongAdder();
+        final LongAdder subtotal = new LongAdder();
+        final LongAdder desconto = new LongAdder();
+        final LongAdder imposto = new LongAdder();
+        final LongAdder frete = new LongAdder();
+        final LongAdder total = new LongAdder();
+
+        void somar(CheckoutResult r) {
+            pedidos.increment();
+            subtotal.add(r.subtotalCents);
+            desconto.add(r.discountCents);
+            imposto.add(r.taxCents);
+            frete.add(r.shippingCents);
+            total.add(r.totalCents);
+        }
+
+        void acumular(long[] s) {
+            s[0] += pedidos.sum();
+            s[1] += subtotal.sum();
+            s[2] += desconto.sum();
+            s[3] += imposto.sum();
+            s[4] += frete.sum();
+            s[5] += total.sum();
+        }
+    }
+
+    /** Somas em centavos de um grupo de pedidos. */
+    public static final class Totals {
+        static final int CAMPOS = 6;
+        static final Totals ZERO = new Totals(new long[CAMPOS]);
+
+        public final long checkouts;
+        public final long subtotalCents;
+        public final long discountCents;
+        public final long taxCents;
+        public final long shippingCents;
+        /** Receita: subtotal - desconto + imposto + frete. */
+        public final long totalCents;
+
+        Totals(long[] s) {
+            this.checkouts = s[0];
+            this.subtotalCents = s[1];
+            this.discountCents = s[2];
+            this.taxCents = s[3];
+            this.shippingCents = s[4];
+            this.totalCents = s[5];
+        }
+
+        private Totals mais(Totals o) {
+            return new Totals(new long[] {checkouts + o.checkouts, subtotalCents + o.subtotalCents,
+                    discountCents + o.discountCents, taxCents + o.taxCents, shippingCents + o.shippingCents,
+                    totalCents + o.totalCents});
+        }
+
+        @Override
+        public String toString() {
+            return "Totals{checkouts=" + checkouts + ", subtotalCents=" + subtotalCents
+                    + ", discountCents=" + discountCents + ", taxCents=" + taxCents
+                    + ", shippingCents=" + shippingCents + ", totalCents=" + totalCents + '}';
+        }
+    }
+
+    /** Totais de uma combinação; região e cupom null = pedidos sem região / sem cupom. */
+    public static final class Row {
+        public final String region;
+        public final CustomerTier tier;
+        public final String couponCode;
+        public final Totals totals;
+
+        Row(String region, CustomerTier tier, String couponCode, Totals totals) {
+            this.region = region;
+            this.tier = tier;
+            this.couponCode = couponCode;
+            this.totals = totals;
+        }
+    }
+
+    public static final class Snapshot {
+        /** Janela efetivamente somada (a pedida, arredondada em fatias). */
+        public final Duration window;
+        private final List<Row> linhas;
+
+        Snapshot(Duration window, List<Row> linhas) {
+            this.window = window;
+            this.linhas = Collections.unmodifiableList(linhas);
+        }
+
+        /** Uma linha por combinação de região, tier e cupom com pedidos na janela. */
+        public List<Row> rows() {
+            return linhas;
+        }
+
+        public Totals total() {
+            Totals t = Totals.ZERO;
+            for (Row r : linhas) t = t.mais(r.totals);
+            return t;
+        }
+
+        /** Chave null = sem região. */
+        public Map<String, Totals> byRegion() {
+            return agrupar(new HashMap<>(), r -> r.region);
+        }
+
+        public Map<CustomerTier, Totals> byTier() {
+            return agrupar(new EnumMap<>(CustomerTier.class), r -> r.tier);
+        }
+
+        /** Chave null = sem cupom. */
+        public Map<String, Totals> byCoupon() {
+            return agrupar(new HashMap<>(), r -> r.couponCode);
+        }
+
+        private <K> Map<K, Totals> agrupar(Map<K, Totals> m, Function<Row, K> chave) {
+            for (Row r : linhas) m.merge(chave.apply(r), r.totals, Totals::mais);
+            return Collections.unmodifiableMap(m);
+        }
+    }
+}
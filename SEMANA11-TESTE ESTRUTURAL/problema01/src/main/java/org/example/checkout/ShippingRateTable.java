@@ -0,0 +1,166 @@
+package org.example.checkout;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Matriz região × faixa de peso de tarifas de frete, lida de CSV.
+ * Regiões viram índices inteiros densos; a faixa é achada por busca binária.
+ * Formato do arquivo: ver {@code fretes.csv}.
+ */
+public final class ShippingRateTable {
+
+    private static final String QUALQUER = "*";
+    private static final String RECURSO_PADRAO = "/fretes.csv";
+
+    private final Map<String, Integer> regioes;
+    private final int regiaoPadrao;
+    private final double[] limites;   // limite superior inclusivo de cada faixa; o último é +inf
+    private final double[] tarifas;   // [regiao * limites.length + faixa]
+
+    private ShippingRateTable(Map<String, Integer> regioes, int regiaoPadrao, double[] limites, double[] tarifas) {
+        this.regioes = Collections.unmodifiableMap(regioes);
+        this.regiaoPadrao = regiaoPadrao;
+        this.limites = limites;
+        this.tarifas = tarifas;
+    }
+
+    /** Tabela padrão, lida de {@code fretes.csv} no classpath. */
+    public static ShippingRateTable padrao() {
+        return Padrao.INSTANCIA;
+    }
+
+    public static ShippingRateTable load(Path arquivo) {
+        try (Reader r = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            return load(r);
+        } catch (IOException e) {
+            throw new UncheckedIOException("falha ao ler " + arquivo, e);
+        }
+    }
+
+    public static ShippingRateTable load(Reader reader) {
+        List<String[]> linhas = new ArrayList<>();
+        try {
+            BufferedReader br = new BufferedReader(reader);
+            String linha;
+            while ((linha = br.readLine()) != null) {
+                linha = linha.trim();
+                if (linha.isEmpty() || linha.startsWith("#")) continue;
+                linhas.add(linha.split("\\s*,\\s*"));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (linhas.size() < 2) throw new IllegalArgumentException("tabela de frete vazia");
+
+        String[] cabecalho = linhas.get(0);
+        int faixas = cabecalho.length - 1;
+        if (faixas < 1) throw new IllegalArgumentException("nenhuma faixa de peso no cabeçalho");
+        double[] limites = new double[faixas];
+        for (int f = 0; f < faixas; f++) {
+            String v = cabecalho[f + 1];
+            limites[f] = QUALQUER.equals(v) ? Double.POSITIVE_INFINITY : parse(v, "limite");
+            if (f > 0 && !(limites[f] > limites[f - 1])) {
+                throw new IllegalArgumentException("limites de peso fora de ordem: " + v);
+            }
+        }
+        if (limites[faixas - 1] != Double.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException("a última faixa de peso deve ser *");
+        }
+
+        Map<String, Integer> regioes = new HashMap<>();
+        double[] tarifas = new double[(linhas.size() - 1) * faixas];
+        int regiaoPadrao = -1;
+        for (int r = 0; r < linhas.size() - 1; r++) {
+            String[] campos = linhas.get(r + 1);
+            if (campos.length != faixas + 1) {
+                throw new IllegalArgumentException("linha com " + (campos.length - 1) + " tarifas, esperado " + faixas + ": " + campos[0]);
+            }
+            String nome = normalize(campos[0]);
+            if (QUALQUER.equals(nome)) {
+                if (regiaoPadrao >= 0) throw new IllegalArgumentException("região * duplicada");
+                regiaoPadrao = r;
+            } else if (regioes.put(nome, r) != null) {
+                throw new IllegalArgumentException("região duplicada: " + nome);
+            }
+            for (int f = 0; f < faixas; f++) {
+                double tarifa = parse(campos[f + 1], "tarifa");
+                if (tarifa < 0) throw new IllegalArgumentException("tarifa < 0: " + nome);
+                tarifas[r * faixas + f] = tarifa;
+            }
+        }
+        if (regiaoPadrao < 0) throw new IllegalArgumentException("região * ausente");
+        return new ShippingRateTable(regioes, regiaoPadrao, limites, tarifas);
+    }
+
+    /** Índice da região; null, vazia ou desconhecida dão a região padrão (*). */
+    public int regionIndex(String region) {
+        if (region == null) return regiaoPadrao;
+        Integer i = regioes.get(region);
+        if (i == null) i = regioes.get(normalize(region));
+        return i == null ? regiaoPadrao : i;
+    }
+
+    /** Primeira faixa cujo limite é >= peso. */
+    int bandIndex(double weight) {
+        int lo = 0;
+        int hi = limites.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (weight <= limites[mid]) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    double rate(int regionIndex, double weight) {
+        return tarifas[regionIndex * limites.length + bandIndex(weight)];
+    }
+
+    public Set<String> regions() {
+        return regioes.keySet();
+    }
+
+    private static String normalize(String region) {
+        return region.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static double parse(String v, String campo) {
+        try {
+            return Double.parseDouble(v);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(campo + " inválido: " + v, e);
+        }
+    }
+
+    // carregada só no primeiro uso
+    private static final class Padrao {
+        static final ShippingRateTable INSTANCIA = carregar();
+
+        private static ShippingRateTable carregar() {
+            try (InputStream in = ShippingRateTable.class.getResourceAsStream(RECURSO_PADRAO)) {
+                if (in == null) throw new IllegalStateException("recurso ausente: " + RECURSO_PADRAO);
+                return load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -1,32 +1,52 @@
 package org.example.checkout;
 
+import java.util.Objects;
+
 public class ShippingService {
 
+    private final ShippingRateTable table;
+
+    public ShippingService() {
+        this(ShippingRateTable.padrao());
+    }
+
+    public ShippingService(ShippingRateTable table) {
+        this.table = Objects.requireNonNull(table, "table");
+    }
+
     /**
      * Frete:
-     * - grátis se freeShipping == true OU subtotal >= 300
-     * - senão por região/peso:
+     * - grátis se freeShipping == true OU subtotal >= 300 ({@link PricingConfig#freeShippingThreshold()} padrão)
+     * - senão por região/peso (tabela padrão):
      *   SUL/SUDESTE: 20/35/50
      *   NORTE:       30/55/80
      *   outras:      fixo 40
      */
     public double calculate(String region, double weight, double subtotal, boolean freeShipping) {
+        return calculate(table.regionIndex(region), weight, subtotal, freeShipping);
+    }
+
+    /** Igual a {@link #calculate(String, double, double, boolean)}, com a região já resolvida por {@link #regionIndex}. */
+    public double calculate(int regionIndex, double weight, double subtotal, boolean freeShipping) {
+        return calculate(regionIndex, weight, subtotal, freeShipping, PricingConfig.padrao().freeShippingThreshold());
+    }
+
+    /** Com o subtotal a partir do qual o frete é grátis vindo da configuração vigente. */
+    public double calculate(String region, double weight, double subtotal, boolean freeShipping,
+                            double freeShippingThreshold) {
+        return calculate(table.regionIndex(region), weight, subtotal, freeShipping, freeShippingThreshold);
+    }
+
+    public double calculate(int regionIndex, double weight, double subtotal, boolean freeShipping,
+                            double freeShippingThreshold) {
         if (weight < 0) throw new IllegalArgumentException("weight < 0");
 
-        if (freeShipping || subtotal >= 300.0) return 0.0;
-
-        String r = region == null ? "" : region.trim().toUpperCase();
-
-        if ("SUL".equals(r) || "SUDESTE".equals(r)) {
-            if (weight <= 2.0) return 20.0;
-            if (weight <= 5.0) return 35.0;
-            return 50.0;
-        } else if ("NORTE".equals(r)) {
-            if (weight <= 2.0) return 30.0;
-            if (weight <= 5.0) return 55.0;
-            return 80.0;
-        } else {
-            return 40.0;
-        }
+        if (freeShipping || subtotal >= freeShippingThreshold) return 0.0;
+
+        return table.rate(regionIndex, weight);
+    }
+
+    public int regionIndex(String region) {
+        return table.regionIndex(region);
     }
 }
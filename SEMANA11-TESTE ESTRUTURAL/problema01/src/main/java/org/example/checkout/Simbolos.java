@@ -0,0 +1,73 @@
+package org.example.checkout;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tabela de símbolos por bytes: categorias, regiões e cupons se repetem muito,
+ * então cada valor distinto vira String uma única vez. Usada pelo
+ * {@link CheckoutCodec.Decoder} e pelo leitor de arquivos em massa.
+ *
+ * Endereçamento aberto com metade da capacidade em uso no máximo; cheia, só
+ * converte, sem guardar. Não é thread-safe.
+ */
+public final class Simbolos {
+
+    private final int mascara;
+    private final int limite;
+    private final byte[][] chaves;
+    private final String[] valores;
+    private int tamanho;
+
+    /** @param capacidade potência de 2; guarda até metade disso em símbolos */
+    public Simbolos(int capacidade) {
+        if (capacidade < 2 || Integer.bitCount(capacidade) != 1) {
+            throw new IllegalArgumentException("capacidade deve ser potência de 2: " + capacidade);
+        }
+        this.mascara = capacidade - 1;
+        this.limite = capacidade / 2;
+        this.chaves = new byte[capacidade][];
+        this.valores = new String[capacidade];
+    }
+
+    /** String UTF-8 dos bytes [ini, fim) de buf (posições absolutas; a posição de buf não muda). */
+    public String get(ByteBuffer buf, int ini, int fim) {
+        int h = 1;
+        for (int i = ini; i < fim; i++) h = 31 * h + buf.get(i);
+        for (int slot = mix(h) & mascara; ; slot = (slot + 1) & mascara) {
+            byte[] k = chaves[slot];
+            if (k == null) {
+                byte[] copia = copiar(buf, ini, fim);
+                String s = new String(copia, StandardCharsets.UTF_8);
+                // tabela cheia: não guarda mais, só converte
+                if (tamanho < limite) {
+                    chaves[slot] = copia;
+                    valores[slot] = s;
+                    tamanho++;
+                }
+                return s;
+            }
+            if (iguais(k, buf, ini, fim)) return valores[slot];
+        }
+    }
+
+    private static boolean iguais(byte[] k, ByteBuffer buf, int ini, int fim) {
+        if (k.length != fim - ini) return false;
+        for (int i = 0; i < k.length; i++) {
+            if (k[i] != buf.get(ini + i)) return false;
+        }
+        return true;
+    }
+
+    /** Cópia dos bytes [ini, fim) de buf. */
+    public static byte[] copiar(ByteBuffer buf, int ini, int fim) {
+        byte[] b = new byte[fim - ini];
+        buf.get(ini, b);
+        return b;
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
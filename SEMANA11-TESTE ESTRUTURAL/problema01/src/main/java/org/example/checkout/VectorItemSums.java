@@ -0,0 +1,47 @@
+package org.example.checkout;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/** Caminho SIMD de {@link ItemSums}; só é carregada se o módulo da Vector API existir. */
+final class VectorItemSums {
+    private VectorItemSums() {}
+
+    private static final VectorSpecies<Double> D = DoubleVector.SPECIES_PREFERRED;
+    // mesmo número de lanes que D, com ints (metade dos bits)
+    private static final VectorSpecies<Integer> I =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(Math.max(64, D.vectorBitSize() / 2)));
+
+    static boolean funciona() {
+        return D.length() > 1 && I.length() >= D.length();
+    }
+
+    static void somar(double[] precos, int[] quantidades, boolean[] tributaveis, int n, double[] out) {
+        DoubleVector subtotal = DoubleVector.zero(D);
+        DoubleVector tributavel = DoubleVector.zero(D);
+        int limite = D.loopBound(n);
+        int i = 0;
+        for (; i < limite; i += D.length()) {
+            DoubleVector p = DoubleVector.fromArray(D, precos, i);
+            DoubleVector q = (DoubleVector) IntVector.fromArray(I, quantidades, i).castShape(D, 0);
+            DoubleVector s = p.mul(q);
+            subtotal = subtotal.add(s);
+            // zera as linhas isentas e soma
+            VectorMask<Double> isentos = VectorMask.fromArray(D, tributaveis, i).not();
+            tributavel = tributavel.add(s.blend(0.0, isentos));
+        }
+        double st = subtotal.reduceLanes(VectorOperators.ADD);
+        double tr = tributavel.reduceLanes(VectorOperators.ADD);
+        for (; i < n; i++) {
+            double s = precos[i] * quantidades[i];
+            st += s;
+            if (tributaveis[i]) tr += s;
+        }
+        out[0] = st;
+        out[1] = tr;
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.checkout.metrics;
+
+/**
+ * Destino das medições de latência do checkout. Implementações devem ser
+ * thread-safe e não bloquear.
+ */
+public interface CheckoutMetrics {
+
+    /** Não mede nada; com ele o checkout nem chama System.nanoTime(). */
+    CheckoutMetrics NOOP = new CheckoutMetrics() {
+        @Override
+        public boolean enabled() {
+            return false;
+        }
+
+        @Override
+        public void record(CheckoutStage stage, long nanos) {
+        }
+    };
+
+    /** Se false, {@link #record} não é chamado. */
+    boolean enabled();
+
+    void record(CheckoutStage stage, long nanos);
+}
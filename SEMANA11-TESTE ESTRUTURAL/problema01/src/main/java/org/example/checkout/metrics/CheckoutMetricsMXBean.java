@@ -0,0 +1,11 @@
+package org.example.checkout.metrics;
+
+/** Visão JMX de {@link HistogramCheckoutMetrics}. */
+public interface CheckoutMetricsMXBean {
+    StageStats getItens();
+    StageStats getCupom();
+    StageStats getImposto();
+    StageStats getFrete();
+    StageStats getTotal();
+    void reset();
+}
@@ -0,0 +1,15 @@
+package org.example.checkout.metrics;
+
+/** Etapas medidas do checkout. */
+public enum CheckoutStage {
+    /** Soma dos itens (subtotal e subtotal tributável). */
+    ITENS,
+    /** Avaliação do cupom e cálculo do desconto. */
+    CUPOM,
+    /** Imposto sobre a parte tributável. */
+    IMPOSTO,
+    /** Frete. */
+    FRETE,
+    /** Checkout inteiro. */
+    TOTAL
+}
@@ -0,0 +1,38 @@
+package org.example.checkout.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/** Um {@link LatencyHistogram} por etapa do checkout. */
+public final class HistogramCheckoutMetrics implements CheckoutMetrics {
+
+    private final LatencyHistogram[] histogramas = new LatencyHistogram[CheckoutStage.values().length];
+
+    public HistogramCheckoutMetrics() {
+        for (int i = 0; i < histogramas.length; i++) histogramas[i] = new LatencyHistogram();
+    }
+
+    @Override
+    public boolean enabled() {
+        return true;
+    }
+
+    @Override
+    public void record(CheckoutStage stage, long nanos) {
+        histogramas[stage.ordinal()].record(nanos);
+    }
+
+    public LatencyHistogram.Snapshot snapshot(CheckoutStage stage) {
+        return histogramas[stage.ordinal()].snapshot();
+    }
+
+    public Map<CheckoutStage, LatencyHistogram.Snapshot> snapshot() {
+        Map<CheckoutStage, LatencyHistogram.Snapshot> m = new EnumMap<>(CheckoutStage.class);
+        for (CheckoutStage s : CheckoutStage.values()) m.put(s, snapshot(s));
+        return m;
+    }
+
+    public void reset() {
+        for (LatencyHistogram h : histogramas) h.reset();
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.checkout.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Publica um {@link HistogramCheckoutMetrics} no MBeanServer da plataforma como
+ * {@code org.example.checkout:type=CheckoutMetrics,name=<nome>}.
+ */
+public final class JmxCheckoutMetrics implements CheckoutMetricsMXBean {
+
+    private final HistogramCheckoutMetrics metrics;
+
+    private JmxCheckoutMetrics(HistogramCheckoutMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public static ObjectName register(HistogramCheckoutMetrics metrics, String nome) {
+        Objects.requireNonNull(metrics, "metrics");
+        try {
+            ObjectName on = objectName(nome);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new JmxCheckoutMetrics(metrics), on);
+            return on;
+        } catch (JMException e) {
+            throw new IllegalStateException("falha ao registrar métricas " + nome, e);
+        }
+    }
+
+    public static void unregister(String nome) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName(nome));
+        } catch (JMException e) {
+            throw new IllegalStateException("falha ao remover métricas " + nome, e);
+        }
+    }
+
+    private static ObjectName objectName(String nome) throws JMException {
+        return new ObjectName("org.example.checkout:type=CheckoutMetrics,name=" + ObjectName.quote(nome));
+    }
+
+    @Override public StageStats getItens() { return stats(CheckoutStage.ITENS); }
+    @Override public StageStats getCupom() { return stats(CheckoutStage.CUPOM); }
+    @Override public StageStats getImposto() { return stats(CheckoutStage.IMPOSTO); }
+    @Override public StageStats getFrete() { return stats(CheckoutStage.FRETE); }
+    @Override public StageStats getTotal() { return stats(CheckoutStage.TOTAL); }
+
+    @Override
+    public void reset() {
+        metrics.reset();
+    }
+
+    private StageStats stats(CheckoutStage s) {
+        return StageStats.of(metrics.snapshot(s));
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.checkout.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latência no estilo HDR: faixas em potências de 2, cada uma
+ * dividida em 32 sub-faixas lineares, com erro relativo abaixo de ~3%.
+ * Gravar é lock-free (um incremento atômico por contador).
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;
+    // valores < SUB ficam exatos; cada magnitude acima disso ocupa SUB posições
+    private static final int TAMANHO = (64 - SUB_BITS) * SUB;
+
+    private final AtomicLongArray contagens = new AtomicLongArray(TAMANHO);
+    private final LongAdder soma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        contagens.getAndIncrement(indice(nanos));
+        soma.add(nanos);
+        long m = maximo.get();
+        while (nanos > m && !maximo.compareAndSet(m, nanos)) {
+            m = maximo.get();
+        }
+    }
+
+    /**
+     * Cópia dos contadores. Gravações concorrentes podem entrar em parte, então
+     * a contagem do retrato é a soma das posições, não o total global.
+     */
+    public Snapshot snapshot() {
+        long[] c = new long[TAMANHO];
+        long n = 0;
+        for (int i = 0; i < TAMANHO; i++) {
+            c[i] = contagens.get(i);
+            n += c[i];
+        }
+        return new Snapshot(c, n, soma.sum(), maximo.get());
+    }
+
+    public void reset() {
+        for (int i = 0; i < TAMANHO; i++) contagens.set(i, 0);
+        soma.reset();
+        maximo.set(0);
+    }
+
+    static int indice(long v) {
+        if (v < SUB) return (int) v;
+        int magnitude = 63 - Long.numberOfLeadingZeros(v);
+        int deslocamento = magnitude - SUB_BITS;
+        int sub = (int) (v >>> deslocamento) & (SUB - 1);
+        return (deslocamento + 1) * SUB + sub;
+    }
+
+    /** Maior valor que cai na posição i. */
+    static long limiteSuperior(int i) {
+        if (i < SUB) return i;
+        int deslocamento = i / SUB - 1;
+        long inferior = (long) (SUB + i % SUB) << deslocamento;
+        return inferior + (1L << deslocamento) - 1;
+    }
+
+    public static final class Snapshot {
+        private final long[] contagens;
+        private final long count;
+        private final long soma;
+        private final long max;
+
+        Snapshot(long[] contagens, long count, long soma, long max) {
+            this.contagens = contagens;
+            this.count = count;
+            this.soma = soma;
+            this.max = max;
+        }
+
+        public long getCount() { return count; }
+        public long getMax() { return max; }
+
+        public double getMean() {
+            return count == 0 ? 0.0 : (double) soma / count;
+        }
+
+        /** Percentil (0 a 100), pelo limite superior da faixa em que cai. */
+        public long percentile(double p) {
+            if (count == 0) return 0;
+            long alvo = Math.max(1, (long) Math.ceil(count * p / 100.0));
+            long acumulado = 0;
+            for (int i = 0; i < contagens.length; i++) {
+                acumulado += contagens[i];
+                if (acumulado >= alvo) return Math.min(limiteSuperior(i), max);
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package org.example.journal;
+
+import org.example.checkout.CheckoutCodec;
+import org.example.checkout.CheckoutRequest;
+import org.example.checkout.CheckoutResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32C;
+
+/**
+ * Diário só de acréscimo dos checkouts precificados, em segmentos mapeados em memória
+ * ({@code checkout-00000001.journal}, ...). Cada segmento tem tamanho fixo, é criado
+ * zerado e começa com {@code [magico:i32][numero:i32]}; depois vêm os registros:
+ *
+ * <pre>
+ * [tamanhoPedido:i32][crc32c:i32][resultado: CheckoutCodec][pedido: CheckoutCodec]
+ * </pre>
+ *
+ * O CRC32C cobre resultado e pedido e serve de resumo das entradas. Tamanho 0 marca o
+ * fim do segmento; o tamanho é escrito por último, então um registro cortado no meio
+ * é reconhecido na leitura.
+ *
+ * {@link #append} só copia para o mapeamento, que já sobrevive a uma queda da JVM.
+ * Para sobreviver a uma queda do sistema, uma thread de fundo faz {@code force()} a
+ * cada intervalo, cobrindo todos os registros acumulados de uma vez (group commit);
+ * quem precisa dessa garantia espera com {@link #awaitDurable(long)}.
+ * Ao reabrir um diretório existente, a escrita continua num segmento novo; segmentos
+ * antigos ({@code CKJ1}, resultado sem versão de configuração) continuam legíveis.
+ */
+public final class CheckoutJournal implements AutoCloseable {
+
+    static final int MAGICO = 0x434B4A32;   // "CKJ2": resultado com configVersion
+    static final int MAGICO_V1 = 0x434B4A31;   // "CKJ1": resultado na versão 1 do codec, ainda lido
+    static final int CABECALHO_SEGMENTO = 8;
+    static final int CABECALHO_REGISTRO = 4 + 4 + CheckoutCodec.TAMANHO_RESULTADO;
+    static final String PREFIXO = "checkout-";
+    static final String SUFIXO = ".journal";
+
+    public static final int SEGMENTO_PADRAO = 64 << 20;
+    public static final long INTERVALO_PADRAO_MS = 5;
+
+    private final Path dir;
+    private final int tamanhoSegmento;
+    private final long intervaloNanos;
+    private final CRC32C crc = new CRC32C();
+    private final Object duravel = new Object();
+    private final Thread gravador;
+
+    // protegidos por this
+    private FileChannel canal;
+    private MappedByteBuffer segmento;
+    private int numero;
+    private long escritos;   // bytes de registros desde a abertura; é a posição devolvida por append
+
+    private volatile long duraveis;
+    private volatile boolean fechado;
+
+    public CheckoutJournal(Path dir) throws IOException {
+        this(dir, SEGMENTO_PADRAO, INTERVALO_PADRAO_MS);
+    }
+
+    public CheckoutJournal(Path dir, int tamanhoSegmento, long intervaloMs) throws IOException {
+        if (tamanhoSegmento <= CABECALHO_SEGMENTO + CABECALHO_REGISTRO) {
+            throw new IllegalArgumentException("segmento pequeno demais: " + tamanhoSegmento);
+        }
+        if (intervaloMs <= 0) throw new IllegalArgumentException("intervalo deve ser > 0");
+        this.dir = Objects.requireNonNull(dir, "dir");
+        this.tamanhoSegmento = tamanhoSegmento;
+        this.intervaloNanos = TimeUnit.MILLISECONDS.toNanos(intervaloMs);
+        Files.createDirectories(dir);
+        this.numero = ultimoSegmento(dir);
+        abrirSegmento();
+        this.gravador = Thread.ofPlatform().daemon().name("checkout-journal-force").start(this::gravar);
+    }
+
+    /**
+     * Acrescenta um checkout; devolve a posição lógica logo após o registro,
+     * para {@link #awaitDurable(long)}.
+     */
+    public long append(CheckoutRequest pedido, CheckoutResult resultado) {
+        int tamanhoPedido = CheckoutCodec.encodedSize(pedido);
+        int tamanho = CABECALHO_REGISTRO + tamanhoPedido;
+        // o marcador de fim (i32 zero) também precisa caber
+        if (tamanho + 4 > tamanhoSegmento - CABECALHO_SEGMENTO) {
+            throw new IllegalArgumentException("registro maior que o segmento: " + tamanho);
+        }
+        synchronized (this) {
+            if (fechado) throw new IllegalStateException("diário fechado");
+            if (segmento.remaining() < tamanho + 4) rolar();
+
+            int ini = segmento.position();
+            segmento.position(ini + 8);
+            CheckoutCodec.encode(resultado, segmento);
+            CheckoutCodec.encode(pedido, segmento);
+
+            crc.reset();
+            crc.update(segmento.slice(ini + 8, tamanho - 8));
+            segmento.putInt(ini + 4, (int) crc.getValue());
+            segmento.putInt(ini, tamanhoPedido);
+
+            escritos += tamanho;
+            return escritos;
+        }
+    }
+
+    /** Bloqueia até que tudo até {@code posicao} tenha passado por {@code force()}. */
+    public void awaitDurable(long posicao) throws InterruptedException {
+        if (duraveis >= posicao) return;
+        LockSupport.unpark(gravador);
+        synchronized (duravel) {
+            while (duraveis < posicao) duravel.wait();
+        }
+    }
+
+    /** Posição durável atual. */
+    public long durable() {
+        return duraveis;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (fechado) return;
+            fechado = true;
+        }
+        LockSupport.unpark(gravador);
+        try {
+            gravador.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            segmento.force();
+            publicar(escritos);
+            canal.close();
+        }
+    }
+
+    private void gravar() {
+        while (!fechado) {
+            LockSupport.parkNanos(this, intervaloNanos);
+            MappedByteBuffer alvo;
+            long ate;
+            synchronized (this) {
+                if (fechado) break;
+                alvo = segmento;
+                ate = escritos;
+            }
+            if (ate == duraveis) continue;
+            // fora da trava: escritores seguem acrescentando enquanto o force() roda
+            alvo.force();
+            publicar(ate);
+        }
+    }
+
+    private void publicar(long ate) {
+        synchronized (duravel) {
+            if (ate > duraveis) duraveis = ate;
+            duravel.notifyAll();
+        }
+    }
+
+    // chamado com a trava de this
+    private void rolar() {
+        segmento.force();
+        publicar(escritos);
+        try {
+            canal.close();
+            abrirSegmento();
+        } catch (IOException e) {
+            throw new UncheckedIOException("falha ao abrir novo segmento em " + dir, e);
+        }
+    }
+
+    private void abrirSegmento() throws IOException {
+        numero++;
+        Path arquivo = dir.resolve(nome(numero));
+        canal = FileChannel.open(arquivo, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segmento = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanhoSegmento);
+        segmento.putInt(MAGICO).putInt(numero);
+    }
+
+    static String nome(int numero) {
+        return String.format("%s%08d%s", PREFIXO, numero, SUFIXO);
+    }
+
+    private static int ultimoSegmento(Path dir) throws IOException {
+        int ultimo = 0;
+        for (Path p : JournalReader.segmentos(dir)) {
+            String n = p.getFileName().toString();
+            ultimo = Math.max(ultimo, Integer.parseInt(n.substring(PREFIXO.length(), n.length() - SUFIXO.length())));
+        }
+        return ultimo;
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.journal;
+
+import org.example.checkout.CheckoutCodec;
+import org.example.checkout.CheckoutRequest;
+import org.example.checkout.CheckoutResult;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Lê os segmentos de um {@link CheckoutJournal} em ordem. Um registro com CRC errado
+ * ou tamanho fora do segmento encerra a leitura daquele segmento (escrita cortada)
+ * e conta em {@link #corrompidos()}.
+ */
+public final class JournalReader {
+
+    /** Recebe cada registro na ordem em que foi gravado. */
+    @FunctionalInterface
+    public interface Visitante {
+        void registro(CheckoutRequest pedido, CheckoutResult resultado);
+    }
+
+    private final Path dir;
+    private long registros;
+    private long corrompidos;
+
+    public JournalReader(Path dir) {
+        this.dir = dir;
+    }
+
+    /** Percorre todos os segmentos; devolve a quantidade de registros lidos. */
+    public long forEach(Visitante v) throws IOException {
+        CheckoutCodec.Decoder decoder = new CheckoutCodec.Decoder();
+        CRC32C crc = new CRC32C();
+        for (Path arquivo : segmentos(dir)) {
+            try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+                MappedByteBuffer buf = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+                int magico = buf.remaining() < CheckoutJournal.CABECALHO_SEGMENTO ? 0 : buf.getInt();
+                int tamanhoResultado;
+                if (magico == CheckoutJournal.MAGICO) {
+                    tamanhoResultado = CheckoutCodec.TAMANHO_RESULTADO;
+                } else if (magico == CheckoutJournal.MAGICO_V1) {
+                    tamanhoResultado = CheckoutCodec.resultSize(1);
+                } else {
+                    throw new IOException("não é um segmento do diário: " + arquivo);
+                }
+                buf.getInt();   // número do segmento
+                lerSegmento(buf, tamanhoResultado, decoder, crc, v);
+            }
+        }
+        return registros;
+    }
+
+    private void lerSegmento(MappedByteBuffer buf, int tamanhoResultado, CheckoutCodec.Decoder decoder, CRC32C crc,
+                             Visitante v) {
+        while (buf.remaining() >= 4) {
+            int ini = buf.position();
+            int tamanhoPedido = buf.getInt(ini);
+            if (tamanhoPedido == 0) return;
+            int corpo = tamanhoResultado + tamanhoPedido;
+            if (tamanhoPedido < 0 || corpo > buf.limit() - ini - 8) {
+                corrompidos++;
+                return;
+            }
+            crc.reset();
+            crc.update(buf.slice(ini + 8, corpo));
+            if ((int) crc.getValue() != buf.getInt(ini + 4)) {
+                corrompidos++;
+                return;
+            }
+            buf.position(ini + 8);
+            CheckoutResult resultado = decoder.decodeResult(buf);
+            CheckoutRequest pedido = decoder.decodeRequest(buf);
+            registros++;
+            v.registro(pedido, resultado);
+        }
+    }
+
+    public long registros() {
+        return registros;
+    }
+
+    /** Segmentos cuja leitura parou num registro inválido. */
+    public long corrompidos() {
+        return corrompidos;
+    }
+
+    /** Arquivos de segmento do diretório, em ordem de número. */
+    static List<Path> segmentos(Path dir) throws IOException {
+        List<Path> lista = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return lista;
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir,
+                CheckoutJournal.PREFIXO + "*" + CheckoutJournal.SUFIXO)) {
+            for (Path p : ds) lista.add(p);
+        }
+        lista.sort(null);   // número com zeros à esquerda: ordem do nome = ordem do número
+        return lista;
+    }
+}
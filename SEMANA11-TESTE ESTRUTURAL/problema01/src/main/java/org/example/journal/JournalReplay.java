@@ -0,0 +1,116 @@
+package org.example.journal;
+
+import org.example.checkout.CheckoutRequest;
+import org.example.checkout.CheckoutResult;
+import org.example.checkout.CheckoutService;
+import org.example.checkout.CouponService;
+import org.example.checkout.PricingConfig;
+import org.example.checkout.ShippingService;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reprecifica os carrinhos de um diário com o {@link CheckoutService} atual e compara,
+ * em centavos, com o resultado gravado.
+ *
+ * Só são comparados os registros gravados com a mesma {@link PricingConfig#version()}
+ * do serviço; os demais saíram de outros parâmetros e são contados em
+ * {@link Relatorio#outraVersao}. Para conferir os de uma versão, passe o arquivo dela
+ * em {@code --config}.
+ *
+ * <pre>
+ * java org.example.journal.JournalReplay &lt;diretorio&gt; [--exemplos 20] [--config precos.properties]
+ * </pre>
+ *
+ * Sai com status 1 se houver divergência ou registro corrompido.
+ */
+public final class JournalReplay {
+    private JournalReplay() {}
+
+    public static final class Relatorio {
+        public final long registros;
+        public final long divergencias;
+        public final long corrompidos;
+        /** Registros de outra versão de configuração, não comparados. */
+        public final long outraVersao;
+        /** Primeiras divergências, uma linha cada. */
+        public final List<String> exemplos;
+
+        Relatorio(long registros, long divergencias, long corrompidos, long outraVersao, List<String> exemplos) {
+            this.registros = registros;
+            this.divergencias = divergencias;
+            this.corrompidos = corrompidos;
+            this.outraVersao = outraVersao;
+            this.exemplos = Collections.unmodifiableList(exemplos);
+        }
+    }
+
+    public static Relatorio replay(Path dir, CheckoutService service, int maxExemplos) throws IOException {
+        Objects.requireNonNull(service, "service");
+        JournalReader leitor = new JournalReader(dir);
+        List<String> exemplos = new ArrayList<>();
+        long[] divergencias = new long[1];
+        long[] outraVersao = new long[1];
+        long versao = service.config().version();
+        leitor.forEach((p, gravado) -> {
+            if (gravado.configVersion != versao) {
+                outraVersao[0]++;
+                return;
+            }
+            CheckoutResult atual = service.checkout(p.itens, p.tier, p.primeiraCompra, p.region, p.peso,
+                    p.couponCode, p.today, p.couponExpiryInclusive);
+            if (!iguais(gravado, atual)) {
+                divergencias[0]++;
+                if (exemplos.size() < maxExemplos) exemplos.add(descrever(leitor.registros(), p, gravado, atual));
+            }
+        });
+        return new Relatorio(leitor.registros(), divergencias[0], leitor.corrompidos(), outraVersao[0], exemplos);
+    }
+
+    private static boolean iguais(CheckoutResult a, CheckoutResult b) {
+        return a.subtotalCents == b.subtotalCents
+                && a.discountCents == b.discountCents
+                && a.taxCents == b.taxCents
+                && a.shippingCents == b.shippingCents
+                && a.totalCents == b.totalCents;
+    }
+
+    private static String descrever(long registro, CheckoutRequest p, CheckoutResult gravado, CheckoutResult atual) {
+        return "registro " + registro + " (" + p.itens.size() + " itens, " + p.tier + ", cupom " + p.couponCode
+                + ", " + p.today + "): gravado total=" + gravado.totalCents + " desconto=" + gravado.discountCents
+                + " imposto=" + gravado.taxCents + " frete=" + gravado.shippingCents
+                + " | atual total=" + atual.totalCents + " desconto=" + atual.discountCents
+                + " imposto=" + atual.taxCents + " frete=" + atual.shippingCents;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("uso: JournalReplay <diretorio> [--exemplos N] [--config arquivo]");
+            System.exit(2);
+        }
+        int maxExemplos = 20;
+        Path config = null;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--exemplos")) {
+                maxExemplos = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--config")) {
+                config = Path.of(args[++i]);
+            } else {
+                System.err.println("argumento desconhecido: " + args[i]);
+                System.exit(2);
+            }
+        }
+        CheckoutService service = new CheckoutService(new CouponService(), new ShippingService());
+        if (config != null) service.reload(PricingConfig.load(config));
+        Relatorio r = replay(Path.of(args[0]), service, maxExemplos);
+        for (String linha : r.exemplos) System.out.println(linha);
+        System.out.printf("registros=%d divergencias=%d corrompidos=%d outraVersao=%d (versao %d)%n", r.registros,
+                r.divergencias, r.corrompidos, r.outraVersao, service.config().version());
+        if (r.divergencias > 0 || r.corrompidos > 0) System.exit(1);
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.server;
+
+import org.example.checkout.CheckoutRequest;
+import org.example.checkout.CheckoutResult;
+import org.example.checkout.CustomerTier;
+import org.example.checkout.Item;
+import org.example.checkout.RevenueAggregator;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Conversão entre JSON e os tipos do checkout.
+ *
+ * <pre>
+ * {"itens":[{"categoria":"BOOK","precoUnitario":35.9,"quantidade":2}],
+ *  "tier":"GOLD","primeiraCompra":false,"regiao":"SUL","peso":2.5,
+ *  "cupom":"DESC20","hoje":"2025-01-15","validadeCupom":"2025-01-31"}
+ * </pre>
+ *
+ * Só "itens" e "hoje" são obrigatórios; tier padrão é BASIC e peso padrão é 0.
+ */
+public final class CheckoutJson {
+    private CheckoutJson() {}
+
+    static CheckoutRequest request(String json) {
+        Object raiz = Json.parse(json);
+        if (!(raiz instanceof Map)) throw new IllegalArgumentException("esperado objeto JSON");
+        return request((Map<?, ?>) raiz);
+    }
+
+    /** Pedido a partir do objeto já lido por {@link Json#parse}; chaves desconhecidas são ignoradas. */
+    public static CheckoutRequest request(Map<?, ?> m) {
+        Object listaItens = m.get("itens");
+        if (!(listaItens instanceof List)) throw new IllegalArgumentException("'itens' deve ser uma lista");
+        List<Item> itens = new ArrayList<>();
+        for (Object o : (List<?>) listaItens) {
+            if (!(o instanceof Map)) throw new IllegalArgumentException("item deve ser objeto");
+            Map<?, ?> i = (Map<?, ?>) o;
+            double qtd = numero(i, "quantidade", Double.NaN);
+            if (qtd != Math.rint(qtd)) throw new IllegalArgumentException("'quantidade' deve ser inteira");
+            itens.add(new Item(texto(i, "categoria", true), numero(i, "precoUnitario", Double.NaN), (int) qtd));
+        }
+
+        String tier = texto(m, "tier", false);
+        CustomerTier t;
+        try {
+            t = tier == null ? CustomerTier.BASIC : CustomerTier.valueOf(tier.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("tier inválido: " + tier);
+        }
+
+        Object primeira = m.get("primeiraCompra");
+        if (primeira != null && !(primeira instanceof Boolean)) {
+            throw new IllegalArgumentException("'primeiraCompra' deve ser booleano");
+        }
+
+        LocalDate hoje = data(m, "hoje");
+        if (hoje == null) throw new IllegalArgumentException("'hoje' é obrigatório");
+
+        return new CheckoutRequest(itens, t, Boolean.TRUE.equals(primeira), texto(m, "regiao", false),
+                numero(m, "peso", 0.0), texto(m, "cupom", false), hoje, data(m, "validadeCupom"));
+    }
+
+    static String result(CheckoutResult r) {
+        StringBuilder sb = new StringBuilder(96);
+        sb.append("{\"subtotal\":").append(r.subtotal)
+                .append(",\"discountValue\":").append(r.discountValue)
+                .append(",\"tax\":").append(r.tax)
+                .append(",\"shipping\":").append(r.shipping)
+                .append(",\"total\":").append(r.total)
+                .append(",\"configVersion\":").append(r.configVersion)
+                .append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Totais em centavos de {@link RevenueAggregator.Snapshot}; região e cupom ausentes
+     * aparecem como "nenhuma" e "nenhum".
+     */
+    static String revenue(RevenueAggregator.Snapshot s) {
+        StringBuilder sb = new StringBuilder(512);
+        sb.append("{\"janelaSegundos\":").append(s.window.toSeconds()).append(",\"total\":");
+        totais(sb, s.total());
+        grupo(sb.append(",\"regioes\":"), s.byRegion(), "nenhuma");
+        grupo(sb.append(",\"tiers\":"), s.byTier(), null);
+        grupo(sb.append(",\"cupons\":"), s.byCoupon(), "nenhum");
+        return sb.append('}').toString();
+    }
+
+    private static void grupo(StringBuilder sb, Map<?, RevenueAggregator.Totals> m, String ausente) {
+        sb.append('{');
+        boolean primeiro = true;
+        for (Map.Entry<?, RevenueAggregator.Totals> e : m.entrySet()) {
+            if (!primeiro) sb.append(',');
+            primeiro = false;
+            Json.string(sb, e.getKey() == null ? ausente : e.getKey().toString()).append(':');
+            totais(sb, e.getValue());
+        }
+        sb.append('}');
+    }
+
+    private static void totais(StringBuilder sb, RevenueAggregator.Totals t) {
+        sb.append("{\"pedidos\":").append(t.checkouts)
+                .append(",\"subtotalCentavos\":").append(t.subtotalCents)
+                .append(",\"descontoCentavos\":").append(t.discountCents)
+                .append(",\"impostoCentavos\":").append(t.taxCents)
+                .append(",\"freteCentavos\":").append(t.shippingCents)
+                .append(",\"totalCentavos\":").append(t.totalCents)
+                .append('}');
+    }
+
+    static String erro(String mensagem) {
+        return Json.string(new StringBuilder("{\"erro\":"), mensagem).append('}').toString();
+    }
+
+    private static String texto(Map<?, ?> m, String campo, boolean obrigatorio) {
+        Object v = m.get(campo);
+        if (v == null) {
+            if (obrigatorio) throw new IllegalArgumentException("'" + campo + "' é obrigatório");
+            return null;
+        }
+        if (!(v instanceof String)) throw new IllegalArgumentException("'" + campo + "' deve ser texto");
+        return (String) v;
+    }
+
+    private static double numero(Map<?, ?> m, String campo, double padrao) {
+        Object v = m.get(campo);
+        if (v == null) {
+            if (Double.isNaN(padrao)) throw new IllegalArgumentException("'" + campo + "' é obrigatório");
+            return padrao;
+        }
+        if (!(v instanceof Double)) throw new IllegalArgumentException("'" + campo + "' deve ser número");
+        return (Double) v;
+    }
+
+    private static LocalDate data(Map<?, ?> m, String campo) {
+        String v = texto(m, campo, false);
+        if (v == null || v.isBlank()) return null;
+        try {
+            return LocalDate.parse(v.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("'" + campo + "' deve ser AAAA-MM-DD");
+        }
+    }
+}
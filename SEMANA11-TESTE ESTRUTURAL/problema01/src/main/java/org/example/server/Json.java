@@ -0,0 +1,176 @@
+package org.example.server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitor e escritor JSON mínimo, só o necessário para carrinhos e resultados:
+ * objetos viram {@link Map}, arrays {@link List}, números {@link Double}.
+ * Também lê as linhas NDJSON de {@link org.example.bulk.OrderFileReader}.
+ */
+public final class Json {
+
+    private final String s;
+    private int p;
+
+    private Json(String s) {
+        this.s = s;
+    }
+
+    /** @throws IllegalArgumentException com a posição, se o texto não for JSON válido */
+    public static Object parse(String texto) {
+        Json j = new Json(texto);
+        j.espacos();
+        Object v = j.valor();
+        j.espacos();
+        if (j.p != texto.length()) throw j.erro("conteúdo após o fim do JSON");
+        return v;
+    }
+
+    private Object valor() {
+        if (p >= s.length()) throw erro("fim inesperado");
+        char c = s.charAt(p);
+        switch (c) {
+            case '{': return objeto();
+            case '[': return array();
+            case '"': return string();
+            case 't': literal("true"); return Boolean.TRUE;
+            case 'f': literal("false"); return Boolean.FALSE;
+            case 'n': literal("null"); return null;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) return numero();
+                throw erro("caractere inesperado '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> objeto() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        p++;
+        espacos();
+        if (consumir('}')) return m;
+        do {
+            espacos();
+            if (p >= s.length() || s.charAt(p) != '"') throw erro("esperada chave");
+            String chave = string();
+            espacos();
+            if (!consumir(':')) throw erro("esperado ':'");
+            espacos();
+            m.put(chave, valor());
+            espacos();
+        } while (consumir(','));
+        if (!consumir('}')) throw erro("esperado '}'");
+        return m;
+    }
+
+    private List<Object> array() {
+        List<Object> l = new ArrayList<>();
+        p++;
+        espacos();
+        if (consumir(']')) return l;
+        do {
+            espacos();
+            l.add(valor());
+            espacos();
+        } while (consumir(','));
+        if (!consumir(']')) throw erro("esperado ']'");
+        return l;
+    }
+
+    private String string() {
+        p++;
+        StringBuilder sb = null;
+        int inicio = p;
+        while (p < s.length()) {
+            char c = s.charAt(p);
+            if (c == '"') {
+                String r = sb == null ? s.substring(inicio, p) : sb.append(s, inicio, p).toString();
+                p++;
+                return r;
+            }
+            if (c == '\\') {
+                if (sb == null) sb = new StringBuilder();
+                sb.append(s, inicio, p);
+                if (++p >= s.length()) break;
+                char e = s.charAt(p++);
+                switch (e) {
+                    case '"': case '\\': case '/': sb.append(e); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'u':
+                        if (p + 4 > s.length()) throw erro("escape \\u incompleto");
+                        try {
+                            sb.append((char) Integer.parseInt(s.substring(p, p + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw erro("escape \\u inválido");
+                        }
+                        p += 4;
+                        break;
+                    default: throw erro("escape inválido \\" + e);
+                }
+                inicio = p;
+                continue;
+            }
+            p++;
+        }
+        throw erro("string não terminada");
+    }
+
+    private Double numero() {
+        int inicio = p;
+        if (s.charAt(p) == '-') p++;
+        while (p < s.length() && "0123456789.eE+-".indexOf(s.charAt(p)) >= 0) p++;
+        try {
+            return Double.valueOf(s.substring(inicio, p));
+        } catch (NumberFormatException e) {
+            throw erro("número inválido");
+        }
+    }
+
+    private void literal(String l) {
+        if (!s.startsWith(l, p)) throw erro("esperado " + l);
+        p += l.length();
+    }
+
+    private boolean consumir(char c) {
+        if (p < s.length() && s.charAt(p) == c) {
+            p++;
+            return true;
+        }
+        return false;
+    }
+
+    private void espacos() {
+        while (p < s.length() && Character.isWhitespace(s.charAt(p))) p++;
+    }
+
+    private IllegalArgumentException erro(String msg) {
+        return new IllegalArgumentException("JSON inválido na posição " + p + ": " + msg);
+    }
+
+    static StringBuilder string(StringBuilder sb, String v) {
+        if (v == null) return sb.append("null");
+        sb.append('"');
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"');
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.server;
+
+import org.example.checkout.metrics.LatencyHistogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Teste de carga de {@code POST /checkout}: {@code conexoes} virtual threads
+ * disparam requisições em paralelo até completar {@code requisicoes}, e as
+ * latências vão para um {@link LatencyHistogram}.
+ *
+ * Com 10 mil conexões, confira o limite de arquivos abertos do processo (ulimit -n).
+ */
+public final class LoadTest {
+
+    static final String CARRINHO = "{\"itens\":[{\"categoria\":\"ELETRÔNICOS\",\"precoUnitario\":80.0,\"quantidade\":1},"
+            + "{\"categoria\":\"BOOK\",\"precoUnitario\":20.0,\"quantidade\":2}],"
+            + "\"tier\":\"SILVER\",\"regiao\":\"SUL\",\"peso\":2.5,\"cupom\":\"DESC10\",\"hoje\":\"2025-01-15\"}";
+
+    private final URI uri;
+    private final int conexoes;
+    private final int requisicoes;
+
+    public LoadTest(String baseUrl, int conexoes, int requisicoes) {
+        if (conexoes <= 0 || requisicoes <= 0) throw new IllegalArgumentException("conexoes e requisicoes devem ser > 0");
+        this.uri = URI.create(baseUrl + "/checkout");
+        this.conexoes = conexoes;
+        this.requisicoes = requisicoes;
+    }
+
+    public Resultado run() throws InterruptedException {
+        LatencyHistogram latencias = new LatencyHistogram();
+        LongAdder erros = new LongAdder();
+        AtomicInteger restantes = new AtomicInteger(requisicoes);
+        HttpRequest req = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(CARRINHO))
+                .build();
+
+        long inicio;
+        // fechados na ordem inversa: primeiro espera as tarefas, depois fecha o cliente
+        try (HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(30))
+                     .build();
+             ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            inicio = System.nanoTime();
+            for (int c = 0; c < conexoes; c++) {
+                threads.submit(() -> {
+                    while (restantes.getAndDecrement() > 0) {
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> r = client.send(req, HttpResponse.BodyHandlers.discarding());
+                            if (r.statusCode() != 200) erros.increment();
+                        } catch (Exception e) {
+                            erros.increment();
+                        }
+                        latencias.record(System.nanoTime() - t0);
+                    }
+                    return null;
+                });
+            }
+        }   // close() espera todas as tarefas
+        long duracao = System.nanoTime() - inicio;
+        return new Resultado(latencias.snapshot(), erros.sum(), duracao, conexoes);
+    }
+
+    public static final class Resultado {
+        public final long requisicoes;
+        public final long erros;
+        public final long p50Nanos;
+        public final long p99Nanos;
+        public final long maxNanos;
+        public final double porSegundo;
+        public final int conexoes;
+
+        Resultado(LatencyHistogram.Snapshot s, long erros, long duracaoNanos, int conexoes) {
+            this.requisicoes = s.getCount();
+            this.erros = erros;
+            this.p50Nanos = s.percentile(50);
+            this.p99Nanos = s.percentile(99);
+            this.maxNanos = s.getMax();
+            this.porSegundo = requisicoes / (duracaoNanos / 1e9);
+            this.conexoes = conexoes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d requisições, %d conexões, %d erros, %.0f req/s, p50 %.2f ms, p99 %.2f ms, máx %.2f ms",
+                    requisicoes, conexoes, erros, porSegundo, p50Nanos / 1e6, p99Nanos / 1e6, maxNanos / 1e6);
+        }
+    }
+}
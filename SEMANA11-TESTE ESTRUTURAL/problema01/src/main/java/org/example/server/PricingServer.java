@@ -0,0 +1,285 @@
+package org.example.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.checkout.CheckoutRequest;
+import org.example.checkout.CheckoutResult;
+import org.example.checkout.CheckoutService;
+import org.example.checkout.CouponService;
+import org.example.checkout.IdempotentCheckoutService;
+import org.example.checkout.PricingConfig;
+import org.example.checkout.PricingConfigWatcher;
+import org.example.checkout.RevenueAggregator;
+import org.example.checkout.ShippingService;
+import org.example.checkout.metrics.CheckoutMetrics;
+import org.example.journal.CheckoutJournal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Servidor HTTP de precificação, uma virtual thread por requisição.
+ *
+ * <ul>
+ *   <li>{@code POST /checkout}: um carrinho JSON (ver {@link CheckoutJson}) → um resultado JSON.
+ *       Com o cabeçalho {@code Idempotency-Key}, repetições da mesma chave recebem o mesmo
+ *       resultado sem reprecificar nem gravar de novo; a mesma chave com outro carrinho dá 422.</li>
+ *   <li>{@code POST /checkout/batch}: um carrinho JSON por linha (NDJSON) → um resultado por
+ *       linha, enviado assim que calculado. Linha inválida vira {@code {"erro":...}} na mesma posição.</li>
+ *   <li>{@code GET /receita?janela=5m}: totais em centavos por região, tier e cupom na janela
+ *       ({@code 1m} por padrão, até {@code 1h}; ver {@link RevenueAggregator}).</li>
+ * </ul>
+ *
+ * <pre>
+ * java org.example.server.PricingServer [--porta 8080] [--journal diretorio] [--precos precos.properties]
+ * java org.example.server.PricingServer --carga [--conexoes 10000] [--requisicoes 200000] [--url http://host:porta]
+ * </pre>
+ *
+ * O modo {@code --carga} roda {@link LoadTest}; sem {@code --url}, sobe um servidor local
+ * numa porta livre e mede contra ele. Com {@code --journal}, todo checkout precificado
+ * é gravado num {@link CheckoutJournal}. Com {@code --precos}, os parâmetros de preço vêm
+ * do arquivo e cada alteração salva nele vale para os checkouts seguintes ({@link PricingConfigWatcher}).
+ */
+public final class PricingServer implements AutoCloseable {
+
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final String NDJSON = "application/x-ndjson; charset=utf-8";
+    private static final int BACKLOG = 16_384;
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final int MAX_CHAVES = 100_000;
+    private static final Duration TTL_CHAVES = Duration.ofMinutes(10);
+
+    private final CheckoutService service;
+    private final CheckoutJournal journal;   // null = sem diário
+    private final IdempotentCheckoutService idempotente;
+    private final RevenueAggregator receita;   // null = sem /receita
+    private final HttpServer http;
+    private final ExecutorService executor;
+
+    public PricingServer(CheckoutService service, int porta) throws IOException {
+        this(service, porta, null);
+    }
+
+    /** Grava cada checkout precificado no diário; o servidor não o fecha. */
+    public PricingServer(CheckoutService service, int porta, CheckoutJournal journal) throws IOException {
+        this(service, porta, journal, null);
+    }
+
+    /**
+     * Com {@code GET /receita} servindo os totais de {@code receita}, que deve ser o
+     * {@link org.example.checkout.CheckoutListener} de {@code service}.
+     */
+    public PricingServer(CheckoutService service, int porta, CheckoutJournal journal, RevenueAggregator receita)
+            throws IOException {
+        this.service = Objects.requireNonNull(service, "service");
+        this.journal = journal;
+        this.receita = receita;
+        this.idempotente = new IdempotentCheckoutService(this::precificar, MAX_CHAVES, TTL_CHAVES);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.http = HttpServer.create(new InetSocketAddress(porta), BACKLOG);
+        http.setExecutor(executor);
+        http.createContext("/checkout", this::checkout);
+        http.createContext("/checkout/batch", this::batch);
+        if (receita != null) http.createContext("/receita", this::receita);
+    }
+
+    public PricingServer start() {
+        http.start();
+        return this;
+    }
+
+    public int getPorta() {
+        return http.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        http.stop(0);
+        executor.close();
+    }
+
+    private void checkout(HttpExchange ex) throws IOException {
+        try (ex) {
+            if (!"/checkout".equals(ex.getRequestURI().getPath())) {
+                responder(ex, 404, CheckoutJson.erro("não encontrado"));
+                return;
+            }
+            if (!"POST".equals(ex.getRequestMethod())) {
+                ex.getResponseHeaders().set("Allow", "POST");
+                responder(ex, 405, CheckoutJson.erro("use POST"));
+                return;
+            }
+            String corpo = new String(ex.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String chave = ex.getRequestHeaders().getFirst(IDEMPOTENCY_KEY);
+            CheckoutRequest pedido;
+            try {
+                pedido = CheckoutJson.request(corpo);
+            } catch (IllegalArgumentException | NullPointerException e) {
+                responder(ex, 400, CheckoutJson.erro(e.getMessage()));
+                return;
+            }
+            if (chave != null && chave.isEmpty()) {
+                responder(ex, 400, CheckoutJson.erro(IDEMPOTENCY_KEY + " vazio"));
+                return;
+            }
+            String resposta;
+            try {
+                resposta = CheckoutJson.result(idempotente.checkout(chave, pedido));
+            } catch (IllegalStateException e) {   // chave já usada com outro carrinho
+                responder(ex, 422, CheckoutJson.erro(e.getMessage()));
+                return;
+            } catch (IllegalArgumentException | NullPointerException e) {
+                responder(ex, 400, CheckoutJson.erro(e.getMessage()));
+                return;
+            }
+            responder(ex, 200, resposta);
+        }
+    }
+
+    private void batch(HttpExchange ex) throws IOException {
+        try (ex) {
+            if (!"POST".equals(ex.getRequestMethod())) {
+                ex.getResponseHeaders().set("Allow", "POST");
+                responder(ex, 405, CheckoutJson.erro("use POST"));
+                return;
+            }
+            ex.getResponseHeaders().set("Content-Type", NDJSON);
+            ex.sendResponseHeaders(200, 0);   // chunked: cada linha sai quando fica pronta
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(ex.getRequestBody(), StandardCharsets.UTF_8));
+                 Writer out = new OutputStreamWriter(ex.getResponseBody(), StandardCharsets.UTF_8)) {
+                String linha;
+                while ((linha = in.readLine()) != null) {
+                    if (linha.isBlank()) continue;
+                    String resposta;
+                    try {
+                        resposta = CheckoutJson.result(precificar(CheckoutJson.request(linha)));
+                    } catch (IllegalArgumentException | NullPointerException e) {
+                        resposta = CheckoutJson.erro(e.getMessage());
+                    }
+                    out.write(resposta);
+                    out.write('\n');
+                    out.flush();
+                }
+            }
+        }
+    }
+
+    private void receita(HttpExchange ex) throws IOException {
+        try (ex) {
+            if (!"GET".equals(ex.getRequestMethod())) {
+                ex.getResponseHeaders().set("Allow", "GET");
+                responder(ex, 405, CheckoutJson.erro("use GET"));
+                return;
+            }
+            String janela = "1m";
+            String query = ex.getRequestURI().getQuery();
+            if (query != null) {
+                for (String par : query.split("&")) {
+                    if (par.startsWith("janela=")) janela = par.substring(7);
+                }
+            }
+            RevenueAggregator.Snapshot s;
+            try {
+                s = receita.snapshot(janela(janela));
+            } catch (IllegalArgumentException e) {
+                responder(ex, 400, CheckoutJson.erro(e.getMessage()));
+                return;
+            }
+            responder(ex, 200, CheckoutJson.revenue(s));
+        }
+    }
+
+    // 30s, 5m, 1h
+    private static Duration janela(String v) {
+        try {
+            return Duration.parse("PT" + v.toUpperCase(Locale.ROOT));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("janela inválida (ex.: 30s, 5m, 1h): " + v);
+        }
+    }
+
+    private CheckoutResult precificar(CheckoutRequest r) {
+        CheckoutResult res = service.checkout(r.itens, r.tier, r.primeiraCompra, r.region, r.peso,
+                r.couponCode, r.today, r.couponExpiryInclusive);
+        if (journal != null) journal.append(r, res);
+        return res;
+    }
+
+    private static void responder(HttpExchange ex, int status, String json) throws IOException {
+        byte[] b = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", JSON);
+        ex.sendResponseHeaders(status, b.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(b);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int porta = 8080;
+        boolean carga = false;
+        int conexoes = 10_000;
+        int requisicoes = 200_000;
+        String url = null;
+        String diario = null;
+        String precos = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--porta": porta = Integer.parseInt(args[++i]); break;
+                case "--carga": carga = true; break;
+                case "--conexoes": conexoes = Integer.parseInt(args[++i]); break;
+                case "--requisicoes": requisicoes = Integer.parseInt(args[++i]); break;
+                case "--url": url = args[++i]; break;
+                case "--journal": diario = args[++i]; break;
+                case "--precos": precos = args[++i]; break;
+                default:
+                    System.err.println("argumento desconhecido: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        RevenueAggregator receita = new RevenueAggregator();
+        CheckoutService service = new CheckoutService(new CouponService(), new ShippingService(),
+                CheckoutMetrics.NOOP, null, PricingConfig.padrao(), receita);
+        if (precos != null) {
+            // observa até o fim do processo (thread daemon)
+            new PricingConfigWatcher(Path.of(precos), service);
+            System.err.println("preços: " + service.config());
+        }
+        if (!carga) {
+            CheckoutJournal journal = diario == null ? null : new CheckoutJournal(Path.of(diario));
+            if (journal != null) {
+                // force() final ao encerrar (Ctrl+C / SIGTERM)
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        journal.close();
+                    } catch (IOException e) {
+                        System.err.println("falha ao fechar o diário: " + e.getMessage());
+                    }
+                }));
+            }
+            PricingServer server = new PricingServer(service, porta, journal, receita).start();
+            System.err.println("ouvindo na porta " + server.getPorta());
+            return;
+        }
+        if (url != null) {
+            System.out.println(new LoadTest(url, conexoes, requisicoes).run());
+            return;
+        }
+        try (PricingServer server = new PricingServer(service, 0).start()) {
+            System.out.println(new LoadTest("http://localhost:" + server.getPorta(), conexoes, requisicoes).run());
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package org.example.workload;
+
+import org.example.checkout.CheckoutRequest;
+import org.example.checkout.CheckoutService;
+import org.example.checkout.CouponService;
+import org.example.checkout.ShippingService;
+import org.example.checkout.metrics.LatencyHistogram;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Dispara {@link CheckoutService#checkout} a uma taxa alvo, com {@code threads} threads
+ * percorrendo em ciclo uma lista de carrinhos já gerados (o sorteio fica fora da medida),
+ * e mede vazão alcançada, percentis de latência e bytes alocados por pedido.
+ *
+ * Com taxa alvo, o pedido i tem hora marcada (início + i / taxa) e a latência conta a
+ * partir dela, não de quando a thread conseguiu começar: se o serviço atrasa, a fila que
+ * se forma aparece nos percentis em vez de simplesmente baixar a taxa. Sem taxa (0), cada
+ * thread emenda um pedido no outro e a latência é só a do checkout.
+ *
+ * <pre>
+ * java org.example.workload.ThroughputRunner [--taxa N] [--threads N] [--duracao s]
+ *      [--aquecimento s] [--semente N] [--carrinhos N] [--perfil carga.properties]
+ * </pre>
+ */
+public final class ThroughputRunner {
+
+    // abaixo disso a espera é ativa: parkNanos acorda tarde demais para taxas altas
+    private static final long ESPERA_ATIVA_NANOS = 50_000;
+
+    private final CheckoutService service;
+    private final List<CheckoutRequest> pedidos;
+    private final int threads;
+
+    public ThroughputRunner(CheckoutService service, List<CheckoutRequest> pedidos, int threads) {
+        this.service = Objects.requireNonNull(service, "service");
+        if (pedidos.isEmpty()) throw new IllegalArgumentException("pedidos vazio");
+        if (threads <= 0) throw new IllegalArgumentException("threads <= 0");
+        this.pedidos = List.copyOf(pedidos);
+        this.threads = threads;
+    }
+
+    /**
+     * Roda por {@code duracao} e devolve a medida.
+     *
+     * @param alvoPorSegundo pedidos por segundo somando todas as threads; 0 = sem limite
+     */
+    public Resultado run(double alvoPorSegundo, Duration duracao) throws InterruptedException {
+        if (!(alvoPorSegundo >= 0) || Double.isInfinite(alvoPorSegundo)) {
+            throw new IllegalArgumentException("alvoPorSegundo inválido: " + alvoPorSegundo);
+        }
+        if (duracao.isNegative() || duracao.isZero()) throw new IllegalArgumentException("duracao <= 0");
+
+        LatencyHistogram latencias = new LatencyHistogram();
+        LongAdder erros = new LongAdder();
+        LongAdder alocados = new LongAdder();
+        AtomicBoolean semMedida = new AtomicBoolean();
+        AtomicLong proximo = new AtomicLong();
+        double nanosPorPedido = alvoPorSegundo > 0 ? 1e9 / alvoPorSegundo : 0;
+        int n = pedidos.size();
+
+        // uma folga para as threads estarem de pé antes do primeiro horário
+        long inicio = System.nanoTime() + 10_000_000L;
+        long fim = inicio + duracao.toNanos();
+        List<Thread> ts = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread th = new Thread(() -> {
+                long bytes0 = bytesAlocados();
+                while (true) {
+                    long i = proximo.getAndIncrement();
+                    long t0;
+                    if (nanosPorPedido > 0) {
+                        t0 = inicio + (long) (i * nanosPorPedido);
+                        if (t0 >= fim) break;
+                        esperarAte(t0);
+                    } else {
+                        esperarAte(inicio);
+                        t0 = System.nanoTime();
+                    }
+                    // atrasado além do fim: os pedidos restantes não entram na medida
+                    if (t0 >= fim || System.nanoTime() >= fim) break;
+                    CheckoutRequest p = pedidos.get((int) (i % n));
+                    try {
+                        service.checkout(p.itens, p.tier, p.primeiraCompra, p.region, p.peso, p.couponCode,
+                                p.today, p.couponExpiryInclusive);
+                    } catch (RuntimeException e) {
+                        erros.increment();
+                    }
+                    latencias.record(System.nanoTime() - t0);
+                }
+                if (bytes0 >= 0) alocados.add(bytesAlocados() - bytes0);
+                else semMedida.set(true);
+            }, "carga-" + t);
+            th.start();
+            ts.add(th);
+        }
+        for (Thread th : ts) th.join();
+        long decorrido = Math.max(1, System.nanoTime() - inicio);
+        return new Resultado(latencias.snapshot(), erros.sum(), decorrido, threads, alvoPorSegundo,
+                semMedida.get() ? -1 : alocados.sum());
+    }
+
+    private static void esperarAte(long instante) {
+        long falta;
+        while ((falta = instante - System.nanoTime()) > 0) {
+            if (falta > ESPERA_ATIVA_NANOS) LockSupport.parkNanos(falta - ESPERA_ATIVA_NANOS);
+            else Thread.onSpinWait();
+        }
+    }
+
+    /** Bytes já alocados pela thread atual, ou -1 se a JVM não mede. */
+    private static long bytesAlocados() {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (mx instanceof com.sun.management.ThreadMXBean sun && sun.isThreadAllocatedMemorySupported()
+                && sun.isThreadAllocatedMemoryEnabled()) {
+            return sun.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    public static final class Resultado {
+        public final long pedidos;
+        public final long erros;
+        public final int threads;
+        public final double alvoPorSegundo;
+        public final double porSegundo;
+        public final long p50Nanos;
+        public final long p90Nanos;
+        public final long p99Nanos;
+        public final long p999Nanos;
+        public final long maxNanos;
+        /** -1 se a JVM não mede alocação por thread. */
+        public final double bytesPorPedido;
+        public final double bytesPorSegundo;
+
+        Resultado(LatencyHistogram.Snapshot s, long erros, long duracaoNanos, int threads, double alvoPorSegundo,
+                  long bytes) {
+            this.pedidos = s.getCount();
+            this.erros = erros;
+            this.threads = threads;
+            this.alvoPorSegundo = alvoPorSegundo;
+            this.porSegundo = pedidos / (duracaoNanos / 1e9);
+            this.p50Nanos = s.percentile(50);
+            this.p90Nanos = s.percentile(90);
+            this.p99Nanos = s.percentile(99);
+            this.p999Nanos = s.percentile(99.9);
+            this.maxNanos = s.getMax();
+            this.bytesPorPedido = bytes < 0 ? -1 : pedidos == 0 ? 0 : (double) bytes / pedidos;
+            this.bytesPorSegundo = bytes < 0 ? -1 : bytes / (duracaoNanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            String alvo = alvoPorSegundo > 0 ? String.format("%.0f", alvoPorSegundo) : "sem limite";
+            String alocacao = bytesPorPedido < 0 ? "alocação não medida"
+                    : String.format("%.0f B/pedido, %.1f MB/s alocados", bytesPorPedido, bytesPorSegundo / 1e6);
+            return String.format("%d pedidos, %d threads, %d erros, %.0f pedidos/s (alvo %s), "
+                            + "p50 %.1f µs, p90 %.1f µs, p99 %.1f µs, p99.9 %.1f µs, máx %.1f µs, %s",
+                    pedidos, threads, erros, porSegundo, alvo, p50Nanos / 1e3, p90Nanos / 1e3, p99Nanos / 1e3,
+                    p999Nanos / 1e3, maxNanos / 1e3, alocacao);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        double taxa = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long duracao = 10;
+        long aquecimento = 5;
+        long semente = 42;
+        int carrinhos = 10_000;
+        WorkloadProfile perfil = WorkloadProfile.padrao();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--taxa":
+                    taxa = Double.parseDouble(valor(args, ++i));
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(valor(args, ++i));
+                    break;
+                case "--duracao":
+                    duracao = Long.parseLong(valor(args, ++i));
+                    break;
+                case "--aquecimento":
+                    aquecimento = Long.parseLong(valor(args, ++i));
+                    break;
+                case "--semente":
+                    semente = Long.parseLong(valor(args, ++i));
+                    break;
+                case "--carrinhos":
+                    carrinhos = Integer.parseInt(valor(args, ++i));
+                    break;
+                case "--perfil":
+                    perfil = WorkloadProfile.load(Path.of(valor(args, ++i)));
+                    break;
+                default:
+                    uso();
+            }
+        }
+
+        List<CheckoutRequest> pedidos = new WorkloadGenerator(perfil, semente).next(carrinhos);
+        CheckoutService service = new CheckoutService(new CouponService(), new ShippingService());
+        ThroughputRunner runner = new ThroughputRunner(service, pedidos, threads);
+        if (aquecimento > 0) {
+            System.err.println("aquecimento: " + runner.run(taxa, Duration.ofSeconds(aquecimento)));
+        }
+        Resultado r = runner.run(taxa, Duration.ofSeconds(duracao));
+        System.out.println(r);
+        if (r.erros > 0) System.exit(1);
+    }
+
+    private static String valor(String[] args, int i) {
+        if (i >= args.length) uso();
+        return args[i];
+    }
+
+    private static void uso() {
+        System.err.println("uso: ThroughputRunner [--taxa N] [--threads N] [--duracao s] [--aquecimento s]"
+                + " [--semente N] [--carrinhos N] [--perfil carga.properties]");
+        System.exit(2);
+    }
+}
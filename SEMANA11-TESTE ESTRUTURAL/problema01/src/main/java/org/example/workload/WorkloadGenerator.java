@@ -0,0 +1,52 @@
+package org.example.workload;
+
+import org.example.checkout.CheckoutRequest;
+import org.example.checkout.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Sequência de carrinhos sorteados de um {@link WorkloadProfile}. Mesmo perfil e mesma
+ * semente dão sempre a mesma sequência, em qualquer máquina; não é thread-safe (um
+ * gerador por thread, ou gere antes e compartilhe a lista).
+ */
+public final class WorkloadGenerator {
+
+    private final WorkloadProfile perfil;
+    private final SplittableRandom rnd;
+
+    public WorkloadGenerator(WorkloadProfile perfil, long semente) {
+        this.perfil = Objects.requireNonNull(perfil, "perfil");
+        this.rnd = new SplittableRandom(semente);
+    }
+
+    public CheckoutRequest next() {
+        int n = perfil.itens.sortearInteiro(rnd);
+        List<Item> itens = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String categoria = perfil.categorias.sortear(rnd);
+            double preco = Math.round(perfil.precos.sortear(rnd) * 100) / 100.0;
+            itens.add(new Item(categoria, preco, perfil.quantidades.sortearInteiro(rnd)));
+        }
+        return new CheckoutRequest(
+                itens,
+                perfil.tiers.sortear(rnd),
+                rnd.nextDouble() < perfil.primeiraCompra,
+                perfil.regioes.sortear(rnd),
+                Math.round(perfil.pesos.sortear(rnd) * 1000) / 1000.0,
+                perfil.cupons.sortear(rnd),
+                perfil.hoje,
+                null);
+    }
+
+    /** Os próximos {@code n} carrinhos. */
+    public List<CheckoutRequest> next(int n) {
+        if (n < 0) throw new IllegalArgumentException("n < 0");
+        List<CheckoutRequest> r = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) r.add(next());
+        return r;
+    }
+}
@@ -0,0 +1,273 @@
+package org.example.workload;
+
+import org.example.checkout.CustomerTier;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Distribuições de uma carga sintética de checkout, imutáveis: quantos itens por
+ * carrinho, categorias, preços, quantidades, tiers, regiões, pesos e cupons.
+ * Formato do arquivo: ver {@code carga.properties}; chave ausente fica com o valor padrão.
+ */
+public final class WorkloadProfile {
+
+    private static final String RECURSO_PADRAO = "/carga.properties";
+    private static final String SEM_REGIAO = "nenhuma";
+    private static final String SEM_CUPOM = "nenhum";
+    private static final Set<String> CHAVES = Set.of("itens", "quantidades", "precos", "categorias", "tiers",
+            "primeiraCompra", "regioes", "pesos", "cupons", "hoje");
+
+    final Faixas itens;
+    final Faixas quantidades;
+    final Faixas precos;
+    final Escolha<String> categorias;
+    final Escolha<CustomerTier> tiers;
+    final double primeiraCompra;
+    final Escolha<String> regioes;     // null = sem região
+    final Faixas pesos;
+    final Escolha<String> cupons;      // null = sem cupom
+    final LocalDate hoje;
+
+    private WorkloadProfile(Faixas itens, Faixas quantidades, Faixas precos, Escolha<String> categorias,
+                            Escolha<CustomerTier> tiers, double primeiraCompra, Escolha<String> regioes,
+                            Faixas pesos, Escolha<String> cupons, LocalDate hoje) {
+        this.itens = itens;
+        this.quantidades = quantidades;
+        this.precos = precos;
+        this.categorias = categorias;
+        this.tiers = tiers;
+        this.primeiraCompra = primeiraCompra;
+        this.regioes = regioes;
+        this.pesos = pesos;
+        this.cupons = cupons;
+        this.hoje = hoje;
+    }
+
+    /** Perfil padrão, lido de {@code carga.properties} no classpath. */
+    public static WorkloadProfile padrao() {
+        return Padrao.INSTANCIA;
+    }
+
+    public static WorkloadProfile load(Path arquivo) {
+        try (Reader r = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            return load(r);
+        } catch (IOException e) {
+            throw new UncheckedIOException("falha ao ler " + arquivo, e);
+        }
+    }
+
+    public static WorkloadProfile load(Reader reader) {
+        Properties p = new Properties();
+        try {
+            p.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return of(p, Padrao.INSTANCIA);
+    }
+
+    private static WorkloadProfile of(Properties p, WorkloadProfile base) {
+        for (String chave : p.stringPropertyNames()) {
+            if (!CHAVES.contains(chave)) throw new IllegalArgumentException("chave inválida: " + chave);
+        }
+        String v;
+        return new WorkloadProfile(
+                (v = p.getProperty("itens")) != null ? Faixas.parse("itens", v, true, 1) : base.itens,
+                (v = p.getProperty("quantidades")) != null ? Faixas.parse("quantidades", v, true, 1) : base.quantidades,
+                (v = p.getProperty("precos")) != null ? Faixas.parse("precos", v, false, 0) : base.precos,
+                (v = p.getProperty("categorias")) != null ? categorias(v) : base.categorias,
+                (v = p.getProperty("tiers")) != null ? tiers(v) : base.tiers,
+                (v = p.getProperty("primeiraCompra")) != null ? fracao("primeiraCompra", v) : base.primeiraCompra,
+                (v = p.getProperty("regioes")) != null ? opcionais("regioes", v, SEM_REGIAO) : base.regioes,
+                (v = p.getProperty("pesos")) != null ? Faixas.parse("pesos", v, false, 0) : base.pesos,
+                (v = p.getProperty("cupons")) != null ? opcionais("cupons", v, SEM_CUPOM) : base.cupons,
+                (v = p.getProperty("hoje")) != null ? data("hoje", v) : base.hoje);
+    }
+
+    private static Escolha<String> categorias(String v) {
+        Escolha<String> e = Escolha.parse("categorias", v, s -> s.toUpperCase(Locale.ROOT));
+        for (String c : e.valores) {
+            if (c.isEmpty()) throw new IllegalArgumentException("categoria vazia em categorias");
+        }
+        return e;
+    }
+
+    private static Escolha<CustomerTier> tiers(String v) {
+        return Escolha.parse("tiers", v, s -> {
+            try {
+                return CustomerTier.valueOf(s.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("tier inválido em tiers: " + s);
+            }
+        });
+    }
+
+    // o marcador de ausência vira null; os demais códigos vão como escritos, em maiúsculas
+    private static Escolha<String> opcionais(String chave, String v, String ausente) {
+        return Escolha.parse(chave, v, s -> s.equalsIgnoreCase(ausente) ? null : s.toUpperCase(Locale.ROOT));
+    }
+
+    private static double fracao(String chave, String v) {
+        double f = numero(chave, v);
+        if (!(f >= 0 && f <= 1)) throw new IllegalArgumentException("fração fora de [0, 1] em " + chave + ": " + v);
+        return f;
+    }
+
+    private static LocalDate data(String chave, String v) {
+        try {
+            return LocalDate.parse(v.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("data inválida em " + chave + ": " + v, e);
+        }
+    }
+
+    private static double numero(String chave, String v) {
+        try {
+            return Double.parseDouble(v.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("valor inválido em " + chave + ": " + v, e);
+        }
+    }
+
+    // "valor:peso, valor:peso"; devolve pares {valor, peso}
+    private static List<String[]> entradas(String chave, String v) {
+        List<String[]> r = new ArrayList<>();
+        for (String parte : v.split(",")) {
+            int dois = parte.lastIndexOf(':');
+            if (dois < 0) throw new IllegalArgumentException("esperado valor:peso em " + chave + ": " + parte.trim());
+            r.add(new String[] {parte.substring(0, dois).trim(), parte.substring(dois + 1).trim()});
+        }
+        return r;
+    }
+
+    /** Pesos relativos em probabilidades acumuladas, o último exatamente 1. */
+    private static double[] acumulado(String chave, List<String[]> entradas) {
+        double[] a = new double[entradas.size()];
+        double total = 0;
+        for (int i = 0; i < a.length; i++) {
+            double peso = numero(chave, entradas.get(i)[1]);
+            if (!(peso >= 0) || Double.isInfinite(peso)) {
+                throw new IllegalArgumentException("peso inválido em " + chave + ": " + entradas.get(i)[1]);
+            }
+            total += peso;
+            a[i] = total;
+        }
+        if (!(total > 0)) throw new IllegalArgumentException("pesos somam 0 em " + chave);
+        for (int i = 0; i < a.length; i++) a[i] /= total;
+        a[a.length - 1] = 1.0;
+        return a;
+    }
+
+    // primeiro índice com acumulado > u
+    private static int sortear(double[] acumulado, SplittableRandom rnd) {
+        double u = rnd.nextDouble();
+        int lo = 0, hi = acumulado.length - 1;
+        while (lo < hi) {
+            int meio = (lo + hi) >>> 1;
+            if (acumulado[meio] > u) hi = meio;
+            else lo = meio + 1;
+        }
+        return lo;
+    }
+
+    /** Sorteio entre valores discretos. */
+    static final class Escolha<T> {
+        final List<T> valores;
+        private final double[] acumulado;
+
+        private Escolha(List<T> valores, double[] acumulado) {
+            this.valores = valores;
+            this.acumulado = acumulado;
+        }
+
+        static <T> Escolha<T> parse(String chave, String v, Function<String, T> conversor) {
+            List<String[]> e = entradas(chave, v);
+            List<T> valores = new ArrayList<>(e.size());
+            for (String[] par : e) valores.add(conversor.apply(par[0]));
+            return new Escolha<>(valores, acumulado(chave, e));
+        }
+
+        T sortear(SplittableRandom rnd) {
+            return valores.get(WorkloadProfile.sortear(acumulado, rnd));
+        }
+    }
+
+    /** Sorteio de uma faixa pelo peso e de um valor uniforme dentro dela. */
+    static final class Faixas {
+        private final double[] minimos;
+        private final double[] maximos;
+        private final double[] acumulado;
+
+        private Faixas(double[] minimos, double[] maximos, double[] acumulado) {
+            this.minimos = minimos;
+            this.maximos = maximos;
+            this.acumulado = acumulado;
+        }
+
+        static Faixas parse(String chave, String v, boolean inteiros, double piso) {
+            List<String[]> e = entradas(chave, v);
+            double[] min = new double[e.size()];
+            double[] max = new double[e.size()];
+            for (int i = 0; i < min.length; i++) {
+                String faixa = e.get(i)[0];
+                int traco = faixa.indexOf('-', 1);
+                min[i] = numero(chave, traco < 0 ? faixa : faixa.substring(0, traco));
+                max[i] = traco < 0 ? min[i] : numero(chave, faixa.substring(traco + 1));
+                if (!(min[i] >= piso) || !(max[i] >= min[i]) || Double.isInfinite(max[i])) {
+                    throw new IllegalArgumentException("faixa inválida em " + chave + ": " + faixa);
+                }
+                if (inteiros && (min[i] != Math.rint(min[i]) || max[i] != Math.rint(max[i]) || max[i] > Integer.MAX_VALUE)) {
+                    throw new IllegalArgumentException("faixa não inteira em " + chave + ": " + faixa);
+                }
+            }
+            return new Faixas(min, max, acumulado(chave, e));
+        }
+
+        double sortear(SplittableRandom rnd) {
+            int i = WorkloadProfile.sortear(acumulado, rnd);
+            return minimos[i] == maximos[i] ? minimos[i] : minimos[i] + rnd.nextDouble() * (maximos[i] - minimos[i]);
+        }
+
+        int sortearInteiro(SplittableRandom rnd) {
+            int i = WorkloadProfile.sortear(acumulado, rnd);
+            int min = (int) minimos[i];
+            return minimos[i] == maximos[i] ? min : min + rnd.nextInt((int) maximos[i] - min + 1);
+        }
+    }
+
+    // carregado só no primeiro uso
+    private static final class Padrao {
+        static final WorkloadProfile INSTANCIA = carregar();
+
+        private static WorkloadProfile carregar() {
+            try (InputStream in = WorkloadProfile.class.getResourceAsStream(RECURSO_PADRAO)) {
+                if (in == null) throw new IllegalStateException("recurso ausente: " + RECURSO_PADRAO);
+                Properties p = new Properties();
+                p.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+                // o padrão não tem base: todas as chaves são obrigatórias
+                if (!p.stringPropertyNames().containsAll(CHAVES)) {
+                    throw new IllegalStateException("chaves ausentes em " + RECURSO_PADRAO);
+                }
+                return of(p, null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
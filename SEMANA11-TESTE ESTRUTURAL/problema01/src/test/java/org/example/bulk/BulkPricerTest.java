@@ -0,0 +1,137 @@
+package org.example.bulk;
+
+import org.example.checkout.CheckoutService;
+import org.example.checkout.CouponService;
+import org.example.checkout.CustomerTier;
+import org.example.checkout.ShippingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BulkPricer Tests")
+public class BulkPricerTest {
+
+    private static final String ARQUIVO =
+            "pedido;tier;primeiraCompra;regiao;peso;cupom;hoje;validade;itens\n"
+            + "1;BASIC;false;SUL;2;;2025-01-01;;ELETRÔNICOS:100.00:1\n"
+            + "# comentário\n"
+            + "2;gold;true;SUL;2.0;DESC20;2025-01-01;2025-01-31;ELETRÔNICOS:100:1\r\n"
+            + "\n"
+            + "3;BASIC;false;SUL;2;;2025-01-01;;ELETRÔNICOS:80:1|BOOK:20:1\n"
+            + "4;SILVER;false;;3;FRETEGRATIS;2025-01-01;;ROUPAS:25.5:4";
+
+    private static Path arquivo(String conteudo) throws IOException {
+        Path p = Files.createTempFile("pedidos", ".csv");
+        Files.write(p, conteudo.getBytes(StandardCharsets.UTF_8));
+        p.toFile().deleteOnExit();
+        return p;
+    }
+
+    @Test
+    @DisplayName("Should parse orders across small mapping windows")
+    public void testParseWithSmallWindow() throws IOException {
+        try (OrderFileReader in = new OrderFileReader(arquivo(ARQUIVO), 80)) {
+            Pedido p1 = in.next();
+            assertEquals("1", p1.id);
+            assertEquals(CustomerTier.BASIC, p1.request.tier);
+            assertNull(p1.request.couponCode);
+            assertEquals(100.0, p1.request.itens.get(0).getPrecoUnitario(), 0.0);
+
+            Pedido p2 = in.next();
+            assertEquals(CustomerTier.GOLD, p2.request.tier);
+            assertTrue(p2.request.primeiraCompra);
+            assertEquals("DESC20", p2.request.couponCode);
+            assertEquals(LocalDate.of(2025, 1, 31), p2.request.couponExpiryInclusive);
+
+            Pedido p3 = in.next();
+            assertEquals(2, p3.request.itens.size());
+            assertEquals("BOOK", p3.request.itens.get(1).getCategoria());
+
+            Pedido p4 = in.next();
+            assertNull(p4.request.region);
+            assertEquals(25.5, p4.request.itens.get(0).getPrecoUnitario(), 0.0);
+            assertEquals(4, p4.request.itens.get(0).getQuantidade());
+
+            assertNull(in.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Should price orders in file order")
+    public void testPriceInOrder() throws IOException {
+        CheckoutService service = new CheckoutService(new CouponService(), new ShippingService());
+        StringWriter out = new StringWriter();
+        try (OrderFileReader in = new OrderFileReader(arquivo(ARQUIVO))) {
+            assertEquals(4, new BulkPricer(service, 2, 1).run(in, out));
+        }
+        assertEquals(BulkPricer.CABECALHO + "\n"
+                + "1;100.00;0.00;12.00;20.00;132.00\n"
+                + "2;100.00;30.00;8.40;20.00;98.40\n"
+                + "3;100.00;0.00;9.60;20.00;129.60\n"
+                + "4;102.00;5.10;11.63;0.00;108.53\n", out.toString());
+    }
+
+    @Test
+    @DisplayName("Should report line number of malformed order")
+    public void testMalformedLine() throws IOException {
+        CheckoutService service = new CheckoutService(new CouponService(), new ShippingService());
+        Path p = arquivo("1;BASIC;false;SUL;2;;2025-01-01;;A:10:1\n2;BASIC;false;SUL;x;;2025-01-01;;A:10:1\n");
+        try (OrderFileReader in = new OrderFileReader(p)) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> new BulkPricer(service, 1, 1).run(in, new StringWriter()));
+            assertTrue(e.getMessage().startsWith("linha 2"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should read NDJSON orders with the same fields as POST /checkout")
+    public void testNdjson() throws IOException {
+        CheckoutService service = new CheckoutService(new CouponService(), new ShippingService());
+        Path p = arquivo("{\"pedido\": 1, \"tier\": \"BASIC\", \"regiao\": \"SUL\", \"peso\": 2, \"hoje\": \"2025-01-01\","
+                + " \"itens\": [{\"categoria\": \"ELETRÔNICOS\", \"precoUnitario\": 100, \"quantidade\": 1}]}\n"
+                + "# comentário\n"
+                + "{\"pedido\": \"B-2\", \"tier\": \"GOLD\", \"primeiraCompra\": true, \"regiao\": \"SUL\", \"peso\": 2,"
+                + " \"cupom\": \"DESC20\", \"hoje\": \"2025-01-01\", \"validadeCupom\": \"2025-01-31\","
+                + " \"itens\": [{\"categoria\": \"ELETRÔNICOS\", \"precoUnitario\": 100, \"quantidade\": 1}]}\n");
+        StringWriter out = new StringWriter();
+        try (OrderFileReader in = new OrderFileReader(p, 256)) {
+            assertEquals(2, new BulkPricer(service, 2, 1).run(in, out));
+        }
+        assertEquals(BulkPricer.CABECALHO + "\n"
+                + "1;100.00;0.00;12.00;20.00;132.00\n"
+                + "B-2;100.00;30.00;8.40;20.00;98.40\n", out.toString());
+    }
+
+    @Test
+    @DisplayName("Should report invalid lines with number and reason and price the rest")
+    public void testInvalidLinesReported() throws IOException {
+        CheckoutService service = new CheckoutService(new CouponService(), new ShippingService());
+        Path p = arquivo("1;BASIC;false;SUL;2;;2025-01-01;;ELETRÔNICOS:100:1\n"
+                + "2;BASIC;false;SUL;x;;2025-01-01;;A:10:1\n"
+                + "3;BASIC;false;SUL;-1;;2025-01-01;;A:10:1\n"
+                + "4;BASIC;false;SUL;2;;2025-01-01;;ELETRÔNICOS:100:1\n");
+        List<String> recusadas = Collections.synchronizedList(new ArrayList<>());
+        StringWriter out = new StringWriter();
+        try (OrderFileReader in = new OrderFileReader(p, 80, (n, motivo) -> recusadas.add(n + ": " + motivo))) {
+            assertEquals(2, new BulkPricer(service, 2, 1).run(in, out));
+            assertEquals(1, in.getRecusadas());
+        }
+        assertEquals(BulkPricer.CABECALHO + "\n"
+                + "1;100.00;0.00;12.00;20.00;132.00\n"
+                + "4;100.00;0.00;12.00;20.00;132.00\n", out.toString());
+        // linha 2 cai na leitura, linha 3 só ao precificar (peso negativo)
+        Collections.sort(recusadas);
+        assertEquals(2, recusadas.size());
+        assertTrue(recusadas.get(0).startsWith("2: "));
+        assertTrue(recusadas.get(1).startsWith("3: "));
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.checkout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CachingCheckoutService Tests")
+public class CachingCheckoutServiceTest {
+
+    private CheckoutService service;
+    private LocalDate today;
+    private long agora;
+
+    @BeforeEach
+    public void setUp() {
+        service = new CheckoutService(new CouponService(), new ShippingService());
+        today = LocalDate.of(2025, 1, 1);
+        agora = 0L;
+    }
+
+    @Test
+    @DisplayName("Should serve identical re-quote from cache")
+    public void testHitOnSameCart() {
+        CachingCheckoutService cache = new CachingCheckoutService(service, 100, Duration.ofMinutes(1), () -> agora);
+        Item a = new Item("ELETRÔNICOS", 80.0, 1);
+        Item b = new Item("BOOK", 20.0, 2);
+
+        CheckoutResult first = cache.checkout(List.of(a, b), CustomerTier.GOLD, false, "SUL", 2.0, "DESC10", today, null);
+        CheckoutResult second = cache.checkout(List.of(a, new Item("BOOK", 20.0, 2)), CustomerTier.GOLD, false, "SUL", 2.0, "DESC10", today, null);
+
+        assertSame(first, second);
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    @DisplayName("Should price a reordered cart on its own, with lines in its own order")
+    public void testReorderedCartMisses() {
+        CachingCheckoutService cache = new CachingCheckoutService(service, 100, Duration.ofMinutes(1), () -> agora);
+        Item a = new Item("ELETRÔNICOS", 80.0, 1);
+        Item b = new Item("BOOK", 20.0, 2);
+
+        CheckoutResult first = cache.checkout(List.of(a, b), CustomerTier.GOLD, false, "SUL", 2.0, "DESC10", today, null);
+        List<Item> invertidos = List.of(new Item("BOOK", 20.0, 2), new Item("ELETRÔNICOS", 80.0, 1));
+        CheckoutResult second = cache.checkout(invertidos, CustomerTier.GOLD, false, "SUL", 2.0, "DESC10", today, null);
+
+        assertNotSame(first, second);
+        assertEquals(0, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(first.totalCents, second.totalCents);
+        List<LineAllocation> linhas = second.lines();
+        assertSame(invertidos.get(0), linhas.get(0).item);
+        assertSame(invertidos.get(1), linhas.get(1).item);
+        assertSame(a, first.lines().get(0).item);
+    }
+
+    @Test
+    @DisplayName("Should miss when any input differs")
+    public void testMissOnDifferentInputs() {
+        CachingCheckoutService cache = new CachingCheckoutService(service, 100, Duration.ofMinutes(1), () -> agora);
+        List<Item> itens = List.of(new Item("ELETRÔNICOS", 100.0, 1));
+
+        CheckoutResult sul = cache.checkout(itens, CustomerTier.BASIC, false, "SUL", 2.0, null, today, null);
+        CheckoutResult norte = cache.checkout(itens, CustomerTier.BASIC, false, "NORTE", 2.0, null, today, null);
+        cache.checkout(itens, CustomerTier.BASIC, false, "SUL", 2.5, null, today, null);
+        cache.checkout(itens, CustomerTier.BASIC, false, "SUL", 2.0, null, today.plusDays(1), null);
+
+        assertEquals(20.0, sul.shipping, 0.0);
+        assertEquals(30.0, norte.shipping, 0.0);
+        assertEquals(0, cache.hits());
+        assertEquals(4, cache.misses());
+    }
+
+    @Test
+    @DisplayName("Should recompute cached quotes after a pricing config reload")
+    public void testMissAfterConfigReload() {
+        CachingCheckoutService cache = new CachingCheckoutService(service, 100, Duration.ofMinutes(1), () -> agora);
+        List<Item> itens = List.of(new Item("ELETRÔNICOS", 100.0, 1));
+
+        CheckoutResult antes = cache.checkout(itens, CustomerTier.BASIC, false, "SUL", 2.0, null, today, null);
+        PricingConfig nova = service.reload(PricingConfig.load(new StringReader("imposto=0.20\n")));
+        CheckoutResult depois = cache.checkout(itens, CustomerTier.BASIC, false, "SUL", 2.0, null, today, null);
+
+        assertEquals(12.0, antes.tax, 0.0);
+        assertEquals(20.0, depois.tax, 0.0);
+        assertEquals(nova.version(), depois.configVersion);
+        assertEquals(2, cache.misses());
+        assertSame(depois, cache.checkout(itens, CustomerTier.BASIC, false, "SUL", 2.0, null, today, null));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should expire entries after TTL")
+    public void testTtlEviction() {
+        CachingCheckoutService cache = new CachingCheckoutService(service, 100, Duration.ofSeconds(10), () -> agora);
+        List<Item> itens = List.of(new Item("ELETRÔNICOS", 100.0, 1));
+
+        cache.checkout(itens, CustomerTier.BASIC, false, "SUL", 2.0, null, today, null);
+        agora = Duration.ofSeconds(11).toNanos();
+        cache.checkout(itens, CustomerTier.BASIC, false, "SUL", 2.0, null, today, null);
+
+        assertEquals(0, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(1, cache.evictions());
+    }
+
+    @Test
+    @DisplayName("Should stay within size bound")
+    public void testSizeBound() {
+        CachingCheckoutService cache = new CachingCheckoutService(service, 32, Duration.ofMinutes(1), () -> agora);
+        for (int i = 1; i <= 200; i++) {
+            cache.checkout(List.of(new Item("ELETRÔNICOS", i, 1)), CustomerTier.BASIC, false, "SUL", 2.0, null, today, null);
+        }
+        assertTrue(cache.size() <= 32);
+        assertEquals(200 - cache.size(), cache.evictions());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,171 @@
+package org.example.checkout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.time.LocalDate;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Cart Tests")
+public class CartTest {
+
+    private int couponCalls;
+    private int shippingCalls;
+    private CheckoutService service;
+    private LocalDate today;
+
+    @BeforeEach
+    public void setUp() {
+        CouponService couponService = new CouponService() {
+            @Override
+            public CouponResult evaluate(String code, LocalDate today, LocalDate expiryInclusive, double subtotal) {
+                couponCalls++;
+                return super.evaluate(code, today, expiryInclusive, subtotal);
+            }
+        };
+        ShippingService shippingService = new ShippingService() {
+            @Override
+            public double calculate(String region, double weight, double subtotal, boolean freeShipping,
+                                    double freeShippingThreshold) {
+                shippingCalls++;
+                return super.calculate(region, weight, subtotal, freeShipping, freeShippingThreshold);
+            }
+        };
+        service = new CheckoutService(couponService, shippingService);
+        today = LocalDate.of(2025, 1, 1);
+    }
+
+    private void assertSameAsCheckout(Cart cart, CustomerTier tier, boolean primeira, String region, double peso, String coupon) {
+        CheckoutResult expected = service.checkout(cart.getItens(), tier, primeira, region, peso, coupon, today, null);
+        CheckoutResult actual = cart.quote();
+        assertEquals(expected.subtotalCents, actual.subtotalCents);
+        assertEquals(expected.discountCents, actual.discountCents);
+        assertEquals(expected.taxCents, actual.taxCents);
+        assertEquals(expected.shippingCents, actual.shippingCents);
+        assertEquals(expected.totalCents, actual.totalCents);
+    }
+
+    @Test
+    @DisplayName("Should match full checkout after item changes")
+    public void testMatchesCheckoutAfterChanges() {
+        Cart cart = new Cart(service, today).setTier(CustomerTier.SILVER).setRegion("SUL").setPeso(3.0);
+        cart.add(new Item("ELETRÔNICOS", 50.0, 2)).add(new Item("BOOK", 19.9, 3)).add(new Item("ROUPAS", 25.0, 4));
+        assertSameAsCheckout(cart, CustomerTier.SILVER, false, "SUL", 3.0, null);
+
+        cart.update(0, new Item("ELETRÔNICOS", 50.0, 1));
+        assertSameAsCheckout(cart, CustomerTier.SILVER, false, "SUL", 3.0, null);
+
+        cart.remove(2);
+        cart.setCoupon("DESC10", null);
+        assertSameAsCheckout(cart, CustomerTier.SILVER, false, "SUL", 3.0, "DESC10");
+
+        cart.clear();
+        assertSameAsCheckout(cart, CustomerTier.SILVER, false, "SUL", 3.0, "DESC10");
+    }
+
+    @Test
+    @DisplayName("Should recompute only shipping when region changes")
+    public void testRegionChangeRecomputesOnlyShipping() {
+        Cart cart = new Cart(service, today).setRegion("SUL").setPeso(2.0).setCoupon("DESC10", null);
+        cart.add(new Item("ELETRÔNICOS", 100.0, 1));
+        cart.quote();
+        int coupons = couponCalls;
+        int shippings = shippingCalls;
+
+        cart.setRegion("NORTE");
+        CheckoutResult r = cart.quote();
+
+        assertEquals(coupons, couponCalls);
+        assertEquals(shippings + 1, shippingCalls);
+        assertEquals(30.0, r.shipping, 0.0);
+        assertSameAsCheckout(cart, CustomerTier.BASIC, false, "NORTE", 2.0, "DESC10");
+    }
+
+    @Test
+    @DisplayName("Should reuse quote while nothing changes")
+    public void testQuoteMemoized() {
+        Cart cart = new Cart(service, today).setRegion("SUL");
+        cart.add(new Item("ELETRÔNICOS", 100.0, 1));
+        assertSame(cart.quote(), cart.quote());
+
+        cart.setRegion("SUL");
+        assertSame(cart.quote(), cart.quote());
+    }
+
+    @Test
+    @DisplayName("Should allocate lines for a quoted cart")
+    public void testQuoteLines() {
+        Cart cart = new Cart(service, today)
+                .add(new Item("ELETRÔNICOS", 19.99, 3))
+                .add(new Item("BOOK", 45.5, 1))
+                .add(new Item("ROUPAS", 7.01, 2))
+                .setTier(CustomerTier.GOLD)
+                .setRegion("SUL")
+                .setPeso(2.0);
+        cart.remove(2);
+
+        CheckoutResult r = cart.quote();
+        assertEquals(2, r.lines().size());
+        assertEquals(r.discountCents, r.lines().get(0).discountCents + r.lines().get(1).discountCents);
+        assertEquals(r.taxCents, r.lines().get(0).taxCents);
+        assertEquals(0, r.lines().get(1).taxCents);
+    }
+
+    @Test
+    @DisplayName("Should keep an earlier quote's lines after the cart changes")
+    public void testQuoteLinesSurviveChanges() {
+        Cart cart = new Cart(service, today)
+                .add(new Item("ELETRÔNICOS", 19.99, 3))
+                .add(new Item("BOOK", 45.5, 1));
+        CheckoutResult antes = cart.quote();
+
+        cart.update(0, new Item("ELETRÔNICOS", 5.0, 1));
+        cart.add(new Item("ROUPAS", 7.01, 2));
+        CheckoutResult depois = cart.quote();
+        cart.clear();
+
+        assertEquals(2, antes.lines().size());
+        assertEquals(19.99, antes.lines().get(0).item.getPrecoUnitario(), 0.0);
+        assertEquals(antes.subtotalCents, antes.lines().get(0).subtotalCents + antes.lines().get(1).subtotalCents);
+        assertEquals(3, depois.lines().size());
+        assertEquals(0, cart.getItens().size());
+    }
+
+    @Test
+    @DisplayName("Should match full checkout after removing items with half-cent amounts")
+    public void testHalfCentAfterRemove() {
+        Cart cart = new Cart(service, today).setRegion("SUL").setPeso(1.0);
+        cart.add(new Item("ROUPAS", 1959.40, 1)).add(new Item("ROUPAS", 418.475, 1));
+        cart.remove(0);
+        // soma corrida daria 418.4749999999999 -> 41847
+        assertEquals(41848, cart.quote().subtotalCents);
+        assertSameAsCheckout(cart, CustomerTier.BASIC, false, "SUL", 1.0, null);
+
+        Random rnd = new Random(7);
+        for (int rodada = 0; rodada < 200; rodada++) {
+            cart.clear();
+            for (int i = 0; i < 6; i++) {
+                cart.add(new Item(i % 2 == 0 ? "ROUPAS" : "BOOK", rnd.nextInt(300_000) / 100.0 + 0.005, 1));
+            }
+            cart.remove(rnd.nextInt(6));
+            cart.update(rnd.nextInt(5), new Item("BOOK", rnd.nextInt(300_000) / 100.0 + 0.005, 1));
+            assertSameAsCheckout(cart, CustomerTier.BASIC, false, "SUL", 1.0, null);
+            cart.remove(0);
+            assertSameAsCheckout(cart, CustomerTier.BASIC, false, "SUL", 1.0, null);
+        }
+    }
+
+    @Test
+    @DisplayName("Should match full checkout on carts past the compensated-sum size")
+    public void testLargeCart() {
+        Cart cart = new Cart(service, today).setRegion("SUL").setPeso(1.0);
+        Random rnd = new Random(11);
+        for (int i = 0; i < ItemSums.MINIMO_PARALELO + 10; i++) {
+            cart.add(new Item("ROUPAS", rnd.nextInt(10_000) / 100.0 + 0.005, 1 + i % 3));
+        }
+        assertSameAsCheckout(cart, CustomerTier.BASIC, false, "SUL", 1.0, null);
+        cart.remove(3);
+        assertSameAsCheckout(cart, CustomerTier.BASIC, false, "SUL", 1.0, null);
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.checkout;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.time.LocalDate;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CategoryRegistry Tests")
+public class CategoryRegistryTest {
+
+    private final CheckoutService service = new CheckoutService(new CouponService(), new ShippingService());
+    private final LocalDate today = LocalDate.of(2025, 1, 1);
+
+    @Test
+    @DisplayName("Should intern categories case-insensitively")
+    public void testCaseInsensitiveCodes() {
+        CategoryRegistry r = new CategoryRegistry();
+        int a = r.code("Eletrônicos");
+        assertEquals(a, r.code("ELETRÔNICOS"));
+        assertNotEquals(a, r.code(" eletrônicos "));
+        assertNotEquals(a, r.code("ROUPAS"));
+        assertEquals("ELETRÔNICOS", r.name(a));
+    }
+
+    @Test
+    @DisplayName("Should exempt BOOK by default in any case")
+    public void testBookExemptByDefault() {
+        assertTrue(CategoryRegistry.padrao().isExempt("BOOK"));
+        assertTrue(CategoryRegistry.padrao().isExempt("book"));
+        assertFalse(CategoryRegistry.padrao().isExempt("ROUPAS"));
+        // como o equalsIgnoreCase original: espaço em volta não é BOOK
+        assertFalse(CategoryRegistry.padrao().isExempt(" BOOK"));
+        assertFalse(CategoryRegistry.padrao().isExempt("BOOK "));
+        assertEquals(new Item("Book", 1.0, 1).getCategoriaCodigo(), new Item("BOOK", 1.0, 1).getCategoriaCodigo());
+    }
+
+    @Test
+    @DisplayName("Should apply new tax-exempt category to checkout, cart and batch")
+    public void testNewExemptCategory() {
+        CategoryRegistry registro = CategoryRegistry.padrao();
+        List<Item> itens = List.of(new Item("TESTE-ISENTA", 100.0, 1));
+        Cart cart = new Cart(service, today).setRegion("SUL").add(itens.get(0));
+        ItemBatch lote = new ItemBatch().add(itens.get(0));
+        assertEquals(12.0, service.checkout(itens, CustomerTier.BASIC, false, "SUL", 2.0, null, today, null).tax, 0.0);
+        assertEquals(12.0, cart.quote().tax, 0.0);
+
+        registro.setExempt("teste-isenta", true);
+        try {
+            assertEquals(0.0, service.checkout(itens, CustomerTier.BASIC, false, "SUL", 2.0, null, today, null).tax, 0.0);
+            assertEquals(0.0, cart.quote().tax, 0.0);
+            assertEquals(0.0, service.checkoutBatch(lote, CustomerTier.BASIC, false, "SUL", 2.0, null, today, null).tax, 0.0);
+        } finally {
+            registro.setExempt("TESTE-ISENTA", false);
+        }
+        assertEquals(12.0, cart.quote().tax, 0.0);
+    }
+
+    @Test
+    @DisplayName("Should handle codes beyond the first bitset word")
+    public void testManyCategories() {
+        CategoryRegistry r = new CategoryRegistry();
+        for (int i = 0; i < 200; i++) r.code("C" + i);
+        r.setExempt("C150", true);
+        assertTrue(r.isExempt("c150"));
+        assertFalse(r.isExempt("C149"));
+        assertFalse(r.isExempt("C22"));
+    }
+
+    @Test
+    @DisplayName("Should fold categories beyond the limit into a shared non-exempt code")
+    public void testRegistryLimit() {
+        CategoryRegistry r = new CategoryRegistry(4);
+        r.setExempt("BOOK", true);
+        for (int i = 0; i < 3; i++) r.code("C" + i);
+
+        int outras = r.code("NOVA");
+        assertEquals(outras, r.code("OUTRA-NOVA"));
+        assertEquals(CategoryRegistry.OUTRAS, r.name(outras));
+        assertFalse(r.isExempt("NOVA"));
+        assertThrows(IllegalStateException.class, () -> r.setExempt("NOVA", true));
+
+        // as já registradas seguem com o próprio código, em qualquer grafia
+        assertTrue(r.isExempt("book"));
+        assertEquals(r.code("C2"), r.code("c2"));
+        assertNotEquals(outras, r.code("c2"));
+    }
+}
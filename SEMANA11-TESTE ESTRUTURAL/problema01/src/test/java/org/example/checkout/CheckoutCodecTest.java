@@ -0,0 +1,129 @@
+package org.example.checkout;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDate;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CheckoutCodec Tests")
+public class CheckoutCodecTest {
+
+    private final LocalDate today = LocalDate.of(2025, 1, 15);
+
+    private CheckoutRequest pedido() {
+        return new CheckoutRequest(
+                List.of(new Item("ELETRÔNICOS", 199.9, 2), new Item("BOOK", 35.5, 1)),
+                CustomerTier.GOLD, true, "SUL", 3.5, "DESC20", today, LocalDate.of(2025, 1, 31));
+    }
+
+    private static void assertMesmoPedido(CheckoutRequest esperado, CheckoutRequest lido) {
+        assertEquals(esperado.tier, lido.tier);
+        assertEquals(esperado.primeiraCompra, lido.primeiraCompra);
+        assertEquals(esperado.region, lido.region);
+        assertEquals(esperado.peso, lido.peso, 0.0);
+        assertEquals(esperado.couponCode, lido.couponCode);
+        assertEquals(esperado.today, lido.today);
+        assertEquals(esperado.couponExpiryInclusive, lido.couponExpiryInclusive);
+        assertEquals(esperado.itens.size(), lido.itens.size());
+        for (int i = 0; i < esperado.itens.size(); i++) {
+            assertEquals(esperado.itens.get(i).getCategoria(), lido.itens.get(i).getCategoria());
+            assertEquals(esperado.itens.get(i).getPrecoUnitario(), lido.itens.get(i).getPrecoUnitario(), 0.0);
+            assertEquals(esperado.itens.get(i).getQuantidade(), lido.itens.get(i).getQuantidade());
+        }
+    }
+
+    @Test
+    @DisplayName("Should round-trip a request through heap and direct buffers")
+    public void testRequestRoundTrip() {
+        CheckoutRequest p = pedido();
+        CheckoutCodec.Decoder decoder = new CheckoutCodec.Decoder();
+        for (ByteBuffer buf : new ByteBuffer[] {ByteBuffer.allocate(256), ByteBuffer.allocateDirect(256)}) {
+            CheckoutCodec.encode(p, buf);
+            assertEquals(CheckoutCodec.encodedSize(p), buf.position());
+            buf.flip();
+            assertMesmoPedido(p, decoder.decodeRequest(buf));
+            assertFalse(buf.hasRemaining());
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep optional fields absent")
+    public void testRequestWithoutOptionals() {
+        CheckoutRequest p = new CheckoutRequest(List.of(), CustomerTier.BASIC, false, null, 0.0, null, today, null);
+        ByteBuffer buf = ByteBuffer.allocate(64);
+        CheckoutCodec.encode(p, buf);
+        buf.flip();
+        assertMesmoPedido(p, new CheckoutCodec.Decoder().decodeRequest(buf));
+    }
+
+    @Test
+    @DisplayName("Should round-trip a result in cents and restore the buffer byte order")
+    public void testResultRoundTrip() {
+        CheckoutResult r = new CheckoutResult(25690L, 5138L, 2466L, 0L, 23018L, 7L, null, null);
+        ByteBuffer buf = ByteBuffer.allocateDirect(CheckoutCodec.TAMANHO_RESULTADO).order(ByteOrder.LITTLE_ENDIAN);
+        CheckoutCodec.encode(r, buf);
+        assertFalse(buf.hasRemaining());
+        buf.flip();
+        CheckoutResult lido = new CheckoutCodec.Decoder().decodeResult(buf);
+        assertEquals(ByteOrder.LITTLE_ENDIAN, buf.order());
+        assertEquals(r.subtotalCents, lido.subtotalCents);
+        assertEquals(r.discountCents, lido.discountCents);
+        assertEquals(r.taxCents, lido.taxCents);
+        assertEquals(r.shippingCents, lido.shippingCents);
+        assertEquals(r.totalCents, lido.totalCents);
+        assertEquals(230.18, lido.total, 0.0);
+        assertEquals(7L, lido.configVersion);
+    }
+
+    @Test
+    @DisplayName("Should still read version 1 results, without config version")
+    public void testReadsVersionOneResult() {
+        ByteBuffer buf = ByteBuffer.allocate(CheckoutCodec.resultSize(1));
+        buf.put((byte) 1).put(CheckoutCodec.TIPO_RESULTADO);
+        for (long v : new long[] {25690L, 5138L, 2466L, 0L, 23018L}) buf.putLong(v);
+        buf.flip();
+        CheckoutResult lido = new CheckoutCodec.Decoder().decodeResult(buf);
+        assertFalse(buf.hasRemaining());
+        assertEquals(23018L, lido.totalCents);
+        assertEquals(0L, lido.configVersion);
+    }
+
+    @Test
+    @DisplayName("Should reuse decoded strings across calls")
+    public void testDecoderReusesStrings() {
+        CheckoutCodec.Decoder decoder = new CheckoutCodec.Decoder();
+        ByteBuffer buf = ByteBuffer.allocate(512);
+        CheckoutCodec.encode(pedido(), buf);
+        CheckoutCodec.encode(pedido(), buf);
+        buf.flip();
+        CheckoutRequest a = decoder.decodeRequest(buf);
+        CheckoutRequest b = decoder.decodeRequest(buf);
+        assertSame(a.region, b.region);
+        assertSame(a.couponCode, b.couponCode);
+        assertSame(a.itens.get(0).getCategoria(), b.itens.get(0).getCategoria());
+    }
+
+    @Test
+    @DisplayName("Should not write anything when the buffer is too small")
+    public void testOverflowLeavesBufferUntouched() {
+        ByteBuffer buf = ByteBuffer.allocate(10);
+        assertThrows(BufferOverflowException.class, () -> CheckoutCodec.encode(pedido(), buf));
+        assertEquals(0, buf.position());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown version and wrong record type")
+    public void testRejectsBadHeader() {
+        CheckoutCodec.Decoder decoder = new CheckoutCodec.Decoder();
+        ByteBuffer buf = ByteBuffer.allocate(256);
+        CheckoutCodec.encode(pedido(), buf);
+        buf.flip();
+        assertThrows(IllegalArgumentException.class, () -> decoder.decodeResult(buf.duplicate()));
+        buf.put(0, (byte) 9);
+        assertThrows(IllegalArgumentException.class, () -> decoder.decodeRequest(buf));
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.checkout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CheckoutResult Lines Tests")
+public class CheckoutResultTest {
+
+    private CheckoutService service;
+    private LocalDate today;
+
+    @BeforeEach
+    public void setUp() {
+        service = new CheckoutService(new CouponService(), new ShippingService());
+        today = LocalDate.of(2025, 1, 1);
+    }
+
+    private static void assertSomaExata(CheckoutResult r) {
+        long sub = 0, desc = 0, imp = 0;
+        for (LineAllocation l : r.lines()) {
+            sub += l.subtotalCents;
+            desc += l.discountCents;
+            imp += l.taxCents;
+        }
+        assertEquals(r.subtotalCents, sub);
+        assertEquals(r.discountCents, desc);
+        assertEquals(r.taxCents, imp);
+    }
+
+    @Test
+    @DisplayName("Should split discount and tax so lines add up to the totals")
+    public void testLinesAddUp() {
+        List<Item> items = new ArrayList<>();
+        items.add(new Item("ELETRÔNICOS", 33.33, 1));
+        items.add(new Item("ROUPAS", 33.33, 1));
+        items.add(new Item("CASA", 33.34, 1));
+
+        CheckoutResult r = service.checkout(items, CustomerTier.SILVER, false, "SUL", 2.0, "DESC10", today, null);
+
+        assertEquals(1500, r.discountCents);   // 15% de 100,00
+        List<LineAllocation> lines = r.lines();
+        assertEquals(3, lines.size());
+        assertEquals(500, lines.get(0).discountCents);
+        assertEquals(500, lines.get(1).discountCents);
+        assertEquals(500, lines.get(2).discountCents);
+        assertSomaExata(r);
+        assertEquals(r.subtotalCents - r.discountCents + r.taxCents,
+                lines.stream().mapToLong(l -> l.totalCents).sum());
+    }
+
+    @Test
+    @DisplayName("Should give no tax to exempt lines")
+    public void testExemptLineHasNoTax() {
+        List<Item> items = new ArrayList<>();
+        items.add(new Item("BOOK", 50.0, 1));
+        items.add(new Item("ELETRÔNICOS", 50.0, 1));
+
+        CheckoutResult r = service.checkout(items, CustomerTier.BASIC, false, "SUL", 2.0, null, today, null);
+
+        assertEquals(0, r.lines().get(0).taxCents);
+        assertEquals(r.taxCents, r.lines().get(1).taxCents);
+        assertEquals(6.0, r.lines().get(1).tax(), 0.0);
+    }
+
+    @Test
+    @DisplayName("Should compute lines once, on first access")
+    public void testLazyAndRetained() {
+        List<Item> items = new ArrayList<>();
+        items.add(new Item("ELETRÔNICOS", 10.0, 1));
+        CheckoutResult r = service.checkout(items, CustomerTier.BASIC, false, "SUL", 2.0, null, today, null);
+
+        assertTrue(r.hasLines());
+        List<LineAllocation> lines = r.lines();
+        assertEquals(1, lines.size());
+        assertSame(lines, r.lines());
+
+        items.add(new Item("ELETRÔNICOS", 99.0, 1));
+        assertSame(lines, r.lines());   // já calculado, não relê a lista
+    }
+
+    @Test
+    @DisplayName("Should reject lines when the item list changed after checkout")
+    public void testChangedListDetected() {
+        List<Item> items = new ArrayList<>();
+        items.add(new Item("ELETRÔNICOS", 10.0, 1));
+        CheckoutResult trocado = service.checkout(items, CustomerTier.BASIC, false, "SUL", 2.0, null, today, null);
+        items.set(0, new Item("ELETRÔNICOS", 11.0, 1));
+        assertThrows(IllegalStateException.class, trocado::lines);
+
+        CheckoutResult acrescido = service.checkout(items, CustomerTier.BASIC, false, "SUL", 2.0, null, today, null);
+        items.add(new Item("ELETRÔNICOS", 0.0, 1));
+        assertThrows(IllegalStateException.class, acrescido::lines);
+    }
+
+    @Test
+    @DisplayName("Should reject lines for results without retained items")
+    public void testNoLinesWithoutItems() {
+        CheckoutResult r = new CheckoutResult(100L, 0L, 12L, 20L, 132L);
+        assertFalse(r.hasLines());
+        assertThrows(IllegalStateException.class, r::lines);
+    }
+
+    @Test
+    @DisplayName("Should hand leftover cents to the largest remainders, earliest first on ties")
+    public void testLargestRemainder() {
+        assertArrayEquals(new long[] {34, 33, 33}, CheckoutResult.maioresRestos(100, new long[] {1, 1, 1}));
+        assertArrayEquals(new long[] {1, 2, 0}, CheckoutResult.maioresRestos(3, new long[] {30, 60, 9}));
+        assertArrayEquals(new long[] {7, 0}, CheckoutResult.maioresRestos(7, new long[] {0, 0}));
+        assertArrayEquals(new long[] {0, 5}, CheckoutResult.maioresRestos(5, new long[] {0, 3}));
+    }
+
+    @Test
+    @DisplayName("Should add up exactly for random carts")
+    public void testRandomCartsAddUp() {
+        Random rnd = new Random(7);
+        String[] categorias = {"BOOK", "ELETRÔNICOS", "ROUPAS"};
+        CustomerTier[] tiers = CustomerTier.values();
+        String[] cupons = {null, "DESC10", "DESC20"};
+        for (int k = 0; k < 500; k++) {
+            List<Item> items = new ArrayList<>();
+            int n = 1 + rnd.nextInt(12);
+            for (int i = 0; i < n; i++) {
+                items.add(new Item(categorias[rnd.nextInt(3)], rnd.nextInt(20000) / 100.0, 1 + rnd.nextInt(5)));
+            }
+            CheckoutResult r = service.checkout(items, tiers[rnd.nextInt(3)], rnd.nextBoolean(), "SUL", 2.0,
+                    cupons[rnd.nextInt(3)], today, today);
+            assertSomaExata(r);
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package org.example.checkout;
 
+import org.example.checkout.metrics.CheckoutStage;
+import org.example.checkout.metrics.HistogramCheckoutMetrics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("CheckoutService Tests")
@@ -254,4 +257,99 @@ public class CheckoutServiceTest {
         assertEquals(20.0, result.shipping, 0.01);
         assertEquals(20.0, result.total, 0.01);
     }
+
+    @Test
+    @DisplayName("Should price batch in input order matching single checkout")
+    public void testCheckoutAllPreservesOrder() {
+        List<CheckoutRequest> pedidos = new ArrayList<>();
+        for (int i = 1; i <= 500; i++) {
+            List<Item> items = new ArrayList<>();
+            items.add(new Item(i % 3 == 0 ? "BOOK" : "ELETRÔNICOS", i, 1 + i % 4));
+            CustomerTier tier = CustomerTier.values()[i % 3];
+            String region = i % 2 == 0 ? "SUL" : "NORTE";
+            pedidos.add(new CheckoutRequest(items, tier, i % 5 == 0, region, i % 7, i % 4 == 0 ? "DESC10" : null, today, null));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<CheckoutResult> results = service.checkoutAll(pedidos, pool);
+
+            assertEquals(pedidos.size(), results.size());
+            for (int i = 0; i < pedidos.size(); i++) {
+                CheckoutRequest p = pedidos.get(i);
+                CheckoutResult expected = service.checkout(p.itens, p.tier, p.primeiraCompra, p.region, p.peso, p.couponCode, p.today, p.couponExpiryInclusive);
+                assertEquals(expected.total, results.get(i).total, 0.0);
+                assertEquals(expected.subtotal, results.get(i).subtotal, 0.0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should return empty list for empty batch")
+    public void testCheckoutAllEmpty() {
+        assertTrue(service.checkoutAll(new ArrayList<>()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should record latency for every stage when metrics are enabled")
+    public void testMetricsRecorded() {
+        HistogramCheckoutMetrics metrics = new HistogramCheckoutMetrics();
+        CheckoutService medido = new CheckoutService(couponService, shippingService, metrics);
+        List<Item> items = new ArrayList<>();
+        items.add(new Item("ELETRÔNICOS", 100.0, 1));
+
+        CheckoutResult result = medido.checkout(items, CustomerTier.BASIC, false, "SUL", 2.0, null, today, null);
+
+        assertEquals(132.0, result.total, 0.01);
+        for (CheckoutStage stage : CheckoutStage.values()) {
+            assertEquals(1, metrics.snapshot(stage).getCount(), stage.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Should pick the coupon with the lowest total")
+    public void testBestCouponLowestTotal() {
+        List<Item> items = new ArrayList<>();
+        items.add(new Item("ELETRÔNICOS", 100.0, 1));
+
+        BestCoupon best = service.checkoutBestCoupon(items, CustomerTier.BASIC, false, "SUL", 2.0,
+                List.of("DESC10", "FRETEGRATIS", "DESC20"), today, today);
+
+        assertEquals("DESC20", best.couponCode);
+        assertEquals(20.0, best.result.discountValue, 0.01);
+        assertEquals(109.6, best.result.total, 0.01);
+        CheckoutResult direto = service.checkout(items, CustomerTier.BASIC, false, "SUL", 2.0, "DESC20", today, today);
+        assertEquals(direto.totalCents, best.result.totalCents);
+    }
+
+    @Test
+    @DisplayName("Should prefer free shipping when percentage coupons save less")
+    public void testBestCouponFreeShipping() {
+        List<Item> items = new ArrayList<>();
+        items.add(new Item("ELETRÔNICOS", 50.0, 1));
+
+        BestCoupon best = service.checkoutBestCoupon(items, CustomerTier.BASIC, false, "SUL", 2.0,
+                List.of("DESC10", "DESC20", "FRETEGRATIS"), today, today);
+
+        assertEquals("FRETEGRATIS", best.couponCode);
+        assertEquals(0.0, best.result.shipping, 0.01);
+        assertEquals(56.0, best.result.total, 0.01);
+    }
+
+    @Test
+    @DisplayName("Should return no coupon when none beats the plain checkout")
+    public void testBestCouponNoneApplies() {
+        List<Item> items = new ArrayList<>();
+        items.add(new Item("ELETRÔNICOS", 50.0, 1));
+
+        // DESC20 exige subtotal mínimo de 100
+        BestCoupon best = service.checkoutBestCoupon(items, CustomerTier.GOLD, true, "SUL", 2.0,
+                List.of("INVALIDO", "DESC20"), today, today);
+
+        CheckoutResult semCupom = service.checkout(items, CustomerTier.GOLD, true, "SUL", 2.0, null, today, null);
+        assertNull(best.couponCode);
+        assertEquals(semCupom.totalCents, best.result.totalCents);
+    }
 }
@@ -0,0 +1,77 @@
+package org.example.checkout;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.StringReader;
+import java.time.LocalDate;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CouponCatalog Tests")
+public class CouponCatalogTest {
+
+    private final LocalDate today = LocalDate.of(2025, 1, 1);
+
+    private static CouponCatalog catalogo(String texto) {
+        return CouponCatalog.load(new StringReader(texto));
+    }
+
+    @Test
+    @DisplayName("Should load default catalog from classpath")
+    public void testDefaultCatalog() {
+        CouponCatalog c = CouponCatalog.padrao();
+        assertTrue(c.codes().contains("DESC10"));
+        assertTrue(c.codes().contains("DESC20"));
+        assertTrue(c.codes().contains("FRETEGRATIS"));
+    }
+
+    @Test
+    @DisplayName("Should look up coupons case-insensitively")
+    public void testCaseInsensitiveLookup() {
+        CouponService service = new CouponService(catalogo("cupom.Natal.percentual=0.15\n"));
+        assertEquals(0.15, service.evaluate("NATAL", today, null, 10.0).percent, 0.0);
+        assertEquals(0.15, service.evaluate("  natal ", today, null, 10.0).percent, 0.0);
+    }
+
+    @Test
+    @DisplayName("Should share result instances between calls")
+    public void testSharedResults() {
+        CouponService service = new CouponService();
+        assertSame(service.evaluate("DESC10", today, null, 10.0), service.evaluate("desc10", today, null, 99.0));
+        assertSame(CouponResult.NONE, service.evaluate("INVALID", today, null, 10.0));
+    }
+
+    @Test
+    @DisplayName("Should enforce minimum subtotal and fixed expiry")
+    public void testMinimumAndFixedExpiry() {
+        CouponService service = new CouponService(catalogo(
+                "cupom.VIP.percentual=0.25\ncupom.VIP.minimo=200\ncupom.VIP.validade=2025-01-31\n"));
+        assertEquals(0.0, service.evaluate("VIP", today, null, 199.99).percent, 0.0);
+        assertEquals(0.25, service.evaluate("VIP", today, null, 200.0).percent, 0.0);
+        assertEquals(0.0, service.evaluate("VIP", LocalDate.of(2025, 2, 1), null, 200.0).percent, 0.0);
+    }
+
+    @Test
+    @DisplayName("Should swap catalog on reload")
+    public void testReload() {
+        CouponService service = new CouponService();
+        service.reload(catalogo("cupom.NOVO.freteGratis=true\n"));
+        assertTrue(service.evaluate("NOVO", today, null, 10.0).freeShipping);
+        assertSame(CouponResult.NONE, service.evaluate("DESC10", today, null, 10.0));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed configuration")
+    public void testInvalidConfig() {
+        assertThrows(IllegalArgumentException.class, () -> catalogo("cupom.X.percentual=abc\n"));
+        assertThrows(IllegalArgumentException.class, () -> catalogo("desconto=0.1\n"));
+        assertThrows(IllegalArgumentException.class, () -> catalogo("cupom.X.percentual=1.5\n"));
+    }
+
+    @Test
+    @DisplayName("Should reject negative or malformed redemption limits")
+    public void testInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> catalogo("cupom.X.limite=-1\n"));
+        assertThrows(IllegalArgumentException.class, () -> catalogo("cupom.X.limite=dez\n"));
+        assertEquals(10, new CouponService(catalogo("cupom.X.limite=10\n")).remaining("x"));
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.checkout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Coupon Redemption Tests")
+public class CouponRedemptionTest {
+
+    private final LocalDate today = LocalDate.of(2025, 1, 1);
+    private CouponService couponService;
+    private CheckoutService service;
+    private List<Item> items;
+
+    @BeforeEach
+    public void setUp() {
+        couponService = new CouponService(CouponCatalog.load(new StringReader(
+                "cupom.DESC20.percentual=0.20\ncupom.DESC20.limite=3\ncupom.DESC10.percentual=0.10\n")));
+        service = new CheckoutService(couponService, new ShippingService());
+        items = new ArrayList<>();
+        items.add(new Item("ELETRÔNICOS", 100.0, 1));
+    }
+
+    private ReservedCheckout reservar(String codigo) {
+        return service.checkoutReserving(items, CustomerTier.BASIC, false, "SUL", 2.0, codigo, today, null);
+    }
+
+    @Test
+    @DisplayName("Should stop applying the coupon once the limit is committed")
+    public void testLimitEnforced() {
+        for (int i = 0; i < 3; i++) {
+            ReservedCheckout r = reservar("desc20");
+            assertEquals("DESC20", r.couponCode);
+            assertEquals(20.0, r.result.discountValue, 0.01);
+            r.commit();
+        }
+        ReservedCheckout esgotado = reservar("DESC20");
+        assertNull(esgotado.couponCode);
+        assertEquals(0.0, esgotado.result.discountValue, 0.01);
+        assertEquals(3, couponService.redeemed("DESC20"));
+        assertEquals(0, couponService.remaining("DESC20"));
+        assertSame(CouponResult.NONE, couponService.evaluate("DESC20", today, null, 100.0));
+    }
+
+    @Test
+    @DisplayName("Should return the unit when the reservation is released")
+    public void testReleaseReturnsUnit() {
+        try (ReservedCheckout r = reservar("DESC20")) {
+            assertEquals(2, couponService.remaining("DESC20"));
+        }
+        assertEquals(3, couponService.remaining("DESC20"));
+        assertEquals(0, couponService.redeemed("DESC20"));
+    }
+
+    @Test
+    @DisplayName("Should ignore release after commit and reject a second commit")
+    public void testCommitThenRelease() {
+        ReservedCheckout r = reservar("DESC20");
+        r.commit();
+        r.release();
+        assertEquals(2, couponService.remaining("DESC20"));
+        assertThrows(IllegalStateException.class, r::commit);
+    }
+
+    @Test
+    @DisplayName("Should not track unlimited coupons")
+    public void testUnlimitedCoupon() {
+        ReservedCheckout r = reservar("DESC10");
+        assertEquals("DESC10", r.couponCode);
+        r.commit();
+        assertEquals(-1, couponService.remaining("DESC10"));
+        assertEquals(0, couponService.redeemed("DESC10"));
+    }
+
+    @Test
+    @DisplayName("Should keep redemptions across catalog reload")
+    public void testReloadAdjustsLimit() {
+        reservar("DESC20").commit();
+        reservar("DESC20").commit();
+        couponService.reload(CouponCatalog.load(new StringReader(
+                "cupom.DESC20.percentual=0.20\ncupom.DESC20.limite=5\n")));
+        assertEquals(3, couponService.remaining("DESC20"));
+
+        couponService.reload(CouponCatalog.load(new StringReader(
+                "cupom.DESC20.percentual=0.20\ncupom.DESC20.limite=1\n")));
+        assertEquals(0, couponService.remaining("DESC20"));
+        assertNull(reservar("DESC20").couponCode);
+    }
+
+    @Test
+    @DisplayName("Should not let released units reopen a limit lowered below the reservations")
+    public void testLoweredLimitKeepsDebt() {
+        ReservedCheckout a = reservar("DESC20");
+        ReservedCheckout b = reservar("DESC20");
+        ReservedCheckout c = reservar("DESC20");
+        couponService.reload(CouponCatalog.load(new StringReader(
+                "cupom.DESC20.percentual=0.20\ncupom.DESC20.limite=1\n")));
+        assertEquals(0, couponService.remaining("DESC20"));
+
+        // três reservas contra limite 1: as duas primeiras devoluções só pagam a dívida
+        a.release();
+        b.release();
+        assertEquals(0, couponService.remaining("DESC20"));
+        assertNull(reservar("DESC20").couponCode);
+
+        c.release();
+        assertEquals(1, couponService.remaining("DESC20"));
+        ReservedCheckout d = reservar("DESC20");
+        assertEquals("DESC20", d.couponCode);
+        d.commit();
+        assertNull(reservar("DESC20").couponCode);
+        assertEquals(1, couponService.redeemed("DESC20"));
+    }
+
+    @Test
+    @DisplayName("Should pay the debt before a raised limit reaches the balance")
+    public void testRaisedLimitPaysDebt() {
+        RedemptionBudget orcamento = new RedemptionBudget(3, 4);
+        int f1 = orcamento.reservar();
+        orcamento.reservar();
+        orcamento.reservar();
+        orcamento.ajustarLimite(0);
+        assertEquals(3, orcamento.divida());
+
+        orcamento.ajustarLimite(2);
+        assertEquals(1, orcamento.divida());
+        assertEquals(0, orcamento.restante());
+        orcamento.devolver(f1);
+        assertEquals(0, orcamento.divida());
+        assertEquals(0, orcamento.restante());
+        assertEquals(-1, orcamento.reservar());
+    }
+
+    @Test
+    @DisplayName("Should apply a limited coupon in a plain checkout without consuming it")
+    public void testPlainCheckoutDoesNotConsume() {
+        CheckoutResult cotacao = service.checkout(items, CustomerTier.BASIC, false, "SUL", 2.0, "DESC20", today, null);
+        assertEquals(20.0, cotacao.discountValue, 0.01);
+        assertEquals(3, couponService.remaining("DESC20"));
+        assertEquals(0, couponService.redeemed("DESC20"));
+
+        for (int i = 0; i < 3; i++) reservar("DESC20").commit();
+        CheckoutResult esgotado = service.checkout(items, CustomerTier.BASIC, false, "SUL", 2.0, "DESC20", today, null);
+        assertEquals(0.0, esgotado.discountValue, 0.01);
+    }
+
+    @Test
+    @DisplayName("Should never oversell under concurrent checkouts")
+    public void testNoOversellUnderContention() throws Exception {
+        int limite = 1000;
+        CouponService concorrido = new CouponService(CouponCatalog.load(new StringReader(
+                "cupom.DESC20.percentual=0.20\ncupom.DESC20.limite=" + limite + "\n")));
+        CheckoutService s = new CheckoutService(concorrido, new ShippingService());
+        int threads = 64;
+        AtomicInteger aplicados = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Thread> ts = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            ts.add(Thread.ofPlatform().start(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 100; i++) {
+                    try (ReservedCheckout r = s.checkoutReserving(items, CustomerTier.BASIC, false, "SUL", 2.0,
+                            "DESC20", today, null)) {
+                        if (r.couponCode == null) continue;
+                        // parte dos pedidos desiste e devolve o resgate
+                        if ((id + i) % 5 == 0) continue;
+                        r.commit();
+                        aplicados.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        largada.countDown();
+        for (Thread t : ts) t.join();
+
+        assertEquals(limite, aplicados.get());
+        assertEquals(limite, concorrido.redeemed("DESC20"));
+        assertEquals(0, concorrido.remaining("DESC20"));
+    }
+}
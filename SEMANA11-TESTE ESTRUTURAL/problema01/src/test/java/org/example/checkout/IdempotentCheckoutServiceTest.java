@@ -0,0 +1,188 @@
+package org.example.checkout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IdempotentCheckoutService Tests")
+public class IdempotentCheckoutServiceTest {
+
+    private final LocalDate today = LocalDate.of(2025, 1, 15);
+    private CheckoutService service;
+    private AtomicInteger calculos;
+    private AtomicLong relogio;
+    private Function<CheckoutRequest, CheckoutResult> contando;
+
+    @BeforeEach
+    public void setUp() {
+        service = new CheckoutService(new CouponService(), new ShippingService());
+        calculos = new AtomicInteger();
+        relogio = new AtomicLong();
+        contando = p -> {
+            calculos.incrementAndGet();
+            return service.checkout(p.itens, p.tier, p.primeiraCompra, p.region, p.peso,
+                    p.couponCode, p.today, p.couponExpiryInclusive);
+        };
+    }
+
+    private CheckoutRequest pedido(double preco) {
+        List<Item> itens = new ArrayList<>();
+        itens.add(new Item("ELETRÔNICOS", preco, 1));
+        return new CheckoutRequest(itens, CustomerTier.BASIC, false, "SUL", 2.0, null, today, null);
+    }
+
+    private IdempotentCheckoutService idempotente(int max, Duration ttl) {
+        return new IdempotentCheckoutService(contando, max, ttl, relogio::get);
+    }
+
+    @Test
+    @DisplayName("Should return the stored result for a repeated key without recomputing")
+    public void testRepeatedKey() {
+        IdempotentCheckoutService s = idempotente(10, Duration.ofMinutes(1));
+        CheckoutResult primeiro = s.checkout("k1", pedido(100));
+        CheckoutResult segundo = s.checkout("k1", pedido(100));
+        assertSame(primeiro, segundo);
+        assertEquals(1, calculos.get());
+        assertEquals(1, s.hits());
+        assertEquals(1, s.misses());
+        assertEquals(1, s.size());
+    }
+
+    @Test
+    @DisplayName("Should compute every time without a key")
+    public void testNoKey() {
+        IdempotentCheckoutService s = idempotente(10, Duration.ofMinutes(1));
+        s.checkout(null, pedido(100));
+        s.checkout(null, pedido(100));
+        assertEquals(2, calculos.get());
+        assertEquals(0, s.size());
+    }
+
+    @Test
+    @DisplayName("Should make concurrent duplicates wait for the in-flight computation")
+    public void testConcurrentDuplicates() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        Function<CheckoutRequest, CheckoutResult> lento = p -> {
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return contando.apply(p);
+        };
+        IdempotentCheckoutService s = new IdempotentCheckoutService(lento, 10, Duration.ofMinutes(1), relogio::get);
+        int n = 32;
+        ExecutorService pool = Executors.newFixedThreadPool(n);
+        try {
+            List<Future<CheckoutResult>> fs = new ArrayList<>();
+            for (int i = 0; i < n; i++) fs.add(pool.submit(() -> s.checkout("k", pedido(100))));
+            while (s.hits() + s.misses() < n) Thread.sleep(1);
+            liberar.countDown();
+            CheckoutResult r = fs.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<CheckoutResult> f : fs) assertSame(r, f.get(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, calculos.get());
+        assertEquals(n - 1, s.hits());
+    }
+
+    @Test
+    @DisplayName("Should recompute after the TTL expires")
+    public void testTtl() {
+        IdempotentCheckoutService s = idempotente(10, Duration.ofSeconds(30));
+        s.checkout("k", pedido(100));
+        relogio.addAndGet(Duration.ofSeconds(29).toNanos());
+        s.checkout("k", pedido(100));
+        assertEquals(1, calculos.get());
+        relogio.addAndGet(Duration.ofSeconds(1).toNanos());
+        s.checkout("k", pedido(100));
+        assertEquals(2, calculos.get());
+        assertEquals(1, s.evictions());
+        assertEquals(1, s.size());
+    }
+
+    @Test
+    @DisplayName("Should stay bounded and bypass the map when full of live keys")
+    public void testBoundedUnderRetryStorm() {
+        IdempotentCheckoutService s = idempotente(4, Duration.ofSeconds(10));
+        for (int i = 0; i < 100; i++) s.checkout("k" + i, pedido(100));
+        assertEquals(4, s.size());
+        assertEquals(4, s.misses());
+        assertEquals(96, s.bypasses());
+        assertEquals(100, calculos.get());
+
+        // vencidas dão lugar a chaves novas
+        relogio.addAndGet(Duration.ofSeconds(10).toNanos());
+        s.checkout("nova", pedido(100));
+        assertEquals(1, s.size());
+        assertEquals(4, s.evictions());
+        s.checkout("nova", pedido(100));
+        assertEquals(1, s.hits());
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused with a different cart")
+    public void testKeyReuseMismatch() {
+        IdempotentCheckoutService s = idempotente(10, Duration.ofMinutes(1));
+        s.checkout("k", pedido(100));
+        assertThrows(IllegalStateException.class, () -> s.checkout("k", pedido(101)));
+        assertEquals(1, calculos.get());
+    }
+
+    @Test
+    @DisplayName("Should reject a different cart even when its fingerprint hash collides")
+    public void testKeyReuseHashCollision() {
+        // troca um bit do expoente e o bit correspondente da metade baixa: mesmo Long.hashCode, ~metade do preço
+        double outro = Double.longBitsToDouble(Double.doubleToLongBits(100.0) ^ (1L << 52 | 1L << 20));
+        CheckoutRequest a = pedido(100);
+        CheckoutRequest b = pedido(outro);
+        assertEquals(new QuoteKey(a.itens, a.tier, a.primeiraCompra, a.region, a.peso, a.couponCode, a.today, null).hashCode(),
+                new QuoteKey(b.itens, b.tier, b.primeiraCompra, b.region, b.peso, b.couponCode, b.today, null).hashCode());
+
+        IdempotentCheckoutService s = idempotente(10, Duration.ofMinutes(1));
+        s.checkout("k", a);
+        assertThrows(IllegalStateException.class, () -> s.checkout("k", b));
+        assertEquals(1, calculos.get());
+    }
+
+    @Test
+    @DisplayName("Should not store failed computations")
+    public void testFailureNotCached() {
+        AtomicInteger tentativas = new AtomicInteger();
+        Function<CheckoutRequest, CheckoutResult> instavel = p -> {
+            if (tentativas.incrementAndGet() == 1) throw new IllegalArgumentException("falha transitória");
+            return contando.apply(p);
+        };
+        IdempotentCheckoutService s = new IdempotentCheckoutService(instavel, 10, Duration.ofMinutes(1), relogio::get);
+        assertThrows(IllegalArgumentException.class, () -> s.checkout("k", pedido(100)));
+        assertEquals(0, s.size());
+        assertNotNull(s.checkout("k", pedido(100)));
+        assertEquals(1, calculos.get());
+        assertEquals(1, s.size());
+    }
+
+    @Test
+    @DisplayName("Should delegate to a CheckoutService")
+    public void testDelegate() {
+        IdempotentCheckoutService s = new IdempotentCheckoutService(service, 10, Duration.ofMinutes(1));
+        CheckoutRequest p = pedido(100);
+        assertEquals(service.checkout(p.itens, p.tier, p.primeiraCompra, p.region, p.peso,
+                p.couponCode, p.today, p.couponExpiryInclusive).totalCents, s.checkout("k", p).totalCents);
+        assertThrows(IllegalArgumentException.class, () -> new IdempotentCheckoutService(service, 0, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> new IdempotentCheckoutService(service, 1, Duration.ZERO));
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.checkout;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ItemBatch Tests")
+public class ItemBatchTest {
+
+    private final CheckoutService service = new CheckoutService(new CouponService(), new ShippingService());
+    private final LocalDate today = LocalDate.of(2025, 1, 1);
+
+    private static List<Item> carrinho(int n, long semente) {
+        Random rnd = new Random(semente);
+        String[] categorias = {"ELETRÔNICOS", "BOOK", "book", "ROUPAS"};
+        List<Item> itens = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            itens.add(new Item(categorias[rnd.nextInt(categorias.length)], rnd.nextInt(50_000) / 100.0, 1 + rnd.nextInt(5)));
+        }
+        return itens;
+    }
+
+    @Test
+    @DisplayName("Should price batch the same as item list")
+    public void testSameAsList() {
+        for (int n : new int[]{0, 1, 7, 63, 64, 65, 1000, 100_000}) {
+            List<Item> itens = carrinho(n, n);
+            ItemBatch lote = new ItemBatch();
+            for (Item i : itens) lote.add(i);
+
+            CheckoutResult esperado = service.checkout(itens, CustomerTier.GOLD, true, "NORTE", 3.0, "DESC10", today, null);
+            CheckoutResult atual = service.checkoutBatch(lote, CustomerTier.GOLD, true, "NORTE", 3.0, "DESC10", today, null);
+            assertEquals(esperado.subtotalCents, atual.subtotalCents, "n=" + n);
+            assertEquals(esperado.taxCents, atual.taxCents, "n=" + n);
+            assertEquals(esperado.totalCents, atual.totalCents, "n=" + n);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep columns and validate like Item")
+    public void testColumnsAndValidation() {
+        ItemBatch lote = new ItemBatch(0).add("BOOK", 10.0, 2).add("ROUPAS", 5.5, 1);
+        assertEquals(2, lote.size());
+        assertEquals("ROUPAS", lote.getCategoria(1));
+        assertEquals(10.0, lote.getPrecoUnitario(0), 0.0);
+        assertEquals(2, lote.getQuantidade(0));
+        assertThrows(IllegalArgumentException.class, () -> lote.add("BOOK", -1.0, 1));
+        assertThrows(IllegalArgumentException.class, () -> lote.add("BOOK", 1.0, 0));
+        assertThrows(IllegalArgumentException.class, () -> lote.add("BOOK", Double.NaN, 1));
+        assertThrows(IllegalArgumentException.class, () -> lote.add("BOOK", Double.POSITIVE_INFINITY, 1));
+        assertEquals(2, lote.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> lote.getQuantidade(2));
+    }
+
+    @Test
+    @DisplayName("Should sum the same with scalar and vector paths")
+    public void testScalarAndVectorAgree() {
+        ItemBatch lote = new ItemBatch();
+        for (Item i : carrinho(10_003, 7)) lote.add(i);
+        double[] escalar = new double[2];
+        ItemSums.somarEscalar(lote.precos(), lote.quantidades(), lote.tributaveis(), lote.size(), escalar);
+        double[] atual = new double[2];
+        ItemSums.somar(lote, atual);
+        assertEquals(Money.toCents(escalar[0]), Money.toCents(atual[0]));
+        assertEquals(Money.toCents(escalar[1]), Money.toCents(atual[1]));
+    }
+}
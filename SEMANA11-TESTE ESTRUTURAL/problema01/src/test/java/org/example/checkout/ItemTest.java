@@ -38,4 +38,15 @@ public class ItemTest {
                 new Item("LIVROS", 50.0, 0)
         );
     }
+
+    @Test
+    @DisplayName("Should throw exception for NaN or infinite price")
+    public void testItemInvalidNonFinitePrice() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new Item("ELETRÔNICOS", Double.NaN, 1)
+        );
+        assertThrows(IllegalArgumentException.class, () ->
+                new Item("ELETRÔNICOS", Double.POSITIVE_INFINITY, 1)
+        );
+    }
 }
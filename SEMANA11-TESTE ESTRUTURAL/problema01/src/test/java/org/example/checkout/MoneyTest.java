@@ -0,0 +1,66 @@
+package org.example.checkout;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Money Tests")
+public class MoneyTest {
+
+    private static double referencia(double v) {
+        return BigDecimal.valueOf(v).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    @Test
+    @DisplayName("Should round half up on decimal ties")
+    public void testHalfUpTies() {
+        assertEquals(1.01, Money.round2(1.005), 0.0);
+        assertEquals(2.68, Money.round2(2.675), 0.0);
+        assertEquals(0.13, Money.round2(0.125), 0.0);
+        assertEquals(-1.01, Money.round2(-1.005), 0.0);
+    }
+
+    @Test
+    @DisplayName("Should convert to and from cents")
+    public void testCents() {
+        assertEquals(10050, Money.toCents(100.5));
+        assertEquals(29, Money.toCents(0.29));
+        assertEquals(-7, Money.toCents(-0.07));
+        assertEquals(123.45, Money.fromCents(12345), 0.0);
+    }
+
+    @Test
+    @DisplayName("Should match BigDecimal HALF_UP for arbitrary values")
+    public void testMatchesBigDecimal() {
+        Random rnd = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            double v;
+            switch (i % 3) {
+                case 0: v = rnd.nextDouble() * 1000; break;
+                case 1: v = (rnd.nextInt(2_000_000) - 1_000_000) / 1000.0; break;
+                default: v = rnd.nextInt(100_000) / 100.0 * 0.12; break;
+            }
+            assertEquals(referencia(v), Money.round2(v), 0.0, "valor " + v);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep BigDecimal behavior for large values")
+    public void testLargeValues() {
+        assertEquals(referencia(123456789.125), Money.round2(123456789.125), 0.0);
+        assertEquals(12345678912L, Money.toCents(123456789.115));
+    }
+
+    @Test
+    @DisplayName("Should reject values that do not fit in cents")
+    public void testCentsLimit() {
+        assertEquals(9_000_000_000_000_000_000L, Money.toCents(9e16));
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(1e17));
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(-1e17));
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(Double.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(Double.NaN));
+    }
+}
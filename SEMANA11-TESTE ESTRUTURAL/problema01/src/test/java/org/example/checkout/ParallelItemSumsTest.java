@@ -0,0 +1,98 @@
+package org.example.checkout;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ParallelItemSums Tests")
+public class ParallelItemSumsTest {
+
+    private final CategoryRegistry.ExemptSet isentas = CategoryRegistry.padrao().exempt();
+
+    private static List<Item> aleatorios(int n, long semente) {
+        Random r = new Random(semente);
+        List<Item> itens = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            itens.add(new Item(i % 5 == 0 ? "BOOK" : "ELETRÔNICOS", r.nextInt(100_000) / 100.0, 1 + r.nextInt(5)));
+        }
+        return itens;
+    }
+
+    private double[] somar(List<Item> itens, ForkJoinPool pool) {
+        double[] out = new double[2];
+        ParallelItemSums.somar(itens, isentas, out, pool);
+        return out;
+    }
+
+    @Test
+    @DisplayName("Should not drift where the plain sum does")
+    public void testCompensated() {
+        // um item grande seguido de muitos centavos: a soma simples perde os bits baixos
+        List<Item> itens = new ArrayList<>();
+        itens.add(new Item("ELETRÔNICOS", 1_000_000.0, 1));
+        BigDecimal exato = BigDecimal.valueOf(1_000_000.0);
+        double simples = 1_000_000.0;
+        for (int i = 0; i < 200_000; i++) {
+            itens.add(new Item("BOOK", 0.01, 1));
+            exato = exato.add(new BigDecimal(0.01));
+            simples += 0.01;
+        }
+        double[] out = somar(itens, ForkJoinPool.commonPool());
+        assertEquals(exato.doubleValue(), out[0], 0.0);
+        assertEquals(1_000_000.0, out[1], 0.0);
+        assertNotEquals(exato.doubleValue(), simples);
+    }
+
+    @Test
+    @DisplayName("Should give the same double on any pool and for any list type")
+    public void testDeterministic() {
+        List<Item> itens = aleatorios(100_003, 7L);
+        double[] comum = somar(itens, ForkJoinPool.commonPool());
+        ForkJoinPool um = new ForkJoinPool(1);
+        ForkJoinPool quatro = new ForkJoinPool(4);
+        try {
+            assertArrayEquals(comum, somar(itens, um), 0.0);
+            assertArrayEquals(comum, somar(itens, quatro), 0.0);
+        } finally {
+            um.shutdown();
+            quatro.shutdown();
+        }
+        assertArrayEquals(comum, somar(new LinkedList<>(itens), ForkJoinPool.commonPool()), 0.0);
+    }
+
+    @Test
+    @DisplayName("Should price large carts with the same cents as an exact sum")
+    public void testLargeCartCheckout() {
+        CheckoutService service = new CheckoutService(new CouponService(), new ShippingService());
+        List<Item> itens = aleatorios(ItemSums.MINIMO_PARALELO * 3 + 17, 11L);
+        BigDecimal exato = BigDecimal.ZERO;
+        for (Item i : itens) exato = exato.add(new BigDecimal(i.subtotal()));
+
+        CheckoutResult r = service.checkout(itens, CustomerTier.GOLD, false, "SUL", 2.0, null,
+                LocalDate.of(2025, 1, 15), null);
+        assertEquals(Money.toCents(exato.doubleValue()), r.subtotalCents);
+
+        // lines() confere o subtotal com a mesma soma
+        long soma = 0;
+        for (LineAllocation l : r.lines()) soma += l.subtotalCents;
+        assertEquals(r.subtotalCents, soma);
+    }
+
+    @Test
+    @DisplayName("Should keep the plain sum below the threshold")
+    public void testSmallCartUnchanged() {
+        List<Item> itens = aleatorios(ItemSums.MINIMO_PARALELO - 1, 3L);
+        double simples = 0.0;
+        for (Item i : itens) simples += i.subtotal();
+        double[] out = new double[2];
+        ItemSums.somar(itens, isentas, out);
+        assertEquals(simples, out[0], 0.0);
+    }
+}
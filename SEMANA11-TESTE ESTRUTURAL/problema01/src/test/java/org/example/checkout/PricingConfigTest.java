@@ -0,0 +1,216 @@
+package org.example.checkout;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PricingConfig Tests")
+public class PricingConfigTest {
+
+    private final LocalDate today = LocalDate.of(2025, 1, 15);
+    private CheckoutService service;
+    private Path dir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        service = new CheckoutService(new CouponService(), new ShippingService());
+        dir = Files.createTempDirectory("config");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> s = Files.walk(dir)) {
+            for (Path p : s.sorted(Comparator.reverseOrder()).toList()) Files.delete(p);
+        }
+    }
+
+    private static PricingConfig config(String texto) {
+        return PricingConfig.load(new StringReader(texto));
+    }
+
+    private List<Item> itens() {
+        List<Item> itens = new ArrayList<>();
+        itens.add(new Item("ELETRÔNICOS", 200.0, 1));
+        itens.add(new Item("BOOK", 50.0, 1));
+        return itens;
+    }
+
+    private CheckoutResult checkout(CustomerTier tier) {
+        return service.checkout(itens(), tier, true, "SUL", 2.0, null, today, null);
+    }
+
+    // escreve ao lado e renomeia por cima, como recomendado
+    private void gravar(Path arquivo, String texto) throws IOException {
+        Path tmp = dir.resolve("tmp");
+        Files.writeString(tmp, texto, StandardCharsets.UTF_8);
+        Files.move(tmp, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Test
+    @DisplayName("Should keep the fixed values by default")
+    public void testDefaults() {
+        PricingConfig c = PricingConfig.padrao();
+        assertEquals(0, c.version());
+        assertEquals(0.12, c.taxRate(), 0.0);
+        assertEquals(0.30, c.discountCap(), 0.0);
+        assertEquals(0.0, c.tierPercent(CustomerTier.BASIC), 0.0);
+        assertEquals(0.05, c.tierPercent(CustomerTier.SILVER), 0.0);
+        assertEquals(0.10, c.tierPercent(CustomerTier.GOLD), 0.0);
+        assertEquals(300.0, c.freeShippingThreshold(), 0.0);
+        assertTrue(config("").sameValues(c));
+        assertEquals(0, checkout(CustomerTier.GOLD).configVersion);
+    }
+
+    @Test
+    @DisplayName("Should override only the keys present in the file")
+    public void testLoad() {
+        PricingConfig c = config("versao=3\nimposto=0.2\ntier.gold=0.15\nfrete.gratisAPartirDe=1000\n");
+        assertEquals(3, c.version());
+        assertEquals(0.2, c.taxRate(), 0.0);
+        assertEquals(0.15, c.tierPercent(CustomerTier.GOLD), 0.0);
+        assertEquals(0.05, c.tierPercent(CustomerTier.SILVER), 0.0);
+        assertEquals(0.30, c.discountCap(), 0.0);
+        assertEquals(1000.0, c.freeShippingThreshold(), 0.0);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid files")
+    public void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> config("impostos=0.1"));
+        assertThrows(IllegalArgumentException.class, () -> config("imposto=1.5"));
+        assertThrows(IllegalArgumentException.class, () -> config("tier.PLATINA=0.1"));
+        assertThrows(IllegalArgumentException.class, () -> config("frete.gratisAPartirDe=-1"));
+        assertThrows(IllegalArgumentException.class, () -> config("teto=abc"));
+        assertThrows(IllegalArgumentException.class, () -> config("versao=0"));
+    }
+
+    @Test
+    @DisplayName("Should price with the published config and stamp its version")
+    public void testReload() {
+        CheckoutResult antes = checkout(CustomerTier.GOLD);
+        PricingConfig publicada = service.reload(config("imposto=0.20\ntier.GOLD=0.20\nfrete.gratisAPartirDe=100"));
+        assertEquals(1, publicada.version());
+        assertSame(publicada, service.config());
+
+        CheckoutResult depois = checkout(CustomerTier.GOLD);
+        assertEquals(1, depois.configVersion);
+        // 250 * (0.20 + 0.05) = 62.50; tributável 200/250 de 187.50 = 150 * 0.20 = 30; frete grátis
+        assertEquals(6250, depois.discountCents);
+        assertEquals(3000, depois.taxCents);
+        assertEquals(0, depois.shippingCents);
+        assertNotEquals(antes.totalCents, depois.totalCents);
+
+        assertEquals(2, service.reload(config("")).version());
+        assertEquals(antes.totalCents, checkout(CustomerTier.GOLD).totalCents);
+    }
+
+    @Test
+    @DisplayName("Should refuse an explicit version that does not increase")
+    public void testVersionMustIncrease() {
+        service.reload(config("versao=5"));
+        assertThrows(IllegalArgumentException.class, () -> service.reload(config("versao=5\nimposto=0.1")));
+        assertEquals(6, service.reload(config("imposto=0.1")).version());
+        assertEquals(9, service.reload(config("versao=9")).version());
+        assertThrows(IllegalArgumentException.class, () -> service.reload(config("versao=7")));
+        assertEquals(9, service.config().version());
+    }
+
+    @Test
+    @DisplayName("Should recompute a memoized cart after a reload")
+    public void testCartSeesReload() {
+        Cart cart = new Cart(service, today).add(new Item("ELETRÔNICOS", 200.0, 1));
+        CheckoutResult antes = cart.quote();
+        assertSame(antes, cart.quote());
+        service.reload(config("imposto=0.5"));
+        CheckoutResult depois = cart.quote();
+        assertEquals(1, depois.configVersion);
+        assertEquals(10000, depois.taxCents);
+        assertEquals(service.checkout(cart.getItens(), CustomerTier.BASIC, false, null, 0.0, null, today, null).totalCents,
+                depois.totalCents);
+    }
+
+    @Test
+    @DisplayName("Should give every concurrent checkout the values of exactly one version")
+    public void testReadersDuringSwaps() throws Exception {
+        // versão ímpar: imposto 0.5; par: padrão
+        AtomicBoolean parar = new AtomicBoolean();
+        AtomicReference<String> erro = new AtomicReference<>();
+        long padrao = checkout(CustomerTier.BASIC).taxCents;
+        service.reload(config("imposto=0.5"));
+        long alto = checkout(CustomerTier.BASIC).taxCents;
+
+        List<Thread> leitores = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread th = new Thread(() -> {
+                while (!parar.get()) {
+                    CheckoutResult r = checkout(CustomerTier.BASIC);
+                    long esperado = r.configVersion % 2 == 1 ? alto : padrao;
+                    if (r.taxCents != esperado) erro.set("versão " + r.configVersion + " com imposto " + r.taxCents);
+                }
+            });
+            th.start();
+            leitores.add(th);
+        }
+        for (int i = 0; i < 2_000; i++) service.reload(config(i % 2 == 0 ? "" : "imposto=0.5"));
+        parar.set(true);
+        for (Thread th : leitores) th.join();
+        assertNull(erro.get());
+        assertEquals(2_001, service.config().version());
+    }
+
+    @Test
+    @DisplayName("Should publish file changes and keep the current config when the file is invalid")
+    public void testWatcher() throws Exception {
+        Path arquivo = dir.resolve("precos.properties");
+        gravar(arquivo, "imposto=0.2\n");
+        try (PricingConfigWatcher watcher = new PricingConfigWatcher(arquivo, service)) {
+            assertEquals(1, service.config().version());
+            assertEquals(0.2, service.config().taxRate(), 0.0);
+
+            gravar(arquivo, "imposto=0.3\n");
+            esperar(() -> service.config().version() == 2);
+            assertEquals(0.3, service.config().taxRate(), 0.0);
+
+            gravar(arquivo, "imposto=3\n");
+            esperar(() -> watcher.failures() == 1);
+            assertEquals(2, service.config().version());
+            assertNotNull(watcher.lastError());
+
+            // mesmos valores: nenhuma versão nova
+            gravar(arquivo, "imposto=0.3\n");
+            assertFalse(watcher.recarregar());
+            assertEquals(2, service.config().version());
+        }
+        assertThrows(IllegalArgumentException.class, () -> {
+            gravar(arquivo, "teto=x\n");
+            new PricingConfigWatcher(arquivo, service).close();
+        });
+    }
+
+    private interface Condicao {
+        boolean ok();
+    }
+
+    private static void esperar(Condicao c) throws InterruptedException {
+        long limite = System.nanoTime() + 10_000_000_000L;
+        while (!c.ok()) {
+            if (System.nanoTime() > limite) fail("tempo esgotado");
+            Thread.sleep(10);
+        }
+    }
+}
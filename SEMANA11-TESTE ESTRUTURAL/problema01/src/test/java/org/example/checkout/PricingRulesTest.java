@@ -0,0 +1,102 @@
+package org.example.checkout;
+
+import org.example.checkout.metrics.CheckoutMetrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PricingRules Tests")
+public class PricingRulesTest {
+
+    private final LocalDate today = LocalDate.of(2025, 1, 1);
+
+    private static PricingRules regras(String texto) {
+        return PricingRules.load(new StringReader(texto));
+    }
+
+    private static CheckoutService com(PricingRules rules) {
+        return new CheckoutService(new CouponService(), new ShippingService(), CheckoutMetrics.NOOP, rules);
+    }
+
+    @Test
+    @DisplayName("Should match the hard-coded rules with the default rule file")
+    public void testDefaultMatchesHardCoded() {
+        CheckoutService fixo = new CheckoutService(new CouponService(), new ShippingService());
+        CheckoutService regras = com(PricingRules.padrao());
+        String[] cupons = {null, "DESC10", "DESC20", "FRETEGRATIS"};
+        for (CustomerTier tier : CustomerTier.values()) {
+            for (boolean primeira : new boolean[] {false, true}) {
+                for (String cupom : cupons) {
+                    for (double preco : new double[] {0.0, 10.0, 49.99, 50.0, 99.99, 100.0, 300.0, 1234.56}) {
+                        List<Item> items = new ArrayList<>();
+                        items.add(new Item("ELETRÔNICOS", preco, 1));
+                        items.add(new Item("BOOK", 12.5, 2));
+                        CheckoutResult a = fixo.checkout(items, tier, primeira, "SUL", 2.0, cupom, today, today);
+                        CheckoutResult b = regras.checkout(items, tier, primeira, "SUL", 2.0, cupom, today, today);
+                        assertEquals(a.discountCents, b.discountCents);
+                        assertEquals(a.taxCents, b.taxCents);
+                        assertEquals(a.totalCents, b.totalCents);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply custom rules, conjunctions and cap")
+    public void testCustomRules() {
+        PricingRules r = regras(
+                "desconto 0.02\n"
+                + "desconto 0.08 se tier = basic e subtotal > 200   # campanha\n"
+                + "teto 0.25\n"
+                + "imposto 0.10\n");
+        assertEquals(0.02, r.discountPercent(20000, CustomerTier.BASIC, false, 0.0), 1e-12);
+        assertEquals(0.10, r.discountPercent(20001, CustomerTier.BASIC, false, 0.0), 1e-12);
+        assertEquals(0.02, r.discountPercent(20001, CustomerTier.GOLD, true, 0.0), 1e-12);
+        assertEquals(0.25, r.discountPercent(20001, CustomerTier.BASIC, false, 0.20), 1e-12);
+        assertEquals(0.10, r.taxRate(), 0.0);
+        assertEquals(0.25, r.cap(), 0.0);
+
+        List<Item> items = new ArrayList<>();
+        items.add(new Item("ELETRÔNICOS", 100.0, 1));
+        CheckoutResult res = com(r).checkout(items, CustomerTier.BASIC, false, "SUL", 2.0, null, today, null);
+        assertEquals(2.0, res.discountValue, 0.001);
+        assertEquals(9.8, res.tax, 0.001);
+    }
+
+    @Test
+    @DisplayName("Should give each rule set its own compiled chain")
+    public void testOwnChainPerRuleSet() {
+        PricingRules a = regras("desconto 0.05\n");
+        PricingRules b = regras("desconto 0.07 se tier = GOLD\n");
+        assertTrue(a.classeCadeia().isHidden());
+        assertNotSame(a.classeCadeia(), b.classeCadeia());
+
+        CheckoutService sa = com(a);
+        List<Item> items = List.of(new Item("ELETRÔNICOS", 100.0, 1));
+        for (int i = 0; i < 3; i++) {
+            com(b);   // criar outro serviço não mexe nas regras do primeiro
+            assertEquals(0.05, a.discountPercent(1000, CustomerTier.BASIC, false, 0.0), 1e-12);
+            assertEquals(0.07, b.discountPercent(1000, CustomerTier.GOLD, false, 0.0), 1e-12);
+            assertEquals(0.15, a.discountPercent(1000, CustomerTier.GOLD, false, 0.10), 1e-12);
+            assertEquals(0.0, b.discountPercent(1000, CustomerTier.SILVER, false, 0.0), 1e-12);
+            assertEquals(5.0, sa.checkout(items, CustomerTier.GOLD, false, "SUL", 2.0, null, today, null).discountValue, 0.001);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject malformed rules with the line number")
+    public void testInvalidRules() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> regras("teto 0.3\ndesconto 0.1 se tier = PLATINA\n"));
+        assertTrue(e.getMessage().startsWith("linha 2"));
+        assertThrows(IllegalArgumentException.class, () -> regras("desconto 1.5\n"));
+        assertThrows(IllegalArgumentException.class, () -> regras("desconto 0.1 se subtotal ~ 10\n"));
+        assertThrows(IllegalArgumentException.class, () -> regras("desconto 0.1 se primeiraCompra ou tier = GOLD\n"));
+        assertThrows(IllegalArgumentException.class, () -> regras("frete 10\n"));
+    }
+}
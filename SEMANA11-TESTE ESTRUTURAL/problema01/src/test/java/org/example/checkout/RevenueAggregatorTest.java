@@ -0,0 +1,159 @@
+package org.example.checkout;
+
+import org.example.checkout.metrics.CheckoutMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RevenueAggregator Tests")
+public class RevenueAggregatorTest {
+
+    private final LocalDate today = LocalDate.of(2025, 1, 15);
+    private final AtomicLong relogio = new AtomicLong(1_000_000_000L);
+    private RevenueAggregator receita;
+    private CheckoutService service;
+
+    @BeforeEach
+    public void setUp() {
+        receita = new RevenueAggregator(relogio::get);
+        service = new CheckoutService(new CouponService(), new ShippingService(), CheckoutMetrics.NOOP, null,
+                PricingConfig.padrao(), receita);
+    }
+
+    private CheckoutResult checkout(CustomerTier tier, String region, String cupom) {
+        List<Item> itens = new ArrayList<>();
+        itens.add(new Item("ELETRÔNICOS", 100.0, 1));
+        itens.add(new Item("BOOK", 50.0, 2));
+        return service.checkout(itens, tier, false, region, 2.0, cupom, today, null);
+    }
+
+    private void avancar(Duration d) {
+        relogio.addAndGet(d.toNanos());
+    }
+
+    @Test
+    @DisplayName("Should sum every priced checkout in cents by region, tier and coupon")
+    public void testBreakdown() {
+        CheckoutResult a = checkout(CustomerTier.GOLD, "SUL", "DESC10");
+        CheckoutResult b = checkout(CustomerTier.GOLD, "sul ", "desc10");
+        CheckoutResult c = checkout(CustomerTier.BASIC, null, "NAOEXISTE");
+        CheckoutResult d = checkout(CustomerTier.SILVER, "NORTE", null);
+
+        RevenueAggregator.Snapshot s = receita.lastMinute();
+        RevenueAggregator.Totals t = s.total();
+        assertEquals(4, t.checkouts);
+        assertEquals(a.totalCents + b.totalCents + c.totalCents + d.totalCents, t.totalCents);
+        assertEquals(a.discountCents + b.discountCents + c.discountCents + d.discountCents, t.discountCents);
+        assertEquals(a.taxCents + b.taxCents + c.taxCents + d.taxCents, t.taxCents);
+        assertEquals(a.shippingCents + b.shippingCents + c.shippingCents + d.shippingCents, t.shippingCents);
+        assertEquals(a.subtotalCents * 4, t.subtotalCents);
+
+        Map<String, RevenueAggregator.Totals> regioes = s.byRegion();
+        assertEquals(2, regioes.get("SUL").checkouts);
+        assertEquals(1, regioes.get(null).checkouts);
+        assertEquals(d.totalCents, regioes.get("NORTE").totalCents);
+
+        // cupom que não valeu conta como sem cupom
+        Map<String, RevenueAggregator.Totals> cupons = s.byCoupon();
+        assertEquals(2, cupons.get("DESC10").checkouts);
+        assertEquals(2, cupons.get(null).checkouts);
+        assertFalse(cupons.containsKey("NAOEXISTE"));
+
+        assertEquals(2, s.byTier().get(CustomerTier.GOLD).checkouts);
+        assertEquals(d.totalCents, s.byTier().get(CustomerTier.SILVER).totalCents);
+        assertEquals(3, s.rows().size());
+    }
+
+    @Test
+    @DisplayName("Should count only what falls inside each window")
+    public void testWindows() {
+        checkout(CustomerTier.BASIC, "SUL", null);
+        avancar(Duration.ofMinutes(3));
+        checkout(CustomerTier.BASIC, "SUL", null);
+        checkout(CustomerTier.BASIC, "SUL", null);
+        avancar(Duration.ofSeconds(30));
+
+        assertEquals(2, receita.lastMinute().total().checkouts);
+        assertEquals(3, receita.last5Minutes().total().checkouts);
+        assertEquals(3, receita.lastHour().total().checkouts);
+        assertEquals(Duration.ofMinutes(1), receita.lastMinute().window);
+        assertEquals(Duration.ofSeconds(10), receita.snapshot(Duration.ofSeconds(7)).window);
+
+        // 60m30s: o primeiro saiu da última hora, os de 3m ainda não
+        avancar(Duration.ofMinutes(57));
+        assertEquals(2, receita.lastHour().total().checkouts);
+        avancar(Duration.ofMinutes(3));
+        assertEquals(0, receita.lastHour().total().checkouts);
+
+        // o anel dá a volta: a fatia reaproveitada começa do zero
+        checkout(CustomerTier.GOLD, "NORTE", null);
+        RevenueAggregator.Snapshot s = receita.lastHour();
+        assertEquals(1, s.total().checkouts);
+        assertNull(s.byRegion().get("SUL"));
+
+        assertThrows(IllegalArgumentException.class, () -> receita.snapshot(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> receita.snapshot(Duration.ofMinutes(61)));
+    }
+
+    @Test
+    @DisplayName("Should notify for batch, reserving and best coupon checkouts but not cart quotes")
+    public void testEntryPoints() {
+        ItemBatch lote = new ItemBatch(2);
+        lote.add(new Item("ELETRÔNICOS", 100.0, 1));
+        service.checkoutBatch(lote, CustomerTier.BASIC, false, "SUL", 1.0, null, today, null);
+
+        ReservedCheckout reserva = service.checkoutReserving(List.of(new Item("BOOK", 10.0, 1)), CustomerTier.BASIC,
+                false, "SUL", 1.0, "DESC10", today, null);
+        reserva.commit();
+
+        BestCoupon melhor = service.checkoutBestCoupon(List.of(new Item("BOOK", 200.0, 1)), CustomerTier.BASIC,
+                false, "SUL", 1.0, List.of("DESC10", "DESC20"), today, null);
+        assertEquals("DESC20", melhor.couponCode);
+
+        new Cart(service, today).add(new Item("BOOK", 10.0, 1)).quote();
+
+        RevenueAggregator.Snapshot s = receita.lastMinute();
+        assertEquals(3, s.total().checkouts);
+        assertEquals(1, s.byCoupon().get("DESC10").checkouts);
+        assertEquals(melhor.result.totalCents, s.byCoupon().get("DESC20").totalCents);
+    }
+
+    @Test
+    @DisplayName("Should fold regions beyond the limit into OUTRAS")
+    public void testRegionLimit() {
+        for (int i = 0; i < RevenueAggregator.MAX_REGIOES + 10; i++) checkout(CustomerTier.BASIC, "R" + i, null);
+        Map<String, RevenueAggregator.Totals> regioes = receita.lastMinute().byRegion();
+        assertEquals(RevenueAggregator.MAX_REGIOES + 1, regioes.size());
+        assertEquals(10, regioes.get(RevenueAggregator.OUTRAS).checkouts);
+    }
+
+    @Test
+    @DisplayName("Should lose no checkout under concurrent recording")
+    public void testConcurrent() throws InterruptedException {
+        CheckoutResult um = checkout(CustomerTier.GOLD, "SUL", "DESC10");
+        int threads = 8;
+        int porThread = 5_000;
+        List<Thread> ts = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            CustomerTier tier = CustomerTier.values()[t % 3];
+            Thread th = new Thread(() -> {
+                for (int i = 0; i < porThread; i++) receita.onCheckout(tier, i % 2 == 0 ? "SUL" : "NORTE", "DESC10", um);
+            });
+            th.start();
+            ts.add(th);
+        }
+        for (Thread th : ts) th.join();
+        RevenueAggregator.Totals t = receita.lastMinute().total();
+        long n = 1 + (long) threads * porThread;
+        assertEquals(n, t.checkouts);
+        assertEquals(n * um.totalCents, t.totalCents);
+        assertEquals(n * um.discountCents, t.discountCents);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.checkout;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.StringReader;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ShippingRateTable Tests")
+public class ShippingRateTableTest {
+
+    private static ShippingRateTable tabela(String csv) {
+        return ShippingRateTable.load(new StringReader(csv));
+    }
+
+    @Test
+    @DisplayName("Should keep default table output for every region and band edge")
+    public void testDefaultTableMatchesRules() {
+        ShippingService service = new ShippingService();
+        double[] pesos = {0.0, 2.0, 2.01, 5.0, 5.01, 100.0};
+        double[] sul = {20, 20, 35, 35, 50, 50};
+        double[] norte = {30, 30, 55, 55, 80, 80};
+        for (int i = 0; i < pesos.length; i++) {
+            assertEquals(sul[i], service.calculate("SUL", pesos[i], 100.0, false), 0.0);
+            assertEquals(sul[i], service.calculate(" sudeste ", pesos[i], 100.0, false), 0.0);
+            assertEquals(norte[i], service.calculate("norte", pesos[i], 100.0, false), 0.0);
+            assertEquals(40.0, service.calculate("CENTRO-OESTE", pesos[i], 100.0, false), 0.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should resolve region index once and reuse it")
+    public void testRegionIndex() {
+        ShippingService service = new ShippingService();
+        int sul = service.regionIndex("SUL");
+        assertEquals(sul, service.regionIndex("sul"));
+        assertEquals(service.regionIndex(null), service.regionIndex("XYZ"));
+        assertEquals(50.0, service.calculate(sul, 7.0, 100.0, false), 0.0);
+    }
+
+    @Test
+    @DisplayName("Should support custom regions and finer weight bands")
+    public void testCustomTable() {
+        ShippingRateTable t = tabela("regiao,1,2,5,10,*\nSP,10,12,15,20,30\nRS,11,14,18,25,35\n*,50,50,50,50,60\n");
+        ShippingService service = new ShippingService(t);
+        assertEquals(10.0, service.calculate("SP", 0.5, 100.0, false), 0.0);
+        assertEquals(12.0, service.calculate("SP", 1.5, 100.0, false), 0.0);
+        assertEquals(25.0, service.calculate("RS", 10.0, 100.0, false), 0.0);
+        assertEquals(60.0, service.calculate("AM", 11.0, 100.0, false), 0.0);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed CSV")
+    public void testInvalidCsv() {
+        assertThrows(IllegalArgumentException.class, () -> tabela("regiao,2,5\nSUL,20,35\n*,40,40\n"));
+        assertThrows(IllegalArgumentException.class, () -> tabela("regiao,5,2,*\nSUL,20,35,50\n*,40,40,40\n"));
+        assertThrows(IllegalArgumentException.class, () -> tabela("regiao,2,*\nSUL,20\n*,40,40\n"));
+        assertThrows(IllegalArgumentException.class, () -> tabela("regiao,2,*\nSUL,20,35\n"));
+    }
+}
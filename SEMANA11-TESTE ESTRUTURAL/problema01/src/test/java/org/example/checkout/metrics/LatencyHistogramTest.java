@@ -0,0 +1,63 @@
+package org.example.checkout.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LatencyHistogram Tests")
+public class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Should place values in buckets within 3% relative error")
+    public void testBucketPrecision() {
+        for (long v : new long[]{0, 1, 31, 32, 33, 1000, 123_456, 9_999_999_999L, Long.MAX_VALUE / 2}) {
+            int i = LatencyHistogram.indice(v);
+            long superior = LatencyHistogram.limiteSuperior(i);
+            assertTrue(superior >= v, "v=" + v);
+            assertTrue(superior - v <= Math.max(0, v / 32), "v=" + v);
+        }
+    }
+
+    @Test
+    @DisplayName("Should report percentiles, mean and max")
+    public void testPercentiles() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 1000; v++) h.record(v * 1000);
+        LatencyHistogram.Snapshot s = h.snapshot();
+
+        assertEquals(1000, s.getCount());
+        assertEquals(1_000_000, s.getMax());
+        assertEquals(500_500.0, s.getMean(), 0.0);
+        assertEquals(500_000, s.percentile(50), 500_000 / 32.0);
+        assertEquals(990_000, s.percentile(99), 990_000 / 32.0);
+        assertEquals(1_000_000, s.percentile(100));
+
+        h.reset();
+        assertEquals(0, h.snapshot().getCount());
+        assertEquals(0, h.snapshot().percentile(99));
+    }
+
+    @Test
+    @DisplayName("Should expose stage stats through JMX")
+    public void testJmx() throws Exception {
+        HistogramCheckoutMetrics metrics = new HistogramCheckoutMetrics();
+        metrics.record(CheckoutStage.FRETE, 1500);
+        metrics.record(CheckoutStage.FRETE, 2500);
+
+        ObjectName on = JmxCheckoutMetrics.register(metrics, "teste");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            CompositeData frete = (CompositeData) server.getAttribute(on, "Frete");
+            assertEquals(2L, frete.get("count"));
+            assertEquals(2500L, frete.get("maxNanos"));
+            CompositeData cupom = (CompositeData) server.getAttribute(on, "Cupom");
+            assertEquals(0L, cupom.get("count"));
+        } finally {
+            JmxCheckoutMetrics.unregister("teste");
+        }
+    }
+}
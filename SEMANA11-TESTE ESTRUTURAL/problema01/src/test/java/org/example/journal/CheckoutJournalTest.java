@@ -0,0 +1,220 @@
+package org.example.journal;
+
+import org.example.checkout.CheckoutCodec;
+import org.example.checkout.CheckoutRequest;
+import org.example.checkout.CheckoutResult;
+import org.example.checkout.CheckoutService;
+import org.example.checkout.CouponCatalog;
+import org.example.checkout.CouponService;
+import org.example.checkout.CustomerTier;
+import org.example.checkout.Item;
+import org.example.checkout.PricingConfig;
+import org.example.checkout.ShippingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CheckoutJournal Tests")
+public class CheckoutJournalTest {
+
+    private final LocalDate today = LocalDate.of(2025, 1, 15);
+    private CheckoutService service;
+    private Path dir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        service = new CheckoutService(new CouponService(), new ShippingService());
+        dir = Files.createTempDirectory("journal");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> s = Files.walk(dir)) {
+            for (Path p : s.sorted(Comparator.reverseOrder()).toList()) Files.delete(p);
+        }
+    }
+
+    private CheckoutRequest pedido(int i) {
+        List<Item> itens = new ArrayList<>();
+        itens.add(new Item("ELETRÔNICOS", 100.0 + i, 1 + i % 3));
+        itens.add(new Item("BOOK", 35.9, 1));
+        return new CheckoutRequest(itens, CustomerTier.values()[i % 3], i % 2 == 0, "SUL", 2.0,
+                i % 4 == 0 ? "DESC20" : null, today, today.plusDays(5));
+    }
+
+    private CheckoutResult precificar(CheckoutRequest p) {
+        return service.checkout(p.itens, p.tier, p.primeiraCompra, p.region, p.peso,
+                p.couponCode, p.today, p.couponExpiryInclusive);
+    }
+
+    private List<Path> segmentos() throws IOException {
+        return JournalReader.segmentos(dir);
+    }
+
+    @Test
+    @DisplayName("Should read back every appended checkout in order")
+    public void testAppendAndRead() throws Exception {
+        try (CheckoutJournal journal = new CheckoutJournal(dir)) {
+            long pos = 0;
+            for (int i = 0; i < 100; i++) {
+                CheckoutRequest p = pedido(i);
+                pos = journal.append(p, precificar(p));
+            }
+            journal.awaitDurable(pos);
+            assertTrue(journal.durable() >= pos);
+        }
+
+        List<CheckoutResult> lidos = new ArrayList<>();
+        List<CheckoutRequest> pedidos = new ArrayList<>();
+        JournalReader leitor = new JournalReader(dir);
+        assertEquals(100, leitor.forEach((p, r) -> {
+            pedidos.add(p);
+            lidos.add(r);
+        }));
+        assertEquals(0, leitor.corrompidos());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(precificar(pedido(i)).totalCents, lidos.get(i).totalCents);
+            assertEquals(pedido(i).itens.get(0).getPrecoUnitario(), pedidos.get(i).itens.get(0).getPrecoUnitario(), 0.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should roll over to new segments and continue in a new one after reopening")
+    public void testRolloverAndReopen() throws Exception {
+        try (CheckoutJournal journal = new CheckoutJournal(dir, 1024, 1)) {
+            for (int i = 0; i < 50; i++) journal.append(pedido(i), precificar(pedido(i)));
+        }
+        int depoisDaPrimeira = segmentos().size();
+        assertTrue(depoisDaPrimeira > 1);
+
+        try (CheckoutJournal journal = new CheckoutJournal(dir, 1024, 1)) {
+            journal.append(pedido(0), precificar(pedido(0)));
+        }
+        assertEquals(depoisDaPrimeira + 1, segmentos().size());
+        assertEquals(51, new JournalReader(dir).forEach((p, r) -> { }));
+    }
+
+    @Test
+    @DisplayName("Should report no drift when prices are unchanged")
+    public void testReplayWithoutDrift() throws Exception {
+        try (CheckoutJournal journal = new CheckoutJournal(dir)) {
+            for (int i = 0; i < 20; i++) journal.append(pedido(i), precificar(pedido(i)));
+        }
+        JournalReplay.Relatorio r = JournalReplay.replay(dir, service, 10);
+        assertEquals(20, r.registros);
+        assertEquals(0, r.divergencias);
+        assertTrue(r.exemplos.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should report drift when the coupon catalog changed")
+    public void testReplayDetectsDrift() throws Exception {
+        try (CheckoutJournal journal = new CheckoutJournal(dir)) {
+            for (int i = 0; i < 20; i++) journal.append(pedido(i), precificar(pedido(i)));
+        }
+        CouponService semDesc20 = new CouponService(CouponCatalog.load(new StringReader("cupom.DESC10.percentual=0.10\n")));
+        CheckoutService atual = new CheckoutService(semDesc20, new ShippingService());
+
+        JournalReplay.Relatorio r = JournalReplay.replay(dir, atual, 2);
+        assertEquals(20, r.registros);
+        assertEquals(5, r.divergencias);   // pedidos 0, 4, 8, 12, 16 usavam DESC20
+        assertEquals(2, r.exemplos.size());
+        assertTrue(r.exemplos.get(0).contains("DESC20"));
+    }
+
+    @Test
+    @DisplayName("Should compare only records priced with the service's config version")
+    public void testReplaySkipsOtherConfigVersions() throws Exception {
+        try (CheckoutJournal journal = new CheckoutJournal(dir)) {
+            for (int i = 0; i < 10; i++) journal.append(pedido(i), precificar(pedido(i)));
+            service.reload(PricingConfig.load(new StringReader("versao=3\nimposto=0.20\n")));
+            for (int i = 0; i < 5; i++) journal.append(pedido(i), precificar(pedido(i)));
+        }
+
+        JournalReplay.Relatorio r = JournalReplay.replay(dir, service, 10);
+        assertEquals(15, r.registros);
+        assertEquals(10, r.outraVersao);
+        assertEquals(0, r.divergencias);
+
+        CheckoutService padrao = new CheckoutService(new CouponService(), new ShippingService());
+        JournalReplay.Relatorio antigos = JournalReplay.replay(dir, padrao, 10);
+        assertEquals(5, antigos.outraVersao);
+        assertEquals(0, antigos.divergencias);
+    }
+
+    @Test
+    @DisplayName("Should stop at a torn record and count it as corrupted")
+    public void testTornRecord() throws Exception {
+        try (CheckoutJournal journal = new CheckoutJournal(dir)) {
+            for (int i = 0; i < 3; i++) journal.append(pedido(i), precificar(pedido(i)));
+        }
+        Path arquivo = segmentos().get(0);
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.WRITE, StandardOpenOption.READ)) {
+            // último byte do terceiro registro: quantidade do último item
+            ByteBuffer b = ByteBuffer.allocate(4);
+            int fim = 8;
+            for (int i = 0; i < 3; i++) {
+                b.clear();
+                canal.read(b, fim);
+                fim += 8 + CheckoutCodec.TAMANHO_RESULTADO + b.flip().getInt();
+            }
+            canal.write(ByteBuffer.wrap(new byte[] {0x7F}), fim - 1);
+        }
+        JournalReader leitor = new JournalReader(dir);
+        assertEquals(2, leitor.forEach((p, r) -> { }));
+        assertEquals(1, leitor.corrompidos());
+    }
+
+    @Test
+    @DisplayName("Should keep the config version and still read version 1 segments")
+    public void testConfigVersionAndOldSegments() throws Exception {
+        CheckoutRequest p = pedido(1);
+        CheckoutResult r = precificar(p);
+
+        // segmento CKJ1 escrito à mão: resultado sem configVersion, tudo com versão 1 do codec
+        ByteBuffer registro = ByteBuffer.allocate(CheckoutCodec.resultSize(1) + CheckoutCodec.encodedSize(p));
+        registro.put((byte) 1).put((byte) 2);
+        for (long v : new long[] {r.subtotalCents, r.discountCents, r.taxCents, r.shippingCents, r.totalCents}) {
+            registro.putLong(v);
+        }
+        int inicioPedido = registro.position();
+        CheckoutCodec.encode(p, registro);
+        registro.put(inicioPedido, (byte) 1);
+        CRC32C crc = new CRC32C();
+        crc.update(registro.array());
+        ByteBuffer segmento = ByteBuffer.allocate(16 + registro.capacity() + 4);
+        segmento.putInt(CheckoutJournal.MAGICO_V1).putInt(1);
+        segmento.putInt(CheckoutCodec.encodedSize(p)).putInt((int) crc.getValue()).put(registro.array());
+        Files.write(dir.resolve(CheckoutJournal.nome(1)), segmento.array());
+
+        // o diário reaberto continua num segmento CKJ2, agora com a versão
+        service.reload(PricingConfig.load(new StringReader("versao=7\n")));
+        CheckoutResult versionado = precificar(p);
+        try (CheckoutJournal journal = new CheckoutJournal(dir)) {
+            journal.append(p, versionado);
+        }
+
+        List<CheckoutResult> lidos = new ArrayList<>();
+        JournalReader leitor = new JournalReader(dir);
+        assertEquals(2, leitor.forEach((pedido, lido) -> lidos.add(lido)));
+        assertEquals(0, leitor.corrompidos());
+        assertEquals(r.totalCents, lidos.get(0).totalCents);
+        assertEquals(0, lidos.get(0).configVersion);
+        assertEquals(7, lidos.get(1).configVersion);
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.server;
+
+import org.example.checkout.CheckoutService;
+import org.example.checkout.CouponService;
+import org.example.checkout.PricingConfig;
+import org.example.checkout.RevenueAggregator;
+import org.example.checkout.ShippingService;
+import org.example.checkout.metrics.CheckoutMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PricingServer Tests")
+public class PricingServerTest {
+
+    private PricingServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new PricingServer(new CheckoutService(new CouponService(), new ShippingService()), 0).start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    private HttpResponse<String> post(String caminho, String corpo) throws Exception {
+        HttpRequest req = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPorta() + caminho))
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+        return client.send(req, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String caminho, String corpo, String chave) throws Exception {
+        HttpRequest req = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPorta() + caminho))
+                .header("Idempotency-Key", chave)
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+        return client.send(req, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    @DisplayName("Should price a JSON cart")
+    public void testCheckout() throws Exception {
+        HttpResponse<String> r = post("/checkout",
+                "{\"itens\":[{\"categoria\":\"ELETRÔNICOS\",\"precoUnitario\":100,\"quantidade\":1}],"
+                        + "\"regiao\":\"SUL\",\"peso\":2,\"hoje\":\"2025-01-01\"}");
+        assertEquals(200, r.statusCode());
+        Map<?, ?> json = (Map<?, ?>) Json.parse(r.body());
+        assertEquals(12.0, (Double) json.get("tax"), 0.0);
+        assertEquals(132.0, (Double) json.get("total"), 0.0);
+    }
+
+    @Test
+    @DisplayName("Should answer a repeated Idempotency-Key with the same result and reject reuse with another cart")
+    public void testIdempotencyKey() throws Exception {
+        String carrinho = "{\"itens\":[{\"categoria\":\"BOOK\",\"precoUnitario\":100,\"quantidade\":1}],\"regiao\":\"SUL\",\"hoje\":\"2025-01-01\"}";
+        HttpResponse<String> primeira = post("/checkout", carrinho, "pedido-1");
+        HttpResponse<String> repetida = post("/checkout", carrinho, "pedido-1");
+        assertEquals(200, primeira.statusCode());
+        assertEquals(200, repetida.statusCode());
+        assertEquals(primeira.body(), repetida.body());
+        assertEquals(422, post("/checkout", carrinho.replace("100", "200"), "pedido-1").statusCode());
+        assertEquals(400, post("/checkout", carrinho, "").statusCode());
+    }
+
+    @Test
+    @DisplayName("Should serve windowed revenue totals fed by the service")
+    public void testRevenue() throws Exception {
+        RevenueAggregator receita = new RevenueAggregator();
+        CheckoutService service = new CheckoutService(new CouponService(), new ShippingService(),
+                CheckoutMetrics.NOOP, null, PricingConfig.padrao(), receita);
+        try (PricingServer s = new PricingServer(service, 0, null, receita).start()) {
+            String base = "http://localhost:" + s.getPorta();
+            String carrinho = "{\"itens\":[{\"categoria\":\"ELETRÔNICOS\",\"precoUnitario\":100,\"quantidade\":1}],"
+                    + "\"regiao\":\"SUL\",\"peso\":2,\"cupom\":\"DESC10\",\"hoje\":\"2025-01-01\"}";
+            for (int i = 0; i < 2; i++) {
+                HttpRequest req = HttpRequest.newBuilder(URI.create(base + "/checkout"))
+                        .POST(HttpRequest.BodyPublishers.ofString(carrinho)).build();
+                assertEquals(200, client.send(req, HttpResponse.BodyHandlers.ofString()).statusCode());
+            }
+
+            HttpResponse<String> r = client.send(HttpRequest.newBuilder(URI.create(base + "/receita?janela=5m")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, r.statusCode());
+            Map<?, ?> json = (Map<?, ?>) Json.parse(r.body());
+            assertEquals(300.0, (Double) json.get("janelaSegundos"), 0.0);
+            Map<?, ?> total = (Map<?, ?>) json.get("total");
+            assertEquals(2.0, (Double) total.get("pedidos"), 0.0);
+            // 100 - 10 + 10.80 de imposto + 20 de frete, duas vezes
+            assertEquals(24160.0, (Double) total.get("totalCentavos"), 0.0);
+            assertEquals(2000.0, (Double) ((Map<?, ?>) ((Map<?, ?>) json.get("cupons")).get("DESC10")).get("descontoCentavos"), 0.0);
+            assertNotNull(((Map<?, ?>) json.get("regioes")).get("SUL"));
+            assertNotNull(((Map<?, ?>) json.get("tiers")).get("BASIC"));
+
+            assertEquals(400, client.send(HttpRequest.newBuilder(URI.create(base + "/receita?janela=2h")).build(),
+                    HttpResponse.BodyHandlers.ofString()).statusCode());
+        }
+        // sem agregador, não há rota
+        assertEquals(404, client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPorta() + "/receita")).build(),
+                HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid cart with 400")
+    public void testBadRequest() throws Exception {
+        assertEquals(400, post("/checkout", "{\"itens\":[]}").statusCode());
+        assertEquals(400, post("/checkout", "{\"itens\":[{\"categoria\":\"A\",\"precoUnitario\":-1,\"quantidade\":1}],\"hoje\":\"2025-01-01\"}").statusCode());
+        assertEquals(400, post("/checkout", "nada").statusCode());
+    }
+
+    @Test
+    @DisplayName("Should answer 400 for amounts that do not fit in cents")
+    public void testAmountTooLarge() throws Exception {
+        String enorme = "{\"itens\":[{\"categoria\":\"A\",\"precoUnitario\":1e17,\"quantidade\":1}],\"hoje\":\"2025-01-01\"}";
+        HttpResponse<String> r = post("/checkout", enorme);
+        assertEquals(400, r.statusCode());
+        assertTrue(((Map<?, ?>) Json.parse(r.body())).containsKey("erro"));
+        // longe do limite, com imposto e frete, ainda cabe
+        assertEquals(200, post("/checkout", enorme.replace("1e17", "9e14")).statusCode());
+
+        List<String> linhas = post("/checkout/batch", enorme + "\n").body().lines().toList();
+        assertTrue(((Map<?, ?>) Json.parse(linhas.get(0))).containsKey("erro"));
+    }
+
+    @Test
+    @DisplayName("Should stream one NDJSON result per cart line in order")
+    public void testBatch() throws Exception {
+        String corpo = "{\"itens\":[{\"categoria\":\"BOOK\",\"precoUnitario\":100,\"quantidade\":1}],\"regiao\":\"SUL\",\"hoje\":\"2025-01-01\"}\n"
+                + "{\"itens\":\"x\"}\n"
+                + "\n"
+                + "{\"itens\":[{\"categoria\":\"ROUPAS\",\"precoUnitario\":300,\"quantidade\":1}],\"tier\":\"gold\",\"hoje\":\"2025-01-01\"}\n";
+        HttpResponse<String> r = post("/checkout/batch", corpo);
+        assertEquals(200, r.statusCode());
+        List<String> linhas = r.body().lines().toList();
+        assertEquals(3, linhas.size());
+        assertEquals(120.0, (Double) ((Map<?, ?>) Json.parse(linhas.get(0))).get("total"), 0.0);
+        assertTrue(((Map<?, ?>) Json.parse(linhas.get(1))).containsKey("erro"));
+        assertEquals(30.0, (Double) ((Map<?, ?>) Json.parse(linhas.get(2))).get("discountValue"), 0.0);
+    }
+
+    @Test
+    @DisplayName("Should run load test against local server")
+    public void testLoadTest() throws Exception {
+        LoadTest.Resultado r = new LoadTest("http://localhost:" + server.getPorta(), 20, 200).run();
+        assertEquals(200, r.requisicoes);
+        assertEquals(0, r.erros);
+        assertTrue(r.p99Nanos >= r.p50Nanos);
+    }
+
+    @Test
+    @DisplayName("Should parse JSON escapes and nesting")
+    public void testJson() {
+        Map<?, ?> m = (Map<?, ?>) Json.parse(" {\"a\": [1, 2.5, -3e2], \"b\": \"x\\\"\\u00e7\", \"c\": null, \"d\": true} ");
+        assertEquals(List.of(1.0, 2.5, -300.0), m.get("a"));
+        assertEquals("x\"ç", m.get("b"));
+        assertNull(m.get("c"));
+        assertEquals(Boolean.TRUE, m.get("d"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("{\"a\":1,}"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parse("[1] 2"));
+    }
+}
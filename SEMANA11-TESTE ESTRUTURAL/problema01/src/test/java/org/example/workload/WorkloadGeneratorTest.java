@@ -0,0 +1,130 @@
+package org.example.workload;
+
+import org.example.checkout.CheckoutRequest;
+import org.example.checkout.CheckoutService;
+import org.example.checkout.CouponService;
+import org.example.checkout.CustomerTier;
+import org.example.checkout.Item;
+import org.example.checkout.ShippingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WorkloadGenerator Tests")
+public class WorkloadGeneratorTest {
+
+    private static WorkloadProfile perfil(String texto) {
+        return WorkloadProfile.load(new StringReader(texto));
+    }
+
+    private static String descrever(CheckoutRequest p) {
+        StringBuilder sb = new StringBuilder().append(p.tier).append(p.primeiraCompra).append(p.region)
+                .append(p.peso).append(p.couponCode).append(p.today);
+        for (Item i : p.itens) sb.append('|').append(i.getCategoria()).append(i.getPrecoUnitario()).append(i.getQuantidade());
+        return sb.toString();
+    }
+
+    @Test
+    @DisplayName("Should repeat the same stream for the same seed")
+    public void testSeeded() {
+        List<CheckoutRequest> a = new WorkloadGenerator(WorkloadProfile.padrao(), 42).next(500);
+        List<CheckoutRequest> b = new WorkloadGenerator(WorkloadProfile.padrao(), 42).next(500);
+        List<CheckoutRequest> c = new WorkloadGenerator(WorkloadProfile.padrao(), 43).next(500);
+        assertEquals(a.stream().map(WorkloadGeneratorTest::descrever).toList(),
+                b.stream().map(WorkloadGeneratorTest::descrever).toList());
+        assertNotEquals(a.stream().map(WorkloadGeneratorTest::descrever).toList(),
+                c.stream().map(WorkloadGeneratorTest::descrever).toList());
+    }
+
+    @Test
+    @DisplayName("Should follow the configured shares")
+    public void testShares() {
+        WorkloadProfile perfil = perfil("itens=1-3:1\nquantidades=2:1\ncategorias=BOOK:1, ELETRÔNICOS:3\n"
+                + "tiers=BASIC:2, GOLD:2, SILVER:0\nprimeiraCompra=0.25\nregioes=SUL:1, nenhuma:1\n"
+                + "cupons=nenhum:3, desc10:1\npesos=1-3:1\nprecos=10:1\nhoje=2024-12-01\n");
+        int n = 40_000;
+        int itens = 0, livros = 0, primeira = 0, semRegiao = 0, cupom = 0;
+        Map<CustomerTier, Integer> tiers = new EnumMap<>(CustomerTier.class);
+        for (CheckoutRequest p : new WorkloadGenerator(perfil, 7).next(n)) {
+            assertTrue(p.itens.size() >= 1 && p.itens.size() <= 3);
+            for (Item i : p.itens) {
+                itens++;
+                if (i.getCategoria().equals("BOOK")) livros++;
+                assertEquals(10.0, i.getPrecoUnitario(), 0.0);
+                assertEquals(2, i.getQuantidade());
+            }
+            tiers.merge(p.tier, 1, Integer::sum);
+            if (p.primeiraCompra) primeira++;
+            if (p.region == null) semRegiao++;
+            else assertEquals("SUL", p.region);
+            if (p.couponCode != null) {
+                cupom++;
+                assertEquals("DESC10", p.couponCode);
+            }
+            assertTrue(p.peso >= 1 && p.peso <= 3);
+            assertEquals(LocalDate.of(2024, 12, 1), p.today);
+        }
+        assertEquals(2.0, (double) itens / n, 0.05);
+        assertEquals(0.25, (double) livros / itens, 0.02);
+        assertEquals(0.5, tiers.getOrDefault(CustomerTier.GOLD, 0) / (double) n, 0.02);
+        assertNull(tiers.get(CustomerTier.SILVER));
+        assertEquals(0.25, (double) primeira / n, 0.02);
+        assertEquals(0.5, (double) semRegiao / n, 0.02);
+        assertEquals(0.25, (double) cupom / n, 0.02);
+    }
+
+    @Test
+    @DisplayName("Should keep the default for missing keys and reject invalid ones")
+    public void testProfile() {
+        CheckoutRequest p = new WorkloadGenerator(perfil("tiers=GOLD:1"), 1).next();
+        assertEquals(CustomerTier.GOLD, p.tier);
+        assertEquals(LocalDate.of(2025, 1, 15), p.today);
+
+        assertThrows(IllegalArgumentException.class, () -> perfil("clientes=1:1"));
+        assertThrows(IllegalArgumentException.class, () -> perfil("tiers=PLATINA:1"));
+        assertThrows(IllegalArgumentException.class, () -> perfil("tiers=GOLD"));
+        assertThrows(IllegalArgumentException.class, () -> perfil("tiers=GOLD:0"));
+        assertThrows(IllegalArgumentException.class, () -> perfil("itens=0-3:1"));
+        assertThrows(IllegalArgumentException.class, () -> perfil("itens=1.5:1"));
+        assertThrows(IllegalArgumentException.class, () -> perfil("pesos=5-2:1"));
+        assertThrows(IllegalArgumentException.class, () -> perfil("precos=-1:1"));
+        assertThrows(IllegalArgumentException.class, () -> perfil("primeiraCompra=2"));
+        assertThrows(IllegalArgumentException.class, () -> perfil("hoje=ontem"));
+    }
+
+    @Test
+    @DisplayName("Should price the whole default stream without errors")
+    public void testDefaultProfilePrices() {
+        CheckoutService service = new CheckoutService(new CouponService(), new ShippingService());
+        for (CheckoutRequest p : new WorkloadGenerator(WorkloadProfile.padrao(), 3).next(2_000)) {
+            assertTrue(service.checkout(p.itens, p.tier, p.primeiraCompra, p.region, p.peso, p.couponCode,
+                    p.today, p.couponExpiryInclusive).totalCents >= 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Should hold the target rate and report latency and allocation")
+    public void testRunner() throws InterruptedException {
+        CheckoutService service = new CheckoutService(new CouponService(), new ShippingService());
+        ThroughputRunner runner = new ThroughputRunner(service,
+                new WorkloadGenerator(WorkloadProfile.padrao(), 5).next(200), 2);
+
+        ThroughputRunner.Resultado r = runner.run(2_000, Duration.ofMillis(500));
+        assertEquals(0, r.erros);
+        // a taxa é um teto: nunca passa do alvo e, num serviço folgado, chega perto dele
+        assertTrue(r.pedidos <= 1_000, "pedidos=" + r.pedidos);
+        assertTrue(r.porSegundo > 1_000, r.toString());
+        assertTrue(r.p50Nanos <= r.p99Nanos && r.p99Nanos <= r.p999Nanos && r.p999Nanos <= r.maxNanos);
+        assertTrue(r.bytesPorPedido == -1 || r.bytesPorPedido > 0, r.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> runner.run(-1, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> runner.run(100, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new ThroughputRunner(service, List.of(), 1));
+    }
+}
@@ -1,17 +1,129 @@
 package org.example;
 
+/**
+ * Desconto por faixas de valor. Padrão: sem desconto abaixo de R$100,00, 5% de R$100,00
+ * a R$500,00 e 10% acima de R$500,00. Valor zero, negativo ou NaN lança
+ * {@link IllegalArgumentException}.
+ *
+ * A faixa é achada contando os limites alcançados, sem desvios, ou por busca binária
+ * em tabelas com mais de {@link #MAXIMO_FAIXAS_LINEAR} faixas.
+ * {@link #calcular(double[], double[])} usa a Vector API quando o módulo
+ * {@code jdk.incubator.vector} está carregado ({@code --add-modules jdk.incubator.vector});
+ * senão, o mesmo laço escalar. Os dois caminhos dão exatamente o mesmo double.
+ */
 public class CalculadoraDeDescontos {
+
+    // abaixo disso o custo de montar os vetores não compensa
+    static final int MINIMO_VETOR = 32;
+    // cada faixa custa uma comparação por valor; acima disso a busca binária ganha
+    static final int MAXIMO_FAIXAS_LINEAR = 16;
+
+    private final double[] limites;   // início de cada faixa, inclusive, crescente
+    private final double[] taxas;     // taxas[0] abaixo de limites[0]; taxas[i + 1] a partir de limites[i]
+
+    public CalculadoraDeDescontos() {
+        this(Faixa.aPartirDe(100.0, 0.05), Faixa.acimaDe(500.0, 0.10));
+    }
+
+    /** Faixas em ordem crescente de limite; abaixo da primeira, sem desconto. */
+    public CalculadoraDeDescontos(Faixa... faixas) {
+        limites = new double[faixas.length];
+        taxas = new double[faixas.length + 1];
+        for (int i = 0; i < faixas.length; i++) {
+            Faixa f = faixas[i];
+            if (i > 0 && !(f.limite > limites[i - 1])) {
+                throw new IllegalArgumentException("Faixas fora de ordem: " + f.limite);
+            }
+            limites[i] = f.limite;
+            taxas[i + 1] = f.percentual;
+        }
+    }
+
     public double calcular(double valor){
-        if(valor > 0 && valor < 100 ){
-            return valor;
-        }else if(valor >= 100 && valor <= 500){
-            valor = valor - (valor * 0.05);
-            return valor;
-        }else if(valor > 500){
-            valor = valor - (valor * 0.1);
-            return valor;
-        }else{
+        if(!(valor > 0)){
             throw new IllegalArgumentException("Valor não pode ser negativo");
         }
+        double taxa = taxas[faixa(valor)];
+        return valor - (valor * taxa);
+    }
+
+    /**
+     * {@code out[i] = calcular(in[i])} para cada i. Num valor inválido lança como
+     * {@link #calcular(double)}, com {@code out} já preenchido até a posição anterior.
+     * {@code in} e {@code out} podem ser o mesmo array.
+     */
+    public void calcular(double[] in, double[] out){
+        if(out.length < in.length){
+            throw new IllegalArgumentException("out menor que in");
+        }
+        int i = 0;
+        if(in.length >= MINIMO_VETOR && limites.length <= MAXIMO_FAIXAS_LINEAR && Vetor.DISPONIVEL){
+            i = DescontosVetoriais.calcular(limites, taxas, in, out);
+        }
+        for(; i < in.length; i++){
+            out[i] = calcular(in[i]);
+        }
+    }
+
+    // quantos limites são <= valor, ou seja, o índice em taxas
+    private int faixa(double valor){
+        if(limites.length <= MAXIMO_FAIXAS_LINEAR){
+            // contagem sem desvio: valores aleatórios não erram a previsão de saltos
+            int f = 0;
+            for(double limite : limites){
+                f += valor >= limite ? 1 : 0;
+            }
+            return f;
+        }
+        int baixo = 0;
+        int alto = limites.length;
+        while(baixo < alto){
+            int meio = (baixo + alto) >>> 1;
+            if(limites[meio] <= valor) baixo = meio + 1;
+            else alto = meio;
+        }
+        return baixo;
+    }
+
+    public static final class Faixa {
+        final double limite;
+        final double percentual;
+
+        private Faixa(double limite, double percentual) {
+            if(!(limite > 0) || Double.isInfinite(limite)){
+                throw new IllegalArgumentException("Limite inválido: " + limite);
+            }
+            if(!(percentual >= 0 && percentual <= 1)){
+                throw new IllegalArgumentException("Percentual fora de [0, 1]: " + percentual);
+            }
+            this.limite = limite;
+            this.percentual = percentual;
+        }
+
+        /** Vale para valores maiores ou iguais a {@code valor}. */
+        public static Faixa aPartirDe(double valor, double percentual) {
+            return new Faixa(valor, percentual);
+        }
+
+        /** Vale para valores estritamente maiores que {@code valor}. */
+        public static Faixa acimaDe(double valor, double percentual) {
+            return new Faixa(Math.nextUp(valor), percentual);
+        }
+    }
+
+    // testado na primeira chamada em lote; sem o módulo, DescontosVetoriais nem é carregada
+    static final class Vetor {
+        private Vetor() {}
+
+        static final boolean DISPONIVEL = disponivel();
+
+        private static boolean disponivel() {
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return false;
+            try {
+                return DescontosVetoriais.funciona();
+            } catch (LinkageError e) {
+                return false;
+            }
+        }
     }
 }
@@ -0,0 +1,39 @@
+package org.example;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/** Caminho SIMD de {@link CalculadoraDeDescontos}; só é carregada se o módulo da Vector API existir. */
+final class DescontosVetoriais {
+    private DescontosVetoriais() {}
+
+    private static final VectorSpecies<Double> D = DoubleVector.SPECIES_PREFERRED;
+
+    static boolean funciona() {
+        return D.length() > 1;
+    }
+
+    /**
+     * Calcula vetores inteiros a partir do início e devolve onde parou: o fim da parte
+     * vetorizável ou o início do primeiro vetor com valor inválido, que o chamador
+     * refaz no laço escalar para lançar na posição certa.
+     */
+    static int calcular(double[] limites, double[] taxas, double[] in, double[] out) {
+        int limite = D.loopBound(in.length);
+        int i = 0;
+        for (; i < limite; i += D.length()) {
+            DoubleVector v = DoubleVector.fromArray(D, in, i);
+            // NaN também falha a comparação
+            if (!v.compare(VectorOperators.GT, 0.0).allTrue()) return i;
+            // limites crescentes: a última faixa alcançada fica com a taxa
+            DoubleVector taxa = DoubleVector.broadcast(D, taxas[0]);
+            for (int f = 0; f < limites.length; f++) {
+                taxa = taxa.blend(taxas[f + 1], v.compare(VectorOperators.GE, limites[f]));
+            }
+            // mesma conta do escalar, sem fma, para dar o mesmo double
+            v.sub(v.mul(taxa)).intoArray(out, i);
+        }
+        return i;
+    }
+}
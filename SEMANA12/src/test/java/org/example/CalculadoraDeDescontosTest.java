@@ -36,4 +36,69 @@ class CalculadoraDeDescontosTest {
         CalculadoraDeDescontos calc = new CalculadoraDeDescontos();
         assertThrows(IllegalArgumentException.class, () -> calc.calcular(-50.00));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void compraComValorZero(){
+        CalculadoraDeDescontos calc = new CalculadoraDeDescontos();
+        assertThrows(IllegalArgumentException.class, () -> calc.calcular(0.0));
+        assertThrows(IllegalArgumentException.class, () -> calc.calcular(Double.NaN));
+    }
+
+    @Test
+    public void tabelaComQuatroFaixas(){
+        CalculadoraDeDescontos calc = new CalculadoraDeDescontos(
+                CalculadoraDeDescontos.Faixa.aPartirDe(50.00, 0.02),
+                CalculadoraDeDescontos.Faixa.aPartirDe(100.00, 0.05),
+                CalculadoraDeDescontos.Faixa.acimaDe(500.00, 0.10),
+                CalculadoraDeDescontos.Faixa.aPartirDe(1000.00, 0.15));
+        assertEquals(49.99, calc.calcular(49.99));
+        assertEquals(49.00, calc.calcular(50.00));
+        assertEquals(475.00, calc.calcular(500.00));
+        assertEquals(495.00, calc.calcular(550.00));
+        assertEquals(850.00, calc.calcular(1000.00));
+    }
+
+    @Test
+    public void tabelaInvalida(){
+        assertThrows(IllegalArgumentException.class, () -> new CalculadoraDeDescontos(
+                CalculadoraDeDescontos.Faixa.aPartirDe(500.00, 0.10),
+                CalculadoraDeDescontos.Faixa.aPartirDe(100.00, 0.05)));
+        assertThrows(IllegalArgumentException.class, () -> CalculadoraDeDescontos.Faixa.aPartirDe(0.0, 0.05));
+        assertThrows(IllegalArgumentException.class, () -> CalculadoraDeDescontos.Faixa.aPartirDe(100.00, 1.5));
+    }
+
+    @Test
+    public void emLoteIgualAoUmPorUm(){
+        CalculadoraDeDescontos calc = new CalculadoraDeDescontos();
+        java.util.Random r = new java.util.Random(42);
+        double[] in = new double[1_003];
+        for (int i = 0; i < in.length; i++) {
+            in[i] = Math.round(r.nextDouble() * 100_000) / 100.0 + 0.01;
+        }
+        in[0] = 100.00;
+        in[1] = 500.00;
+        in[2] = Math.nextUp(500.00);
+        in[3] = Math.nextDown(100.00);
+        double[] out = new double[in.length];
+        calc.calcular(in, out);
+        for (int i = 0; i < in.length; i++) {
+            assertEquals(calc.calcular(in[i]), out[i]);
+        }
+        calc.calcular(in, in);
+        assertArrayEquals(out, in);
+    }
+
+    @Test
+    public void emLoteComValorInvalido(){
+        CalculadoraDeDescontos calc = new CalculadoraDeDescontos();
+        double[] in = new double[100];
+        java.util.Arrays.fill(in, 200.00);
+        in[70] = -50.00;
+        double[] out = new double[in.length];
+        assertThrows(IllegalArgumentException.class, () -> calc.calcular(in, out));
+        // preenchido até a posição anterior ao inválido
+        assertEquals(190.00, out[69]);
+        assertEquals(0.0, out[70]);
+        assertThrows(IllegalArgumentException.class, () -> calc.calcular(in, new double[10]));
+    }
+}